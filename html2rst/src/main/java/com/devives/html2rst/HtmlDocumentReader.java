@@ -21,6 +21,7 @@ import com.devives.rst.util.Constants;
 import com.devives.rst.util.StringUtils;
 import org.jsoup.nodes.Attribute;
 import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
 import org.jsoup.nodes.Node;
 import org.jsoup.nodes.TextNode;
 
@@ -37,15 +38,24 @@ public class HtmlDocumentReader implements Constants {
      * https://stackoverflow.com/questions/3445326/regex-in-java-how-to-deal-with-newline
      */
     private static final Pattern whitespace = Pattern.compile("[^\\S\\r?\\n]+");
-    private final Document document_;
+    private final Element root_;
 
     public HtmlDocumentReader(Document document) {
-        document_ = document;
+        root_ = document;
+    }
+
+    /**
+     * Creates reader of the part of the already parsed document. Child nodes of the element are read as the document body.
+     *
+     * @param element Root element of the document part.
+     */
+    public HtmlDocumentReader(Element element) {
+        root_ = element;
     }
 
     public void accept(HtmlVisitor visitor) {
         visitor.beginBody();
-        acceptChildren(document_.childNodes(), visitor);
+        acceptChildren(root_.childNodes(), visitor);
         visitor.endBody();
     }
 
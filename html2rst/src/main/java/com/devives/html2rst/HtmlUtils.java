@@ -28,6 +28,7 @@ import org.jsoup.nodes.Element;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -248,17 +249,28 @@ public abstract class HtmlUtils {
     }
 
     public static InlineElement hrefToLink(String href, String text) {
+        return hrefToLinkFactory(href).apply(text);
+    }
+
+    /**
+     * Computes the kind and the target of the link once, so the factory can be reused for every link with the same href.
+     *
+     * @param href Link.
+     * @return Factory of the RST link, accepting the link text.
+     */
+    public static Function<String, InlineElement> hrefToLinkFactory(String href) {
         String relativeLinkLowerCase = href.toLowerCase(Locale.US);
         if (relativeLinkLowerCase.startsWith("mailto:") ||
                 relativeLinkLowerCase.startsWith("http:") ||
                 relativeLinkLowerCase.startsWith("https:") ||
                 relativeLinkLowerCase.startsWith("file:") ||
                 relativeLinkLowerCase.contains(".html")) {
-            return Rst4Sphinx.elements().anonymousLink(href, StringUtils.findFirstNotNullOrEmpty(text, href));
+            return text -> Rst4Sphinx.elements().anonymousLink(href, StringUtils.findFirstNotNullOrEmpty(text, href));
         } else if (relativeLinkLowerCase.startsWith("#")) {
-            return Rst4Sphinx.elements().link(href.substring(1), StringUtils.findFirstNotNullOrEmpty(text, href.substring(1)));
+            String anchor = href.substring(1);
+            return text -> Rst4Sphinx.elements().link(anchor, StringUtils.findFirstNotNullOrEmpty(text, anchor));
         } else {
-            return new Role("ref", href, StringUtils.findFirstNotNullOrEmpty(text, href));
+            return text -> new Role("ref", href, StringUtils.findFirstNotNullOrEmpty(text, href));
         }
     }
 
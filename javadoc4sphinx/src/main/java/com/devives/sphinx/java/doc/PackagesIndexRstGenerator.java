@@ -22,14 +22,35 @@ import com.devives.sphinx.rst.Rst4Sphinx;
 
 import java.io.File;
 import java.nio.file.Paths;
-import java.util.Objects;
+import java.util.*;
 import java.util.function.Supplier;
 
+/**
+ * Generator of the packages index.
+ * <p>
+ * By default, all packages are listed in the single toctree. If the maximal fan-out is set, and the count of
+ * packages exceeds it, packages are grouped by common name prefix into nested index documents, so no toctree
+ * contains more entries than the fan-out. Nested documents are placed into directories of the prefix packages.
+ */
 public class PackagesIndexRstGenerator implements Supplier<String> {
 
+    /**
+     * Compares package names segment by segment, so packages with the same prefix always follow each other.
+     */
+    private static final Comparator<String[]> SEGMENTS_COMPARATOR = (left, right) -> {
+        for (int i = 0; i < Math.min(left.length, right.length); i++) {
+            int result = left[i].compareTo(right[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(left.length, right.length);
+    };
+
     private String packageIndexFileName_ = "package-index";
     private String title_;
     private String[] packages_;
+    private int maxFanOut_ = 0;
 
     public PackagesIndexRstGenerator(String[] packages) {
         setPackages(packages);
@@ -37,18 +58,127 @@ public class PackagesIndexRstGenerator implements Supplier<String> {
 
     @Override
     public String get() {
+        List<String> entries = new ArrayList<>(packages_.length);
+        for (String packageName : packages_) {
+            entries.add(getPackageIndexPath(packageName.split("\\."), 0));
+        }
+        return buildIndex(StringUtils.findFirstNotNullOrEmpty(title_, "JavaDoc"), entries, 2);
+    }
+
+    /**
+     * Generates the index documents.
+     *
+     * @param indexFileName Name of the root index file without extension.
+     * @return Map of document paths, relative to the root index directory, to suppliers of document texts.
+     * The root index is the first entry.
+     */
+    public Map<String, Supplier<String>> getDocuments(String indexFileName) {
+        StringUtils.requireNotNullOrEmpty(indexFileName);
+        Map<String, Supplier<String>> documents = new LinkedHashMap<>();
+        if (maxFanOut_ < 2 || packages_.length <= maxFanOut_) {
+            documents.put(indexFileName + ".rst", this);
+            return documents;
+        }
+        List<String[]> packages = new ArrayList<>(packages_.length);
+        for (String packageName : packages_) {
+            packages.add(packageName.split("\\."));
+        }
+        packages.sort(SEGMENTS_COMPARATOR);
+        // Nested index must not be confused with the index of the package in the same directory.
+        String nestedFileName = indexFileName.equals(packageIndexFileName_) ? indexFileName + "-tree" : indexFileName;
+        addIndexDocument(documents, "", indexFileName, nestedFileName,
+                StringUtils.findFirstNotNullOrEmpty(title_, "JavaDoc"), packages, 0);
+        return documents;
+    }
+
+    /**
+     * Adds the index document of packages with common prefix and nested documents of its groups.
+     *
+     * @param documents      Target map of documents.
+     * @param directory      Directory of the document, relative to the root index directory, with trailing slash.
+     * @param fileName       Name of the document file without extension.
+     * @param nestedFileName Name of nested index files without extension.
+     * @param title          Title of the document.
+     * @param packages       Sorted segments of package names, sharing the first {@code depth} segments.
+     * @param depth          Count of common segments.
+     */
+    private void addIndexDocument(Map<String, Supplier<String>> documents, String directory, String fileName,
+                                  String nestedFileName, String title, List<String[]> packages, int depth) {
+        // Reserve the position of the document, so parent documents precede nested ones.
+        String path = directory + fileName + ".rst";
+        documents.put(path, null);
+        List<String> entries = new ArrayList<>();
+        int start = 0;
+        while (start < packages.size()) {
+            String[] first = packages.get(start);
+            if (first.length == depth) {
+                // The package, which name is the prefix itself.
+                entries.add(getPackageIndexPath(first, depth));
+                start++;
+                continue;
+            }
+            int end = start + 1;
+            while (end < packages.size() && packages.get(end).length > depth
+                    && packages.get(end)[depth].equals(first[depth])) {
+                end++;
+            }
+            List<String[]> group = packages.subList(start, end);
+            if (group.size() == 1) {
+                entries.add(getPackageIndexPath(first, depth));
+            } else {
+                int groupDepth = getCommonDepth(group, depth + 1);
+                String groupDirectory = String.join("/", Arrays.copyOfRange(first, depth, groupDepth)) + "/";
+                entries.add(groupDirectory + nestedFileName + ".rst");
+                addIndexDocument(documents, directory + groupDirectory, nestedFileName, nestedFileName,
+                        String.join(".", Arrays.copyOfRange(first, 0, groupDepth)), group, groupDepth);
+            }
+            start = end;
+        }
+        // Too many distinct segments on one level are split into numbered parts.
+        for (int level = 1; entries.size() > maxFanOut_; level++) {
+            List<String> parts = new ArrayList<>();
+            for (int i = 0; i < entries.size(); i += maxFanOut_) {
+                String partFileName = fileName + "-" + level + "-" + (parts.size() + 1);
+                List<String> partEntries = new ArrayList<>(entries.subList(i, Math.min(i + maxFanOut_, entries.size())));
+                String partTitle = title + " (" + (parts.size() + 1) + ")";
+                documents.put(directory + partFileName + ".rst", () -> buildIndex(partTitle, partEntries, 1));
+                parts.add(partFileName + ".rst");
+            }
+            entries = parts;
+        }
+        List<String> documentEntries = entries;
+        documents.put(path, () -> buildIndex(title, documentEntries, depth == 0 ? 2 : 1));
+    }
+
+    private static int getCommonDepth(List<String[]> packages, int depth) {
+        String[] first = packages.get(0);
+        while (first.length > depth) {
+            for (String[] segments : packages) {
+                if (segments.length <= depth || !segments[depth].equals(first[depth])) {
+                    return depth;
+                }
+            }
+            depth++;
+        }
+        return depth;
+    }
+
+    private String getPackageIndexPath(String[] segments, int depth) {
+        String directory = String.join(File.separator, Arrays.copyOfRange(segments, depth, segments.length));
+        return Paths.get(directory)
+                .resolve(packageIndexFileName_ + ".rst")
+                .toString().replace(File.separator, "/");
+    }
+
+    private static String buildIndex(String title, List<String> entries, int maxDepth) {
         return Rst4Sphinx.builders().document()
-                .title(StringUtils.findFirstNotNullOrEmpty(title_, "JavaDoc"))
+                .title(title)
                 .tocTree(tocTreeBuilder -> tocTreeBuilder
-                        .setMaxDepth(2)
-                        .ifTrue(packages_.length > 0, () -> {
+                        .setMaxDepth(maxDepth)
+                        .ifTrue(!entries.isEmpty(), () -> {
                             tocTreeBuilder.paragraph(pb -> {
-                                for (String packageName : packages_) {
-                                    String path = Paths
-                                            .get(packageName.replace(".", File.separator))
-                                            .resolve(packageIndexFileName_ + ".rst")
-                                            .toString().replace(File.separator, "/");
-                                    pb.text(path)
+                                for (String entry : entries) {
+                                    pb.text(entry)
                                             .lineBreak();
                                 }
                             });
@@ -74,6 +204,22 @@ public class PackagesIndexRstGenerator implements Supplier<String> {
         return this;
     }
 
+    public int getMaxFanOut() {
+        return maxFanOut_;
+    }
+
+    /**
+     * @param maxFanOut Maximal count of entries in one index document, {@code 0} to list all packages in one document.
+     * @return this
+     */
+    public PackagesIndexRstGenerator setMaxFanOut(int maxFanOut) {
+        if (maxFanOut < 0) {
+            throw new IllegalArgumentException("maxFanOut must not be negative.");
+        }
+        maxFanOut_ = maxFanOut;
+        return this;
+    }
+
     public String[] getPackages() {
         return packages_;
     }
@@ -0,0 +1,46 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation..
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.devives.sphinx.rst.document;
+
+import com.devives.rst.document.RstElement;
+import com.devives.rst.document.RstNodeAbst;
+
+import java.util.Objects;
+
+/**
+ * RstNode, which is serialized to the given text. Allows to include the previously serialized document without
+ * building its elements again.
+ */
+public class SerializedDocument extends RstNodeAbst<RstElement> {
+
+    private final String text_;
+
+    public SerializedDocument(String text) {
+        text_ = Objects.requireNonNull(text);
+    }
+
+    public String getText() {
+        return text_;
+    }
+
+    @Override
+    public String serialize() {
+        return text_;
+    }
+
+}
@@ -0,0 +1,110 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.sphinx.java.doc;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+public class PackagesIndexRstGeneratorTest {
+
+    private static final String[] PACKAGES = {"x.z", "a.b.c", "q", "a.b.e", "x.y", "a.b.d"};
+
+    private static List<String> getEntries(String document) {
+        List<String> entries = new ArrayList<>();
+        for (String line : document.split("\n")) {
+            if (line.trim().endsWith(".rst")) {
+                entries.add(line.trim());
+            }
+        }
+        return entries;
+    }
+
+    @Test
+    public void getDocuments_fanOutNotExceeded_singleDocument() {
+        Map<String, Supplier<String>> documents = new PackagesIndexRstGenerator(PACKAGES)
+                .setMaxFanOut(PACKAGES.length)
+                .getDocuments("index");
+        Assertions.assertEquals(Collections.singletonList("index.rst"), new ArrayList<>(documents.keySet()));
+        Assertions.assertEquals(PACKAGES.length, getEntries(documents.get("index.rst").get()).size());
+    }
+
+    @Test
+    public void getDocuments_fanOutExceeded_documentsNotLargerThanFanOut() {
+        Map<String, Supplier<String>> documents = new PackagesIndexRstGenerator(PACKAGES)
+                .setMaxFanOut(2)
+                .getDocuments("index");
+        Assertions.assertEquals(Arrays.asList(
+                "index.rst",
+                "a/b/index.rst",
+                "a/b/index-1-1.rst",
+                "a/b/index-1-2.rst",
+                "x/index.rst",
+                "index-1-1.rst",
+                "index-1-2.rst"), new ArrayList<>(documents.keySet()));
+        for (Map.Entry<String, Supplier<String>> document : documents.entrySet()) {
+            Assertions.assertTrue(getEntries(document.getValue().get()).size() <= 2, document.getKey());
+        }
+        Assertions.assertEquals(Arrays.asList("index-1-1.rst", "index-1-2.rst"),
+                getEntries(documents.get("index.rst").get()));
+        Assertions.assertEquals(Arrays.asList("a/b/index.rst", "q/package-index.rst"),
+                getEntries(documents.get("index-1-1.rst").get()));
+        Assertions.assertEquals(Arrays.asList("y/package-index.rst", "z/package-index.rst"),
+                getEntries(documents.get("x/index.rst").get()));
+        Assertions.assertEquals(Collections.singletonList("e/package-index.rst"),
+                getEntries(documents.get("a/b/index-1-2.rst").get()));
+    }
+
+    @Test
+    public void getDocuments_singleChildChain_collapsedIntoOneDocument() {
+        Map<String, Supplier<String>> documents = new PackagesIndexRstGenerator(new String[]{"a.b.c.d", "a.b.c.e", "f"})
+                .setMaxFanOut(2)
+                .getDocuments("index");
+        Assertions.assertEquals(Arrays.asList("index.rst", "a/b/c/index.rst"), new ArrayList<>(documents.keySet()));
+        Assertions.assertEquals(Arrays.asList("a/b/c/index.rst", "f/package-index.rst"),
+                getEntries(documents.get("index.rst").get()));
+        Assertions.assertTrue(documents.get("a/b/c/index.rst").get().contains("a.b.c"));
+    }
+
+    @Test
+    public void getDocuments_prefixPackageInGroup_listedBeforeSubpackages() {
+        Map<String, Supplier<String>> documents = new PackagesIndexRstGenerator(new String[]{"a.c", "a", "a.b", "f", "g"})
+                .setMaxFanOut(3)
+                .getDocuments("index");
+        Assertions.assertEquals(Arrays.asList("a/index.rst", "f/package-index.rst", "g/package-index.rst"),
+                getEntries(documents.get("index.rst").get()));
+        Assertions.assertEquals(Arrays.asList("package-index.rst", "b/package-index.rst", "c/package-index.rst"),
+                getEntries(documents.get("a/index.rst").get()));
+    }
+
+    @Test
+    public void getDocuments_indexNamedAsPackageIndex_nestedIndexRenamed() {
+        Map<String, Supplier<String>> documents = new PackagesIndexRstGenerator(new String[]{"a.b", "a.c", "f"})
+                .setMaxFanOut(2)
+                .getDocuments("package-index");
+        Assertions.assertEquals(Arrays.asList("package-index.rst", "a/package-index-tree.rst"),
+                new ArrayList<>(documents.keySet()));
+    }
+
+}
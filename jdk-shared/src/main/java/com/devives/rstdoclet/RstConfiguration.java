@@ -17,6 +17,11 @@
  */
 package com.devives.rstdoclet;
 
+import com.devives.rstdoclet.html.HtmlAdaptersFactory;
+import com.devives.rstdoclet.shard.Shard;
+import com.devives.rstdoclet.util.ConversionCache;
+import com.devives.rstdoclet.util.CrossReferenceIndex;
+import com.devives.rstdoclet.util.DocFilesMirror;
 import jdk.javadoc.internal.doclets.formats.html.HtmlConfiguration;
 import jdk.javadoc.internal.doclets.toolkit.util.Utils;
 
@@ -27,4 +32,92 @@ public interface RstConfiguration {
     HtmlConfiguration getHtmlConfiguration();
 
     Utils utils();
+
+    /**
+     * @return Argument of {@code -docencoding} option, or {@code null}, if pages are written in UTF-8.
+     */
+    String getDocEncoding();
+
+    /**
+     * @return Argument of {@code -archive} option, or {@code null}, if pages are written to the destination directory.
+     */
+    String getArchiveFileName();
+
+    /**
+     * @return {@code true}, if option {@code -onefileperpackage} is given: classes are documented as sections
+     * of the package page instead of separate pages.
+     */
+    boolean isOneFilePerPackage();
+
+    /**
+     * @return {@code true}, if option {@code -resume} is given: pages, completed by the interrupted run, are kept.
+     */
+    boolean isResume();
+
+    /**
+     * @return Argument of {@code -splitmembers} option: count of members, above which the class page is split into
+     * the overview and member pages, or {@code 0}, if class pages are never split.
+     */
+    int getSplitThreshold();
+
+    /**
+     * @return Argument of {@code -packagefanout} option: maximal count of entries in one packages index document,
+     * or {@code 0}, if all packages are listed in one document.
+     */
+    int getPackageFanOut();
+
+    /**
+     * @return Argument of {@code -docfiles} option: which files of {@code doc-files} directories are mirrored.
+     */
+    DocFilesMirror.Mode getDocFilesMode();
+
+    /**
+     * @return {@code true}, if {@code -linkdocfiles} option is given: {@code doc-files} are hard linked instead of copied.
+     */
+    boolean isLinkDocFiles();
+
+    /**
+     * @return {@code true}, if option {@code -partial} is given: only pages of the given packages are regenerated,
+     * the packages index and pages of other packages are kept.
+     */
+    boolean isPartial();
+
+    /**
+     * @return Argument of {@code -changedfiles} option: file with the list of changed source files, or {@code null},
+     * if all pages are generated.
+     */
+    String getChangedFilesList();
+
+    /**
+     * @return Argument of {@code -shard} option: part of packages, which pages are generated by this process, or
+     * {@code null}, if pages of all packages are generated.
+     */
+    Shard getShard();
+
+    /**
+     * @return Factory of components, which depend on the version of the javadoc tool.
+     */
+    RstDocletComponentFactory getComponentFactory();
+
+    /**
+     * @return Factory of writers of the HTML doclet, which depend on the version of the javadoc tool.
+     */
+    HtmlAdaptersFactory getHtmlAdaptersFactory();
+
+    /**
+     * @return Argument of {@code -cachedir} option: directory of the persistent cache of converted comments, shared
+     * by runs, or {@code null}, if comments are always converted.
+     */
+    String getCacheDir();
+
+    /**
+     * @return Index of cross-reference targets, filled before generation of pages.
+     */
+    CrossReferenceIndex getCrossReferenceIndex();
+
+    /**
+     * @return Persistent cache of converted comments, opened on first call, or {@code null}, if {@code -cachedir}
+     * option is not given or the cache is not available.
+     */
+    ConversionCache getConversionCache();
 }
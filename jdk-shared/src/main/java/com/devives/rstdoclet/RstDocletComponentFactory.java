@@ -21,17 +21,11 @@ package com.devives.rstdoclet;
 import com.devives.rstdoclet.util.ImportsCollector;
 import jdk.javadoc.internal.doclets.toolkit.util.Utils;
 
+/**
+ * Factory of components, which depend on the version of the javadoc tool. The instance is owned by
+ * {@link RstConfiguration} of the run.
+ */
 public abstract class RstDocletComponentFactory {
 
-    private static volatile RstDocletComponentFactory INSTANCE;
-
-    public static void setInstance(RstDocletComponentFactory instance) {
-        INSTANCE = instance;
-    }
-
-    public static RstDocletComponentFactory getInstance() {
-        return INSTANCE;
-    }
-
     public abstract ImportsCollector newImportsCollector(Utils utils);
 }
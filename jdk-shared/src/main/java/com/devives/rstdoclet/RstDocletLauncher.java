@@ -0,0 +1,335 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet;
+
+import javax.tools.DocumentationTool;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Runs {@link RstDoclet} in the current JVM through the {@link DocumentationTool} API, without forking the javadoc
+ * process.
+ * <p>
+ * Jobs, given by typed options, are executed in parallel by the fixed count of threads. Each job gets its own file
+ * manager, and its messages are collected into its {@link Result} together with the exit code and the duration, so
+ * build tools can drive the doclet for many modules in one warm JVM.
+ */
+public class RstDocletLauncher {
+
+    /**
+     * Options and sources of one javadoc run.
+     */
+    public static class Job {
+
+        private final String name_;
+        private final List<Path> sourcePath_ = new ArrayList<>();
+        private final List<Path> classPath_ = new ArrayList<>();
+        private final List<String> subpackages_ = new ArrayList<>();
+        private final List<String> excludedPackages_ = new ArrayList<>();
+        private final List<String> packages_ = new ArrayList<>();
+        private final List<String> options_ = new ArrayList<>();
+        private Path destination_;
+        private String packageIndexFileName_;
+        private String encoding_;
+
+        /**
+         * @param name Name of the job, e.g. name of the documented module.
+         */
+        public Job(String name) {
+            name_ = Objects.requireNonNull(name);
+        }
+
+        public String getName() {
+            return name_;
+        }
+
+        public Job addSourcePath(Path... roots) {
+            sourcePath_.addAll(Arrays.asList(roots));
+            return this;
+        }
+
+        public Job addClassPath(Path... entries) {
+            classPath_.addAll(Arrays.asList(entries));
+            return this;
+        }
+
+        /**
+         * @param packageNames Packages, which are documented with all their subpackages.
+         * @return this
+         */
+        public Job addSubpackages(String... packageNames) {
+            subpackages_.addAll(Arrays.asList(packageNames));
+            return this;
+        }
+
+        /**
+         * @param packageNames Packages, which are excluded with all their subpackages.
+         * @return this
+         */
+        public Job addExcludedPackages(String... packageNames) {
+            excludedPackages_.addAll(Arrays.asList(packageNames));
+            return this;
+        }
+
+        /**
+         * @param packageNames Packages, which are documented without subpackages.
+         * @return this
+         */
+        public Job addPackages(String... packageNames) {
+            packages_.addAll(Arrays.asList(packageNames));
+            return this;
+        }
+
+        /**
+         * @param destination Destination directory of generated pages.
+         * @return this
+         */
+        public Job setDestination(Path destination) {
+            destination_ = destination;
+            return this;
+        }
+
+        public Job setPackageIndexFileName(String packageIndexFileName) {
+            packageIndexFileName_ = packageIndexFileName;
+            return this;
+        }
+
+        /**
+         * @param encoding Encoding of source files.
+         * @return this
+         */
+        public Job setEncoding(String encoding) {
+            encoding_ = encoding;
+            return this;
+        }
+
+        /**
+         * Adds any other javadoc or doclet option, e.g. {@code addOption("-doctitle", "API")}.
+         *
+         * @param option Option name and its arguments.
+         * @return this
+         */
+        public Job addOption(String... option) {
+            options_.addAll(Arrays.asList(option));
+            return this;
+        }
+
+        /**
+         * @return Javadoc arguments of the job.
+         */
+        public List<String> toArguments() {
+            List<String> args = new ArrayList<>();
+            if (destination_ != null) {
+                Collections.addAll(args, "-d", destination_.toString());
+            }
+            if (!sourcePath_.isEmpty()) {
+                Collections.addAll(args, "-sourcepath", joinPaths(sourcePath_));
+            }
+            if (!classPath_.isEmpty()) {
+                Collections.addAll(args, "-classpath", joinPaths(classPath_));
+            }
+            if (encoding_ != null) {
+                Collections.addAll(args, "-encoding", encoding_);
+            }
+            if (packageIndexFileName_ != null) {
+                Collections.addAll(args, "-packageindexfilename", packageIndexFileName_);
+            }
+            if (!subpackages_.isEmpty()) {
+                Collections.addAll(args, "-subpackages", String.join(":", subpackages_));
+            }
+            if (!excludedPackages_.isEmpty()) {
+                Collections.addAll(args, "-exclude", String.join(":", excludedPackages_));
+            }
+            args.addAll(options_);
+            args.addAll(packages_);
+            return args;
+        }
+
+        private static String joinPaths(List<Path> paths) {
+            return paths.stream().map(Path::toString).collect(Collectors.joining(File.pathSeparator));
+        }
+
+        @Override
+        public String toString() {
+            return name_;
+        }
+    }
+
+    /**
+     * Outcome of one job.
+     */
+    public static class Result {
+
+        private final Job job_;
+        private final int exitCode_;
+        private final long durationMillis_;
+        private final String output_;
+
+        Result(Job job, int exitCode, long durationMillis, String output) {
+            job_ = job;
+            exitCode_ = exitCode;
+            durationMillis_ = durationMillis;
+            output_ = output;
+        }
+
+        public Job getJob() {
+            return job_;
+        }
+
+        /**
+         * @return Exit code: {@code 0} on success, {@code 1} on errors, {@code 2} on invalid options.
+         */
+        public int getExitCode() {
+            return exitCode_;
+        }
+
+        public boolean isSuccess() {
+            return exitCode_ == 0;
+        }
+
+        /**
+         * @return Wall-clock duration of the job.
+         */
+        public long getDurationMillis() {
+            return durationMillis_;
+        }
+
+        /**
+         * @return Messages of the javadoc tool and the doclet.
+         */
+        public String getOutput() {
+            return output_;
+        }
+
+        @Override
+        public String toString() {
+            return job_ + ": exit code " + exitCode_ + " in " + durationMillis_ + " ms";
+        }
+    }
+
+    private final DocumentationTool tool_;
+    private final int threadCount_;
+
+    /**
+     * Creates the launcher, which runs as many jobs in parallel, as many processors are available.
+     *
+     * @throws IllegalStateException If the javadoc tool is not available in this runtime.
+     */
+    public RstDocletLauncher() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threadCount Maximal count of jobs, running in parallel.
+     * @throws IllegalStateException If the javadoc tool is not available in this runtime.
+     */
+    public RstDocletLauncher(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount must be positive.");
+        }
+        tool_ = ToolProvider.getSystemDocumentationTool();
+        if (tool_ == null) {
+            throw new IllegalStateException("Documentation tool is not available in this runtime.");
+        }
+        threadCount_ = threadCount;
+    }
+
+    /**
+     * Runs the job on the calling thread.
+     *
+     * @param job Job to run.
+     * @return Result of the job.
+     */
+    public Result run(Job job) {
+        StringWriter output = new StringWriter();
+        PrintWriter writer = new PrintWriter(output);
+        long startNanos = System.nanoTime();
+        int exitCode;
+        try (StandardJavaFileManager fileManager = tool_.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            // The javadoc tool of Java 8 does not apply path options to the given file manager.
+            setLocation(fileManager, StandardLocation.SOURCE_PATH, job.sourcePath_);
+            setLocation(fileManager, StandardLocation.CLASS_PATH, job.classPath_);
+            DocumentationTool.DocumentationTask task = tool_.getTask(writer, fileManager, null,
+                    RstDoclet.class, job.toArguments(), null);
+            exitCode = task.call() ? 0 : 1;
+        } catch (IllegalArgumentException e) {
+            writer.println(e.getMessage());
+            exitCode = 2;
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace(writer);
+            exitCode = 1;
+        }
+        writer.flush();
+        return new Result(job, exitCode, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                output.toString());
+    }
+
+    private static void setLocation(StandardJavaFileManager fileManager, StandardLocation location, List<Path> paths)
+            throws IOException {
+        if (!paths.isEmpty()) {
+            fileManager.setLocation(location, paths.stream().map(Path::toFile).collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * Runs jobs in parallel and waits for all of them.
+     *
+     * @param jobs Jobs to run.
+     * @return Results in order of jobs.
+     * @throws InterruptedException If the calling thread is interrupted while waiting. Running jobs are cancelled.
+     */
+    public List<Result> runAll(List<Job> jobs) throws InterruptedException {
+        if (jobs.isEmpty()) {
+            return Collections.emptyList();
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount_, jobs.size()), runnable -> {
+            Thread thread = new Thread(runnable, "rst-doclet-launcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            for (Job job : jobs) {
+                futures.add(executor.submit(() -> run(job)));
+            }
+            List<Result> results = new ArrayList<>();
+            for (Future<Result> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    // run(Job) catches exceptions of the tool, so only errors get here.
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet;
+
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+
+/**
+ * Descriptions of options, which are added by the doclet to options of the standard doclet.
+ * <p>
+ * The standard doclet looks up descriptions of options in its own resources only, so options of the doclet read
+ * {@code doclet.usage.<name>.description} and {@code doclet.usage.<name>.parameters} from resources of the doclet.
+ */
+final class RstOptionResources {
+
+    private static final String BUNDLE_NAME = "com.devives.rstdoclet.resources.standard";
+
+    private RstOptionResources() {
+    }
+
+    /**
+     * @param optionName Name of the option, e.g. {@code -archive}.
+     * @return Description of the option, or empty string, if the description is missing.
+     */
+    static String getDescription(String optionName) {
+        return getText(optionName, "description");
+    }
+
+    /**
+     * @param optionName Name of the option, e.g. {@code -archive}.
+     * @return Parameters of the option, e.g. {@code <file>}, or empty string, if the option has no parameters.
+     */
+    static String getParameters(String optionName) {
+        return getText(optionName, "parameters");
+    }
+
+    private static String getText(String optionName, String kind) {
+        String key = "doclet.usage." + optionName.replaceFirst("^-+", "") + "." + kind;
+        try {
+            return ResourceBundle.getBundle(BUNDLE_NAME).getString(key);
+        } catch (MissingResourceException e) {
+            return "";
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.daemon;
+
+import com.devives.rstdoclet.RstDoclet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregate run: documents several projects one by one in the same JVM.
+ * <p>
+ * Each project is given by the argument file with its javadoc options, including its own {@code -d} directory, so
+ * each project gets the separate output tree. All projects are run by one {@link RstDocletRunner}: classes of the
+ * doclet and the javadoc tool are loaded and compiled once, and the file manager keeps class path archives, which
+ * projects have in common, opened and indexed. Failure of one project does not stop others.
+ * <p>
+ * Usage: {@code RstDocletAggregate [-failfast] <argument file>...}.
+ */
+public class RstDocletAggregate implements Closeable {
+
+    private final RstDocletRunner runner_;
+
+    /**
+     * @throws IOException If the javadoc tool is not available in this runtime.
+     */
+    public RstDocletAggregate() throws IOException {
+        runner_ = new RstDocletRunner();
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> argumentFiles = new ArrayList<>(Arrays.asList(args));
+        boolean failFast = argumentFiles.remove("-failfast");
+        if (argumentFiles.isEmpty()) {
+            System.err.println("Usage: RstDocletAggregate [-failfast] <argument file>...");
+            System.exit(2);
+        }
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(System.out), true);
+        int exitCode;
+        try (RstDocletAggregate aggregate = new RstDocletAggregate()) {
+            exitCode = aggregate.run(argumentFiles, failFast, writer);
+        }
+        writer.flush();
+        System.exit(exitCode);
+    }
+
+    /**
+     * Runs the javadoc tool with {@link RstDoclet} for each project.
+     *
+     * @param argumentFiles Argument files of projects, with or without leading {@code @}.
+     * @param failFast      {@code true} to skip remaining projects after the first failed one.
+     * @param writer        Destination of tool messages.
+     * @return The highest exit code of projects.
+     */
+    public int run(List<String> argumentFiles, boolean failFast, PrintWriter writer) {
+        int exitCode = 0;
+        int projectCount = 0;
+        int failedCount = 0;
+        long startNanos = System.nanoTime();
+        for (String argumentFile : argumentFiles) {
+            String fileName = argumentFile.startsWith("@") ? argumentFile.substring(1) : argumentFile;
+            writer.println("Documenting project " + fileName);
+            long projectNanos = System.nanoTime();
+            int projectExitCode = runner_.run(Collections.singletonList("@" + fileName), writer);
+            projectCount++;
+            writer.println("Project " + fileName + (projectExitCode == 0 ? " completed" : " failed") + " in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - projectNanos) + " ms");
+            exitCode = Math.max(exitCode, projectExitCode);
+            if (projectExitCode != 0) {
+                failedCount++;
+                if (failFast) {
+                    break;
+                }
+            }
+        }
+        writer.println("Documented " + projectCount + " projects, " + failedCount + " failed, in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + " ms");
+        return exitCode;
+    }
+
+    @Override
+    public void close() throws IOException {
+        runner_.close();
+    }
+
+}
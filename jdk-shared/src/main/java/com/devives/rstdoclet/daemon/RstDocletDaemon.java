@@ -0,0 +1,293 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.daemon;
+
+import com.devives.rstdoclet.RstDoclet;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.util.*;
+
+/**
+ * Long-lived process, which runs the javadoc tool with {@link RstDoclet} on requests of {@link RstDocletDaemonClient}.
+ * <p>
+ * The daemon listens on the loopback interface only. Port and random access token are written into the state file,
+ * readable by the owner only, and each request must present the token. Requests are executed one by one, in the
+ * same JVM by {@link RstDocletRunner}, so classes of the doclet and the javadoc tool stay loaded and compiled between
+ * runs, and the file manager is reused while archives of requests are unchanged.
+ * <p>
+ * Usage: {@code RstDocletDaemon [-port <port>] [-statefile <file>]}.
+ */
+public class RstDocletDaemon implements Closeable {
+
+    /**
+     * Name of the default state file in the user home directory.
+     */
+    public static final String DEFAULT_STATE_FILE_NAME = ".rstdoclet-daemon";
+
+    static final String COMMAND_RUN = "run";
+    static final String COMMAND_STOP = "stop";
+    static final String EXIT_PREFIX = "rstdoclet-exit: ";
+    static final String PORT_PROPERTY = "port";
+    static final String TOKEN_PROPERTY = "token";
+    /**
+     * Time to wait for the request, after the connection is accepted.
+     */
+    private static final int REQUEST_TIMEOUT_MILLIS = 30_000;
+    /**
+     * Maximal count of arguments of the single request.
+     */
+    private static final int MAX_ARGUMENT_COUNT = 1_000_000;
+
+    private final RstDocletRunner runner_;
+    private final ServerSocket serverSocket_;
+    private final Path stateFile_;
+    private final String token_;
+    private volatile boolean stopped_ = false;
+
+    /**
+     * Opens the server socket and writes the state file.
+     *
+     * @param port      Port to listen on, {@code 0} to choose any free port.
+     * @param stateFile State file, used by clients to find the daemon.
+     * @throws IOException If the socket can not be opened, or the state file can not be written.
+     */
+    public RstDocletDaemon(int port, Path stateFile) throws IOException {
+        runner_ = new RstDocletRunner();
+        stateFile_ = Objects.requireNonNull(stateFile).toAbsolutePath();
+        token_ = new BigInteger(130, new SecureRandom()).toString(32);
+        serverSocket_ = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        writeState();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = 0;
+        Path stateFile = getDefaultStateFile();
+        for (int i = 0; i < args.length; i++) {
+            if ("-port".equals(args[i]) && i + 1 < args.length) {
+                port = Integer.parseInt(args[++i]);
+            } else if ("-statefile".equals(args[i]) && i + 1 < args.length) {
+                stateFile = Paths.get(args[++i]);
+            } else {
+                System.err.println("Usage: RstDocletDaemon [-port <port>] [-statefile <file>]");
+                System.exit(2);
+            }
+        }
+        try (RstDocletDaemon daemon = new RstDocletDaemon(port, stateFile)) {
+            System.out.println("RstDoclet daemon is listening on port " + daemon.getPort());
+            daemon.serve();
+        }
+    }
+
+    /**
+     * @return Default state file in the user home directory.
+     */
+    public static Path getDefaultStateFile() {
+        return Paths.get(System.getProperty("user.home"), DEFAULT_STATE_FILE_NAME);
+    }
+
+    /**
+     * @return Port, the daemon listens on.
+     */
+    public int getPort() {
+        return serverSocket_.getLocalPort();
+    }
+
+    /**
+     * Accepts and executes requests, until the stop request is received or the daemon is closed.
+     *
+     * @throws IOException If the server socket fails.
+     */
+    public void serve() throws IOException {
+        while (!stopped_) {
+            Socket socket;
+            try {
+                socket = serverSocket_.accept();
+            } catch (SocketException e) {
+                if (stopped_) {
+                    break;
+                }
+                throw e;
+            }
+            try (Socket connection = socket) {
+                handle(connection);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Request failed: " + e);
+            }
+        }
+    }
+
+    private void handle(Socket socket) throws IOException {
+        // A client, which connects and sends nothing, must not block the daemon.
+        socket.setSoTimeout(REQUEST_TIMEOUT_MILLIS);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        // Messages of the tool are flushed line by line, so the client prints them while the run is in progress.
+        PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)), true);
+        if (!token_.equals(reader.readLine())) {
+            writer.println("Invalid daemon token.");
+            writer.println(EXIT_PREFIX + 2);
+            writer.flush();
+            return;
+        }
+        String command = reader.readLine();
+        int exitCode;
+        if (COMMAND_STOP.equals(command)) {
+            stopped_ = true;
+            exitCode = 0;
+        } else if (COMMAND_RUN.equals(command)) {
+            int count = readArgumentCount(reader);
+            List<String> args = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                args.add(readArgument(reader));
+            }
+            socket.setSoTimeout(0);
+            exitCode = runner_.run(args, writer);
+        } else {
+            writer.println("Unknown command: " + command);
+            exitCode = 2;
+        }
+        writer.println(EXIT_PREFIX + exitCode);
+        writer.flush();
+        if (stopped_) {
+            close();
+        }
+    }
+
+    private static int readArgumentCount(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        int count;
+        try {
+            count = line != null ? Integer.parseInt(line) : -1;
+        } catch (NumberFormatException e) {
+            count = -1;
+        }
+        if (count < 0 || count > MAX_ARGUMENT_COUNT) {
+            throw new IOException("Invalid count of arguments: " + line);
+        }
+        return count;
+    }
+
+    /**
+     * Writes the argument, prefixed with its length, e.g. {@code 2:-d\n}, so arguments may contain line breaks.
+     *
+     * @param writer   Request writer.
+     * @param argument Argument.
+     */
+    static void writeArgument(Writer writer, String argument) throws IOException {
+        writer.write(Integer.toString(argument.length()));
+        writer.write(':');
+        writer.write(argument);
+        writer.write('\n');
+    }
+
+    /**
+     * Reads the argument, written by {@link #writeArgument(Writer, String)}.
+     *
+     * @param reader Request reader.
+     * @return Argument.
+     * @throws IOException If the request is malformed or truncated.
+     */
+    static String readArgument(Reader reader) throws IOException {
+        int length = 0;
+        int digitCount = 0;
+        int ch;
+        while ((ch = reader.read()) != ':') {
+            if (ch < '0' || ch > '9' || ++digitCount > 9) {
+                throw new IOException("Malformed argument of the request.");
+            }
+            length = length * 10 + (ch - '0');
+        }
+        if (digitCount == 0) {
+            throw new IOException("Malformed argument of the request.");
+        }
+        char[] value = new char[length];
+        int offset = 0;
+        while (offset < length) {
+            int count = reader.read(value, offset, length - offset);
+            if (count < 0) {
+                throw new EOFException("Truncated argument of the request.");
+            }
+            offset += count;
+        }
+        if (reader.read() != '\n') {
+            throw new IOException("Malformed argument of the request.");
+        }
+        return new String(value);
+    }
+
+    private void writeState() throws IOException {
+        Properties state = new Properties();
+        state.setProperty(PORT_PROPERTY, Integer.toString(getPort()));
+        state.setProperty(TOKEN_PROPERTY, token_);
+        Path parent = stateFile_.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.deleteIfExists(stateFile_);
+        try {
+            Files.createFile(stateFile_, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            Files.createFile(stateFile_);
+        }
+        try (Writer writer = Files.newBufferedWriter(stateFile_, StandardCharsets.UTF_8)) {
+            state.store(writer, "RstDoclet daemon");
+        }
+    }
+
+    /**
+     * Reads the state file of the running daemon.
+     *
+     * @param stateFile State file.
+     * @return Port and access token of the daemon.
+     * @throws IOException If the state file can not be read.
+     */
+    static Properties readState(Path stateFile) throws IOException {
+        Properties state = new Properties();
+        try (Reader reader = Files.newBufferedReader(stateFile, StandardCharsets.UTF_8)) {
+            state.load(reader);
+        }
+        return state;
+    }
+
+    /**
+     * Stops accepting requests, closes the runner and deletes the state file.
+     *
+     * @throws IOException If any error occurs while closing.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        stopped_ = true;
+        try {
+            serverSocket_.close();
+            runner_.close();
+        } finally {
+            Files.deleteIfExists(stateFile_);
+        }
+    }
+
+}
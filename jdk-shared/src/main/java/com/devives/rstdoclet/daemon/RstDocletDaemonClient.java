@@ -0,0 +1,152 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.daemon;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Client of {@link RstDocletDaemon}. Sends javadoc options to the running daemon, prints messages of the tool and
+ * exits with the exit code of the run.
+ * <p>
+ * Relative paths in values of path options, argument files and source files are resolved against the working
+ * directory of the client, because the daemon has its own working directory.
+ * <p>
+ * Usage: {@code RstDocletDaemonClient [-statefile <file>] (-stop | <javadoc options and arguments>)}.
+ */
+public class RstDocletDaemonClient {
+
+    /**
+     * Options, which value is the single path.
+     */
+    private static final Set<String> PATH_OPTIONS = new HashSet<>(Arrays.asList(
+            "-d", "-overview", "-archive", "-cachedir", "-changedfiles"));
+
+    /**
+     * Options, which value is the list of paths.
+     */
+    private static final Set<String> PATH_LIST_OPTIONS = new HashSet<>(Arrays.asList(
+            "-sourcepath", "--source-path", "--module-source-path",
+            "-classpath", "-cp", "--class-path",
+            "--module-path", "-p", "--upgrade-module-path", "-bootclasspath"));
+
+    private final Path stateFile_;
+
+    /**
+     * @param stateFile State file of the daemon.
+     */
+    public RstDocletDaemonClient(Path stateFile) {
+        stateFile_ = Objects.requireNonNull(stateFile);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path stateFile = RstDocletDaemon.getDefaultStateFile();
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (arguments.size() >= 2 && "-statefile".equals(arguments.get(0))) {
+            stateFile = Paths.get(arguments.get(1));
+            arguments = arguments.subList(2, arguments.size());
+        }
+        RstDocletDaemonClient client = new RstDocletDaemonClient(stateFile);
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(System.out), true);
+        int exitCode = arguments.size() == 1 && "-stop".equals(arguments.get(0))
+                ? client.stop(writer)
+                : client.run(arguments, writer);
+        writer.flush();
+        System.exit(exitCode);
+    }
+
+    /**
+     * Runs the javadoc tool in the daemon.
+     *
+     * @param args   Javadoc options, package names and source files.
+     * @param writer Destination of tool messages.
+     * @return Exit code of the run.
+     * @throws IOException If the daemon is not reachable.
+     */
+    public int run(List<String> args, PrintWriter writer) throws IOException {
+        return send(RstDocletDaemon.COMMAND_RUN, toAbsolutePaths(args), writer);
+    }
+
+    /**
+     * Stops the daemon.
+     *
+     * @param writer Destination of daemon messages.
+     * @return Exit code.
+     * @throws IOException If the daemon is not reachable.
+     */
+    public int stop(PrintWriter writer) throws IOException {
+        return send(RstDocletDaemon.COMMAND_STOP, Collections.emptyList(), writer);
+    }
+
+    private int send(String command, List<String> args, PrintWriter writer) throws IOException {
+        Properties state = RstDocletDaemon.readState(stateFile_);
+        int port = Integer.parseInt(state.getProperty(RstDocletDaemon.PORT_PROPERTY));
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            PrintWriter requestWriter = new PrintWriter(new BufferedWriter(
+                    new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)));
+            requestWriter.println(state.getProperty(RstDocletDaemon.TOKEN_PROPERTY));
+            requestWriter.println(command);
+            requestWriter.println(args.size());
+            for (String arg : args) {
+                RstDocletDaemon.writeArgument(requestWriter, arg);
+            }
+            requestWriter.flush();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(RstDocletDaemon.EXIT_PREFIX)) {
+                    return Integer.parseInt(line.substring(RstDocletDaemon.EXIT_PREFIX.length()).trim());
+                }
+                writer.println(line);
+            }
+        }
+        throw new EOFException("Daemon closed the connection without exit code.");
+    }
+
+    private static List<String> toAbsolutePaths(List<String> args) {
+        List<String> result = new ArrayList<>(args.size());
+        for (int i = 0; i < args.size(); i++) {
+            String arg = args.get(i);
+            result.add(arg);
+            if (i + 1 < args.size() && PATH_OPTIONS.contains(arg)) {
+                result.add(toAbsolutePath(args.get(++i)));
+            } else if (i + 1 < args.size() && PATH_LIST_OPTIONS.contains(arg)) {
+                StringJoiner paths = new StringJoiner(File.pathSeparator);
+                for (String path : args.get(++i).split(File.pathSeparator)) {
+                    paths.add(path.isEmpty() ? path : toAbsolutePath(path));
+                }
+                result.add(paths.toString());
+            } else if (arg.startsWith("@")) {
+                result.set(result.size() - 1, "@" + toAbsolutePath(arg.substring(1)));
+            } else if (arg.endsWith(".java") && !arg.startsWith("-")) {
+                result.set(result.size() - 1, toAbsolutePath(arg));
+            }
+        }
+        return result;
+    }
+
+    private static String toAbsolutePath(String path) {
+        return Paths.get(path).toAbsolutePath().toString();
+    }
+
+}
@@ -0,0 +1,238 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.daemon;
+
+import com.devives.rstdoclet.RstDoclet;
+
+import javax.tools.DocumentationTool;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+/**
+ * Runs the javadoc tool with {@link RstDoclet} in the current JVM.
+ * <p>
+ * The standard file manager, with its opened class path archives, is reused by subsequent runs, also by runs with
+ * different source and class paths: locations are reset before each run, and archives, which runs have in common,
+ * stay opened and indexed. The file manager is recreated, when the encoding, the module source path or the platform
+ * options change, or when size or modification time of any archive, referenced since its creation, changes. Runs
+ * are executed one by one. Argument files are expanded as by the javadoc command line.
+ */
+public class RstDocletRunner implements Closeable {
+
+    /**
+     * Options, which configure locations of the file manager, reset before each run.
+     */
+    private static final Set<String> LOCATION_OPTIONS = new HashSet<>(Arrays.asList(
+            "-sourcepath", "--source-path",
+            "-classpath", "-cp", "--class-path",
+            "--module-path", "-p", "--upgrade-module-path"));
+    /**
+     * Options, which configure the file manager and can not be reset.
+     */
+    private static final Set<String> FILE_MANAGER_OPTIONS = new HashSet<>(Arrays.asList(
+            "--module-source-path", "-bootclasspath", "--system", "--release", "-encoding"));
+    private static final StandardLocation[] RESET_LOCATIONS = {
+            StandardLocation.SOURCE_PATH, StandardLocation.CLASS_PATH,
+            StandardLocation.MODULE_PATH, StandardLocation.UPGRADE_MODULE_PATH};
+
+    private final DocumentationTool tool_;
+    private StandardJavaFileManager fileManager_;
+    private String fileManagerKey_;
+    /**
+     * Size and modification time of archives, referenced by runs since creation of the file manager.
+     */
+    private final Map<String, String> archiveStamps_ = new HashMap<>();
+
+    /**
+     * @throws IOException If the javadoc tool is not available in this runtime.
+     */
+    public RstDocletRunner() throws IOException {
+        tool_ = ToolProvider.getSystemDocumentationTool();
+        if (tool_ == null) {
+            throw new IOException("Documentation tool is not available in this runtime.");
+        }
+    }
+
+    /**
+     * Runs the javadoc tool with {@link RstDoclet}.
+     *
+     * @param args   Javadoc options, package names and source files, except {@code -doclet} and {@code -docletpath}.
+     * @param writer Destination of tool messages.
+     * @return Exit code: {@code 0} on success, {@code 1} on errors, {@code 2} on invalid options.
+     */
+    public synchronized int run(List<String> args, PrintWriter writer) {
+        try {
+            args = expandArgumentFiles(args);
+            DocumentationTool.DocumentationTask task = tool_.getTask(writer, getFileManager(args), null,
+                    RstDoclet.class, args, null);
+            return task.call() ? 0 : 1;
+        } catch (IllegalArgumentException e) {
+            writer.println(e.getMessage());
+            return 2;
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace(writer);
+            return 1;
+        } finally {
+            writer.flush();
+        }
+    }
+
+    /**
+     * @return File manager of the previous run with reset locations, if its options and archives are unchanged,
+     * otherwise new one.
+     */
+    private StandardJavaFileManager getFileManager(List<String> args) throws IOException {
+        String key = getFileManagerKey(args);
+        Map<String, String> stamps = getArchiveStamps(args);
+        if (fileManager_ != null && (!key.equals(fileManagerKey_) || !isArchivesUnchanged(stamps))) {
+            fileManager_.close();
+            fileManager_ = null;
+        }
+        if (fileManager_ == null) {
+            fileManager_ = tool_.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+            fileManagerKey_ = key;
+            archiveStamps_.clear();
+        } else {
+            // Locations, which are not given by this run, must not be inherited from the previous run.
+            for (StandardLocation location : RESET_LOCATIONS) {
+                fileManager_.setLocation(location, null);
+            }
+        }
+        archiveStamps_.putAll(stamps);
+        return fileManager_;
+    }
+
+    private boolean isArchivesUnchanged(Map<String, String> stamps) {
+        for (Map.Entry<String, String> entry : stamps.entrySet()) {
+            String previousStamp = archiveStamps_.get(entry.getKey());
+            if (previousStamp != null && !previousStamp.equals(entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String getFileManagerKey(List<String> args) {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i + 1 < args.size(); i++) {
+            if (FILE_MANAGER_OPTIONS.contains(args.get(i))) {
+                key.append(args.get(i)).append('=').append(args.get(++i)).append('\n');
+            }
+        }
+        return key.toString();
+    }
+
+    private static Map<String, String> getArchiveStamps(List<String> args) {
+        Map<String, String> stamps = new HashMap<>();
+        for (int i = 0; i + 1 < args.size(); i++) {
+            if (!LOCATION_OPTIONS.contains(args.get(i)) && !FILE_MANAGER_OPTIONS.contains(args.get(i))) {
+                continue;
+            }
+            for (String element : args.get(++i).split(File.pathSeparator)) {
+                if (element.endsWith(".jar") || element.endsWith(".zip") || element.endsWith(".jmod")) {
+                    try {
+                        BasicFileAttributes attrs = Files.readAttributes(Paths.get(element), BasicFileAttributes.class);
+                        stamps.put(element, attrs.size() + ":" + attrs.lastModifiedTime().toMillis());
+                    } catch (IOException | InvalidPathException e) {
+                        stamps.put(element, "missing");
+                    }
+                }
+            }
+        }
+        return stamps;
+    }
+
+    /**
+     * Replaces {@code @file} arguments with arguments, read from the file: separated by white space, optionally
+     * quoted with {@code '} or {@code "}, and with lines, starting with {@code #}, ignored. The javadoc tool expands
+     * argument files of the command line only.
+     *
+     * @param args Arguments.
+     * @return Expanded arguments.
+     * @throws IOException If any argument file can not be read.
+     */
+    static List<String> expandArgumentFiles(List<String> args) throws IOException {
+        List<String> expanded = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.length() > 1 && arg.startsWith("@")) {
+                String content = new String(Files.readAllBytes(Paths.get(arg.substring(1))), StandardCharsets.UTF_8);
+                tokenize(content, expanded);
+            } else {
+                expanded.add(arg);
+            }
+        }
+        return expanded;
+    }
+
+    private static void tokenize(String content, List<String> tokens) {
+        int i = 0;
+        while (i < content.length()) {
+            char c = content.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '#') {
+                while (i < content.length() && content.charAt(i) != '\n') {
+                    i++;
+                }
+            } else {
+                StringBuilder token = new StringBuilder();
+                while (i < content.length() && !Character.isWhitespace(content.charAt(i))) {
+                    char quote = content.charAt(i++);
+                    if (quote != '"' && quote != '\'') {
+                        token.append(quote);
+                        continue;
+                    }
+                    while (i < content.length() && content.charAt(i) != quote) {
+                        char ch = content.charAt(i++);
+                        if (ch == '\\' && i < content.length()) {
+                            ch = content.charAt(i++);
+                        }
+                        token.append(ch);
+                    }
+                    i++;
+                }
+                tokens.add(token.toString());
+            }
+        }
+    }
+
+    /**
+     * Closes the file manager.
+     *
+     * @throws IOException If any error occurs while closing.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (fileManager_ != null) {
+            fileManager_.close();
+            fileManager_ = null;
+        }
+    }
+
+}
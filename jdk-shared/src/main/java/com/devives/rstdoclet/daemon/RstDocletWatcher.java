@@ -0,0 +1,296 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.daemon;
+
+import com.devives.rstdoclet.RstDoclet;
+import com.devives.rstdoclet.util.DocFilesMirror;
+import com.devives.rstdoclet.util.PageDependencyGraph;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Watch mode: regenerates pages, when sources in {@code -sourcepath} roots change.
+ * <p>
+ * The first run generates all packages, given by {@code -subpackages} option. Then source roots are watched by
+ * {@link WatchService}. Changes are collected until no more events arrive during the quiet period, and only packages
+ * of changed files are regenerated with {@code -partial} option: their class pages and package pages are rewritten,
+ * the packages index and pages of other packages are kept. The javadoc tool needs all sources of the package to
+ * generate its package page, so the package is the unit of regeneration. Packages of pages, which reference types of
+ * changed files according to the {@link PageDependencyGraph} of the previous run, are regenerated too. Deleted files, new packages and lost
+ * events cause the full run, which rewrites the packages index and deletes stale pages. All runs are executed by
+ * one {@link RstDocletRunner}, so the JVM and the file manager stay warm.
+ * <p>
+ * Usage: {@code RstDocletWatcher <javadoc options with -sourcepath and -subpackages>}.
+ */
+public class RstDocletWatcher implements Closeable {
+
+    /**
+     * Time without new events, after which collected changes are processed.
+     */
+    private static final long QUIET_PERIOD_MILLIS = 100;
+
+    private final RstDocletRunner runner_;
+    private final List<String> args_;
+    private final List<String> baseArgs_ = new ArrayList<>();
+    private final List<Path> sourceRoots_ = new ArrayList<>();
+    private Path destDir_ = Paths.get("");
+    private final List<String> subpackages_ = new ArrayList<>();
+    private final List<String> excludedPackages_ = new ArrayList<>();
+    private final WatchService watchService_;
+    private Set<String> packages_ = new HashSet<>();
+
+    /**
+     * @param args Javadoc options for {@link RstDoclet}, including {@code -sourcepath} and {@code -subpackages}.
+     * @throws IOException If the javadoc tool is not available, or source roots can not be watched.
+     */
+    public RstDocletWatcher(List<String> args) throws IOException {
+        args_ = new ArrayList<>(args);
+        for (int i = 0; i < args_.size(); i++) {
+            String arg = args_.get(i);
+            boolean hasValue = i + 1 < args_.size();
+            if (hasValue && ("-sourcepath".equals(arg) || "--source-path".equals(arg))) {
+                for (String root : args_.get(i + 1).split(File.pathSeparator)) {
+                    if (!root.isEmpty()) {
+                        sourceRoots_.add(Paths.get(root).toAbsolutePath().normalize());
+                    }
+                }
+            } else if (hasValue && "-d".equals(arg)) {
+                destDir_ = Paths.get(args_.get(i + 1));
+            } else if (hasValue && "-subpackages".equals(arg)) {
+                subpackages_.addAll(Arrays.asList(args_.get(++i).split(":")));
+                continue;
+            } else if (hasValue && "-exclude".equals(arg)) {
+                excludedPackages_.addAll(Arrays.asList(args_.get(++i).split(":")));
+                continue;
+            }
+            baseArgs_.add(arg);
+        }
+        if (sourceRoots_.isEmpty() || subpackages_.isEmpty()) {
+            throw new IllegalArgumentException("Watch mode requires -sourcepath and -subpackages options.");
+        }
+        runner_ = new RstDocletRunner();
+        watchService_ = FileSystems.getDefault().newWatchService();
+        for (Path root : sourceRoots_) {
+            if (Files.isDirectory(root)) {
+                register(root);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(System.out), true);
+        try (RstDocletWatcher watcher = new RstDocletWatcher(Arrays.asList(args))) {
+            watcher.watch(writer);
+        }
+    }
+
+    /**
+     * Generates all packages, then regenerates changed packages, until the calling thread is interrupted.
+     *
+     * @param writer Destination of tool messages.
+     * @throws IOException          If source roots can not be watched.
+     * @throws InterruptedException If the calling thread is interrupted.
+     */
+    public void watch(PrintWriter writer) throws IOException, InterruptedException {
+        runFull(writer);
+        while (!Thread.currentThread().isInterrupted()) {
+            Set<Path> changedFiles = new LinkedHashSet<>();
+            boolean structureChanged = collectEvents(watchService_.take(), changedFiles);
+            WatchKey key;
+            while ((key = watchService_.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                structureChanged |= collectEvents(key, changedFiles);
+            }
+            Set<String> changedPackages = new TreeSet<>();
+            Set<String> changedTypes = new HashSet<>();
+            for (Path file : changedFiles) {
+                String packageName = getPackageName(file);
+                if (packageName == null || !isSourceFile(file)) {
+                    continue;
+                }
+                if (!packages_.contains(packageName) || (!Files.exists(file) && file.toString().endsWith(".java"))) {
+                    structureChanged = true;
+                }
+                changedPackages.add(packageName);
+                String fileName = file.getFileName().toString();
+                if (fileName.endsWith(".java")) {
+                    String typeName = fileName.substring(0, fileName.length() - ".java".length());
+                    changedTypes.add(packageName.isEmpty() ? typeName : packageName + "." + typeName);
+                }
+            }
+            if (!structureChanged) {
+                changedPackages.addAll(getDependentPackages(changedTypes));
+            }
+            if (structureChanged) {
+                runFull(writer);
+            } else if (!changedPackages.isEmpty()) {
+                runPartial(changedPackages, writer);
+            }
+        }
+    }
+
+    private void runFull(PrintWriter writer) throws IOException {
+        long startTime = System.nanoTime();
+        int exitCode = runner_.run(args_, writer);
+        packages_ = findPackages();
+        writer.println(String.format("Generated %d packages in %d ms, exit code %d",
+                packages_.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), exitCode));
+    }
+
+    private void runPartial(Set<String> packageNames, PrintWriter writer) {
+        long startTime = System.nanoTime();
+        List<String> args = new ArrayList<>(baseArgs_);
+        args.add("-partial");
+        args.addAll(packageNames);
+        int exitCode = runner_.run(args, writer);
+        writer.println(String.format("Regenerated %s in %d ms, exit code %d",
+                packageNames, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), exitCode));
+    }
+
+    /**
+     * @return Documented packages, which pages reference the changed types.
+     */
+    private Set<String> getDependentPackages(Set<String> changedTypes) throws IOException {
+        Set<String> packages = new HashSet<>();
+        for (String page : new PageDependencyGraph(destDir_).getAffectedPages(changedTypes)) {
+            int index = page.lastIndexOf('/');
+            if (index > 0) {
+                String packageName = page.substring(0, index).replace('/', '.');
+                if (packages_.contains(packageName)) {
+                    packages.add(packageName);
+                }
+            }
+        }
+        return packages;
+    }
+
+    /**
+     * @return {@code true}, if directories were created or events were lost.
+     */
+    private boolean collectEvents(WatchKey key, Set<Path> changedFiles) throws IOException {
+        boolean structureChanged = false;
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                structureChanged = true;
+                continue;
+            }
+            Path file = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(file)) {
+                register(file);
+                structureChanged = true;
+            } else {
+                changedFiles.add(file);
+            }
+        }
+        if (!key.reset()) {
+            // Directory was deleted.
+            structureChanged = true;
+        }
+        return structureChanged;
+    }
+
+    private void register(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                dir.register(watchService_, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * @return Names of documented packages, which directories contain source files.
+     */
+    private Set<String> findPackages() throws IOException {
+        Set<String> packages = new HashSet<>();
+        for (Path root : sourceRoots_) {
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(root)) {
+                files.filter(file -> file.toString().endsWith(".java"))
+                        .map(this::getPackageName)
+                        .filter(Objects::nonNull)
+                        .forEach(packages::add);
+            }
+        }
+        return packages;
+    }
+
+    private static boolean isSourceFile(Path file) {
+        String fileName = file.getFileName().toString();
+        return fileName.endsWith(".java")
+                || fileName.equals("package.html")
+                || file.toString().contains(File.separator + DocFilesMirror.DIRECTORY_NAME + File.separator);
+    }
+
+    /**
+     * @param file Changed file.
+     * @return Name of the documented package, containing the file, or {@code null}, if the file is not a part of
+     * documented packages.
+     */
+    private String getPackageName(Path file) {
+        Path absoluteFile = file.toAbsolutePath().normalize();
+        for (Path root : sourceRoots_) {
+            if (!absoluteFile.startsWith(root) || absoluteFile.getParent() == null) {
+                continue;
+            }
+            StringJoiner packageName = new StringJoiner(".");
+            for (Path segment : root.relativize(absoluteFile.getParent())) {
+                if (segment.toString().equals(DocFilesMirror.DIRECTORY_NAME)) {
+                    break;
+                }
+                packageName.add(segment.toString());
+            }
+            String name = packageName.toString();
+            return isDocumented(name) ? name : null;
+        }
+        return null;
+    }
+
+    private boolean isDocumented(String packageName) {
+        for (String excluded : excludedPackages_) {
+            if (packageName.equals(excluded) || packageName.startsWith(excluded + ".")) {
+                return false;
+            }
+        }
+        for (String subpackage : subpackages_) {
+            if (packageName.equals(subpackage) || packageName.startsWith(subpackage + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            watchService_.close();
+        } finally {
+            runner_.close();
+        }
+    }
+
+}
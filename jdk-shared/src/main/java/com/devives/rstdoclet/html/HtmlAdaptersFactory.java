@@ -17,30 +17,24 @@
  */
 package com.devives.rstdoclet.html;
 
-import jdk.javadoc.internal.doclets.formats.html.HtmlConfiguration;
+import com.devives.rstdoclet.RstConfiguration;
 import jdk.javadoc.internal.doclets.formats.html.HtmlDocletWriter;
 import jdk.javadoc.internal.doclets.toolkit.util.ClassTree;
 
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
 
+/**
+ * Factory of writers of the HTML doclet, which depend on the version of the javadoc tool. The instance is owned by
+ * {@link RstConfiguration} of the run.
+ */
 public abstract class HtmlAdaptersFactory {
 
-    private static volatile HtmlAdaptersFactory INSTANCE;
-
-    public static void setInstance(HtmlAdaptersFactory instance) {
-        INSTANCE = instance;
-    }
-
-    public static HtmlAdaptersFactory getInstance() {
-        return INSTANCE;
-    }
-
-    public abstract HtmlDocletWriter newHtmlDocletWriter(HtmlDocletWriter delegateWriter);
+    public abstract HtmlDocletWriter newHtmlDocletWriter(RstConfiguration configuration, HtmlDocletWriter delegateWriter);
 
-    public abstract HtmlDocletWriter newHtmlClassWriter(HtmlConfiguration configuration, TypeElement typeElement, ClassTree classTree);
+    public abstract HtmlDocletWriter newHtmlClassWriter(RstConfiguration configuration, TypeElement typeElement, ClassTree classTree);
 
-    public abstract HtmlDocletWriter newHtmlPackageWriter(HtmlConfiguration configuration, PackageElement packageElement);
+    public abstract HtmlDocletWriter newHtmlPackageWriter(RstConfiguration configuration, PackageElement packageElement);
 
     public abstract HtmlDocletWriterAdapter newHtmlDocletWriterAdapter(HtmlDocletWriter docletWriter);
 
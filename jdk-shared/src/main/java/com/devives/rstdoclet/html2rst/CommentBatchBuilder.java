@@ -0,0 +1,212 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.html2rst;
+
+import com.devives.html2rst.HtmlDocumentReader;
+import com.devives.rst.Rst;
+import com.devives.rst.document.RstDocument;
+import com.devives.rst.document.RstNode;
+import com.devives.rstdoclet.rst.RstGeneratorContext;
+import com.sun.source.doctree.DocTree;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.parser.Parser;
+
+import javax.lang.model.element.Element;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Converts descriptions of several block tags of the single element to RST in one pass.
+ * <p>
+ * HTML of each tag is wrapped into the delimiting {@code div}, all tags are parsed as one HTML document,
+ * and the parsed document is split back per tag. Tag, which markup is not balanced, is parsed separately from its
+ * already rendered HTML. Tags with empty description are not parsed at all. If the {@link CommentCache} is used,
+ * only tags, which are not found in the cache, are converted.
+ *
+ * @see CommentBuilder
+ */
+public class CommentBatchBuilder {
+
+    private static final String TAG_INDEX_ATTR = "data-rst-tag";
+
+    private final Element element_;
+    private final List<? extends DocTree> holderTags_;
+    private final RstGeneratorContext docContext_;
+
+    public CommentBatchBuilder(Element element, List<? extends DocTree> holderTags, RstGeneratorContext docContext) {
+        this.element_ = Objects.requireNonNull(element);
+        this.holderTags_ = Objects.requireNonNull(holderTags);
+        this.docContext_ = Objects.requireNonNull(docContext);
+    }
+
+    /**
+     * @return RST documents in order of holder tags. Document of tag with empty description has no children.
+     */
+    public List<RstDocument> build() {
+        CommentCache cache = CommentCache.of(docContext_);
+        List<RstDocument> result = new ArrayList<>(holderTags_.size());
+        List<String> keys = new ArrayList<>(holderTags_.size());
+        List<Set<Element>> references = new ArrayList<>(holderTags_.size());
+        List<Integer> partIndexes = new ArrayList<>();
+        List<String> htmlTexts = new ArrayList<>();
+        for (int i = 0; i < holderTags_.size(); i++) {
+            DocTree holderTag = holderTags_.get(i);
+            List<? extends DocTree> tags = docContext_.getHtmlDocletWriter().getDescription(element_, holderTag);
+            String key = cache != null ? cache.createKey(element_, holderTag, tags) : null;
+            RstDocument cached = cache != null ? cache.get(key) : null;
+            keys.add(key);
+            references.add(null);
+            result.add(cached);
+            if (cached != null) {
+                continue;
+            }
+            if (cache != null) {
+                cache.beginConversion();
+            }
+            String htmlText;
+            try {
+                htmlText = docContext_.getHtmlDocletWriter().commentTagsToContent(holderTag, element_, tags, false).toString();
+            } finally {
+                if (cache != null) {
+                    references.set(i, cache.endConversion());
+                }
+            }
+            if (!htmlText.trim().isEmpty()) {
+                partIndexes.add(i);
+                htmlTexts.add(htmlText);
+            }
+        }
+        if (!htmlTexts.isEmpty()) {
+            HrefConverter hrefConverter = docContext_.getHrefConverter();
+            List<org.jsoup.nodes.Element> parts = parse(htmlTexts);
+            for (int i = 0; i < parts.size(); i++) {
+                RstDocumentWriter visitor = new RstDocumentWriter(hrefConverter);
+                new HtmlDocumentReader(parts.get(i)).accept(visitor);
+                result.set(partIndexes.get(i), visitor.getDocument());
+            }
+        }
+        for (int i = 0; i < result.size(); i++) {
+            if (result.get(i) == null) {
+                result.set(i, Rst.builders().document().build());
+            }
+            if (references.get(i) != null) {
+                // Converted, not taken from the cache.
+                result.set(i, cache.put(keys.get(i), references.get(i), result.get(i)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parses HTML of several tags as one document.
+     * <p>
+     * Markup of the tag, which causes the parse error, e.g. leaves a formatting element open, would be continued
+     * in following tags. Such tag is parsed separately, and following tags are parsed again as a new document.
+     *
+     * @param htmlTexts Not empty HTML texts of tags.
+     * @return Root elements in order of HTML texts: the delimiting {@code div} of the tag in the common document,
+     * or the document of the tag, parsed separately.
+     */
+    static List<org.jsoup.nodes.Element> parse(List<String> htmlTexts) {
+        List<org.jsoup.nodes.Element> result = new ArrayList<>(htmlTexts.size());
+        while (result.size() < htmlTexts.size()) {
+            int start = result.size();
+            StringBuilder htmlBuilder = new StringBuilder();
+            int[] partEnds = new int[htmlTexts.size() - start];
+            for (int i = start; i < htmlTexts.size(); i++) {
+                htmlBuilder.append("<div ").append(TAG_INDEX_ATTR).append("=\"").append(i).append("\">")
+                        .append(htmlTexts.get(i))
+                        .append("</div>");
+                partEnds[i - start] = htmlBuilder.length();
+            }
+            Parser parser = Parser.htmlParser().setTrackErrors(1);
+            Document document = Jsoup.parse(htmlBuilder.toString(), "", parser);
+            List<org.jsoup.nodes.Element> parts = document.body().children();
+            int validCount = parser.getErrors().isEmpty()
+                    ? (isSplittable(document.body(), partEnds.length) ? partEnds.length : 0)
+                    : getPartIndex(partEnds, parser.getErrors().get(0).getPosition());
+            for (int i = 0; i < validCount && i < parts.size()
+                    && String.valueOf(start + i).equals(parts.get(i).attr(TAG_INDEX_ATTR)); i++) {
+                result.add(parts.get(i));
+            }
+            if (result.size() < htmlTexts.size()) {
+                result.add(Jsoup.parse(htmlTexts.get(result.size())));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param partEnds Positions of ends of delimited parts in the parsed text.
+     * @param position Position in the parsed text.
+     * @return Index of the part, which contains the position. Error at the end of the part belongs to the part.
+     */
+    private static int getPartIndex(int[] partEnds, int position) {
+        int index = 0;
+        while (index < partEnds.length - 1 && partEnds[index] < position) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * @return Bodies of RST documents in order of holder tags.
+     */
+    public List<Collection<RstNode>> buildBodies() {
+        return build().stream()
+                .map(rstDocument -> rstDocument.getChildren().stream()
+                        .filter(RstNode.class::isInstance)
+                        .map(RstNode.class::cast)
+                        .collect(Collectors.toCollection(ArrayList<RstNode>::new)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param body      Body of the parsed document.
+     * @param partCount Count of delimiting {@code div} elements, appended to the document.
+     * @return {@code true}, if the body consists of delimiting {@code div} elements only, so no text is lost by
+     * splitting the body back per tag.
+     */
+    static boolean isSplittable(org.jsoup.nodes.Element body, int partCount) {
+        int count = 0;
+        for (Node node : body.childNodes()) {
+            if (node instanceof TextNode && ((TextNode) node).isBlank()) {
+                continue;
+            }
+            if (!(node instanceof org.jsoup.nodes.Element)
+                    || !"div".equals(node.nodeName())
+                    || node.attr(TAG_INDEX_ATTR).isEmpty()) {
+                return false;
+            }
+            count++;
+        }
+        return count == partCount;
+    }
+
+    /**
+     * @param rstDocument Converted document.
+     * @return {@code true}, if the document has no content. The document is not serialized.
+     */
+    public static boolean isEmpty(RstDocument rstDocument) {
+        return rstDocument.getChildren().isEmpty();
+    }
+
+}
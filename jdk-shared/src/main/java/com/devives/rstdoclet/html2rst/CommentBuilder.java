@@ -41,13 +41,18 @@ public class CommentBuilder {
     private final RstGeneratorContext docContext_;
     private final List<? extends DocTree> tags_;
     private final Utils utils_;
+    /**
+     * Elements of the converted {@code @see} tag are inspected by {@link TagUtils}, so it is never taken from cache.
+     */
+    private final boolean cacheable_;
 
     public CommentBuilder(Element element, RstGeneratorContext docContext) {
         this.element_ = Objects.requireNonNull(element);
         this.docContext_ = Objects.requireNonNull(docContext);
         this.holderTag = null;
         this.utils_ = docContext_.getRstConfiguration().getHtmlConfiguration().utils;
-        this.tags_ = utils_.getBody(element_);
+        this.tags_ = docContext_.getBlockTagIndex(element_).getBody();
+        this.cacheable_ = true;
     }
 
     public CommentBuilder(DocTree holderTag, Element element, RstGeneratorContext docContext) {
@@ -56,6 +61,7 @@ public class CommentBuilder {
         this.docContext_ = Objects.requireNonNull(docContext);
         this.utils_ = docContext_.getRstConfiguration().getHtmlConfiguration().utils;
         this.tags_ = docContext_.getHtmlDocletWriter().getDescription(element_, holderTag);
+        this.cacheable_ = true;
     }
 
     public CommentBuilder(RstGeneratorContext docContext, Element element, SeeTree seeTag) {
@@ -64,12 +70,20 @@ public class CommentBuilder {
         this.tags_ = Collections.singletonList(Objects.requireNonNull(seeTag));
         this.utils_ = docContext_.getRstConfiguration().getHtmlConfiguration().utils;
         this.holderTag = null;
+        this.cacheable_ = false;
     }
 
     public RstDocument build() {
+        CommentCache cache = cacheable_ ? CommentCache.of(docContext_) : null;
+        return cache != null
+                ? cache.computeIfAbsent(cache.createKey(element_, holderTag, tags_), this::convert)
+                : convert();
+    }
+
+    private RstDocument convert() {
         String htmlText = docContext_.getHtmlDocletWriter().commentTagsToContent(holderTag, element_, tags_, false).toString();
         if (!htmlText.trim().isEmpty()) {
-            HrefConverter hrefConverter = new HrefConverterImpl(docContext_);
+            HrefConverter hrefConverter = docContext_.getHrefConverter();
             RstDocumentWriter visitor = new RstDocumentWriter(hrefConverter);
             new HtmlDocumentReader(Jsoup.parse(htmlText)).accept(visitor);
             return visitor.getDocument();
@@ -0,0 +1,299 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.html2rst;
+
+import com.devives.rst.Rst;
+import com.devives.rst.document.RstDocument;
+import com.devives.rstdoclet.rst.RstGeneratorContext;
+import com.devives.rstdoclet.util.ConversionCache;
+import com.devives.rstdoclet.util.CrossReferenceIndex;
+import com.devives.sphinx.rst.document.SerializedDocument;
+import com.sun.source.doctree.DocTree;
+import com.sun.source.doctree.InheritDocTree;
+import com.sun.source.doctree.ValueTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ImportTree;
+import com.sun.source.util.DocTreeScanner;
+import com.sun.source.util.TreePath;
+
+import javax.lang.model.element.*;
+import javax.lang.model.util.Elements;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Comments, converted to RST, cached in the persistent {@link ConversionCache}.
+ * <p>
+ * Key of the comment is the text of its doc trees together with the link-resolution context: the generated page,
+ * the commented element and imports of its compilation unit. Types and packages, referenced by the converted
+ * comment, are stored together with the serialized fragment and their state: the page or the external documentation,
+ * which documents them, and signatures of members of types. The cached fragment is used only, if all referenced types
+ * and packages have the same state, and they are referenced again, so dependencies of the page are recorded as if the
+ * comment was converted. Comments with {@code {@inheritDoc}} or {@code {@value}} tags are not cached, because their
+ * text depends on comments and constants of other elements, which are not part of the key.
+ *
+ * @see CommentBuilder
+ * @see CommentBatchBuilder
+ */
+public class CommentCache {
+
+    private final RstGeneratorContext docContext_;
+    private final ConversionCache cache_;
+    private final CrossReferenceIndex crossReferenceIndex_;
+
+    private CommentCache(RstGeneratorContext docContext, ConversionCache cache) {
+        docContext_ = docContext;
+        cache_ = cache;
+        crossReferenceIndex_ = docContext.getRstConfiguration().getCrossReferenceIndex();
+    }
+
+    /**
+     * @param docContext Context of the generated page.
+     * @return Cache of converted comments, or {@code null}, if comments are converted without cache.
+     */
+    public static CommentCache of(RstGeneratorContext docContext) {
+        ConversionCache cache = docContext.getRstConfiguration().getConversionCache();
+        return cache != null ? new CommentCache(docContext, cache) : null;
+    }
+
+    /**
+     * @param element   Commented element.
+     * @param holderTag Block tag, which holds the description, or {@code null} for the main description.
+     * @param tags      Doc trees of the description.
+     * @return Key of the comment, or {@code null}, if the comment is not cached.
+     */
+    public String createKey(Element element, DocTree holderTag, List<? extends DocTree> tags) {
+        if (dependsOnOtherElements(tags)) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder();
+        key.append(docContext_.getHtmlDocletWriter().path().getPath()).append('\0');
+        for (Element e = element; e != null; e = e.getEnclosingElement()) {
+            key.append(e.getKind()).append(' ').append(e).append('\0');
+            if (e instanceof PackageElement) {
+                break;
+            }
+        }
+        appendImports(key, element);
+        key.append(holderTag != null ? holderTag.getKind() + " " + holderTag : "").append('\0');
+        for (DocTree tag : tags) {
+            key.append(tag).append('\0');
+        }
+        return key.toString();
+    }
+
+    /**
+     * @param tags Doc trees of the description.
+     * @return {@code true}, if the description contains {@code {@inheritDoc}} or {@code {@value}} tags.
+     */
+    private static boolean dependsOnOtherElements(List<? extends DocTree> tags) {
+        DocTreeScanner<Boolean, Void> scanner = new DocTreeScanner<Boolean, Void>() {
+            @Override
+            public Boolean visitInheritDoc(InheritDocTree node, Void unused) {
+                return true;
+            }
+
+            @Override
+            public Boolean visitValue(ValueTree node, Void unused) {
+                return true;
+            }
+
+            @Override
+            public Boolean reduce(Boolean r1, Boolean r2) {
+                return Boolean.TRUE.equals(r1) || Boolean.TRUE.equals(r2);
+            }
+        };
+        for (DocTree tag : tags) {
+            if (Boolean.TRUE.equals(scanner.scan(tag, null))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void appendImports(StringBuilder key, Element element) {
+        TreePath path = docContext_.getRstConfiguration().getHtmlConfiguration().docEnv.getDocTrees().getPath(element);
+        if (path != null) {
+            CompilationUnitTree compilationUnit = path.getCompilationUnit();
+            for (ImportTree importTree : compilationUnit.getImports()) {
+                key.append(importTree).append('\0');
+            }
+        }
+    }
+
+    /**
+     * @param key       Key of the comment, or {@code null}, if the comment is not cached.
+     * @param converter Converter of the comment, called, if the cache has no valid fragment.
+     * @return Converted comment.
+     */
+    public RstDocument computeIfAbsent(String key, Supplier<RstDocument> converter) {
+        if (key == null) {
+            return converter.get();
+        }
+        RstDocument document = get(key);
+        if (document == null) {
+            beginConversion();
+            Set<Element> references;
+            try {
+                document = converter.get();
+            } finally {
+                references = endConversion();
+            }
+            document = put(key, references, document);
+        }
+        return document;
+    }
+
+    /**
+     * @param key Key of the comment, or {@code null}, if the comment is not cached.
+     * @return Cached comment, or {@code null}, if the cache has no fragment, or any referenced type or package has
+     * changed.
+     */
+    public RstDocument get(String key) {
+        if (key == null) {
+            return null;
+        }
+        String value;
+        try {
+            value = cache_.get(key);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (value == null) {
+            return null;
+        }
+        int start = value.indexOf('\n') + 1;
+        int count = Integer.parseInt(value.substring(0, start - 1));
+        List<Element> references = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int end = value.indexOf('\n', start);
+            String line = value.substring(start, end);
+            int separator = line.indexOf('\t');
+            String name = line.substring(0, separator);
+            Element owner = findOwner(name);
+            if (!line.substring(separator + 1).equals(getState(owner))) {
+                return null;
+            }
+            if (owner != null) {
+                references.add(owner);
+            }
+            start = end + 1;
+        }
+        crossReferenceIndex_.addReferences(references);
+        return createDocument(value.substring(start));
+    }
+
+    /**
+     * Starts recording of elements, referenced by the converted comment.
+     */
+    public void beginConversion() {
+        crossReferenceIndex_.startRecording();
+    }
+
+    /**
+     * @return Elements, referenced since {@link #beginConversion()} was called.
+     */
+    public Set<Element> endConversion() {
+        return crossReferenceIndex_.stopRecording();
+    }
+
+    /**
+     * Stores the converted comment.
+     *
+     * @param key        Key of the comment, or {@code null}, if the comment is not cached.
+     * @param references Elements, referenced by the converted comment.
+     * @param document   Converted comment.
+     * @return Document, which is serialized to the same text as the cached one returned by {@link #get(String)}.
+     */
+    public RstDocument put(String key, Set<Element> references, RstDocument document) {
+        if (key == null) {
+            return document;
+        }
+        String text = CommentBatchBuilder.isEmpty(document) ? "" : document.serialize();
+        Set<String> names = references.stream()
+                .map(CommentCache::getOwner)
+                .filter(Objects::nonNull)
+                .map(CommentCache::getOwnerName)
+                .collect(Collectors.toCollection(TreeSet::new));
+        StringBuilder value = new StringBuilder().append(names.size()).append('\n');
+        for (String name : names) {
+            value.append(name).append('\t').append(getState(findOwner(name))).append('\n');
+        }
+        value.append(text);
+        try {
+            cache_.put(key, value.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return createDocument(text);
+    }
+
+    private static RstDocument createDocument(String text) {
+        RstDocument document = Rst.builders().document().build();
+        if (!text.isEmpty()) {
+            document.getChildren().add(new SerializedDocument(text));
+        }
+        return document;
+    }
+
+    /**
+     * @return Type or package, which documents the element, or {@code null} for modules.
+     */
+    private static Element getOwner(Element element) {
+        while (element != null && !(element instanceof TypeElement || element instanceof PackageElement)) {
+            element = element.getEnclosingElement();
+        }
+        return element;
+    }
+
+    private static String getOwnerName(Element owner) {
+        return owner instanceof TypeElement
+                ? "T:" + ((TypeElement) owner).getQualifiedName()
+                : "P:" + ((PackageElement) owner).getQualifiedName();
+    }
+
+    /**
+     * Owner is found by name both on store and validation, so types, which are not found by name, never match.
+     */
+    private Element findOwner(String name) {
+        Elements elements = docContext_.getRstConfiguration().getHtmlConfiguration().docEnv.getElementUtils();
+        return name.startsWith("T:")
+                ? elements.getTypeElement(name.substring(2))
+                : elements.getPackageElement(name.substring(2));
+    }
+
+    /**
+     * @return State of the type or the package, which affects links to it and its members.
+     */
+    private String getState(Element owner) {
+        if (owner instanceof TypeElement) {
+            String members = owner.getEnclosedElements().stream()
+                    .map(member -> member.getKind() + " " + member)
+                    .collect(Collectors.joining(";"));
+            return crossReferenceIndex_.getPage(owner) + " " + Integer.toHexString(members.hashCode());
+        } else if (owner instanceof PackageElement) {
+            return docContext_.getRstConfiguration().utils().isIncluded(owner) + " "
+                    + crossReferenceIndex_.getExternalBaseUrl(owner).orElse(null);
+        }
+        return "missing";
+    }
+
+}
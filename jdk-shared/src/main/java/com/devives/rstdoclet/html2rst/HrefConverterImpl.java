@@ -17,7 +17,6 @@
  */
 package com.devives.rstdoclet.html2rst;
 
-import com.devives.html2rst.HtmlTagFactory;
 import com.devives.html2rst.HtmlUtils;
 import com.devives.rst.document.inline.InlineElement;
 import com.devives.rst.util.StringUtils;
@@ -25,14 +24,25 @@ import com.devives.rstdoclet.rst.RstGeneratorContext;
 import com.devives.sphinx.rst.Rst4Sphinx;
 
 import java.net.URI;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
+/**
+ * Converter of HTML links of the single generated page.
+ * <p>
+ * Path of the page package is computed on first use, and the kind and the target of each distinct href are
+ * computed once per page without {@link URI} parsing in common cases.
+ */
 public class HrefConverterImpl implements HrefConverter {
 
     private final RstGeneratorContext docContext_;
     private final String packageIndexFileName_;
     private final String packageSummaryFileName_ = "package-summary.html";
+    private final Map<String, Function<String, InlineElement>> linkFactories_ = new HashMap<>();
+    private String packageUri_;
 
     public HrefConverterImpl(RstGeneratorContext docContext) {
         this.docContext_ = docContext;
@@ -46,38 +56,66 @@ public class HrefConverterImpl implements HrefConverter {
         return text;
     }
 
-    @Override
-    public InlineElement resolve(String href, Map<String, String> attributes, String text) {
-        if (StringUtils.isNullOrEmpty(href)) {
-            Rst4Sphinx.elements().text(text);
+    /**
+     * @param href Link.
+     * @return {@code true}, if the link starts with URI scheme, like {@code https:} or {@code mailto:}.
+     */
+    private static boolean hasScheme(String href) {
+        for (int i = 0; i < href.length(); i++) {
+            char ch = href.charAt(i);
+            if (ch == ':') {
+                return i > 0;
+            }
+            boolean schemeChar = (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z')
+                    || (i > 0 && ((ch >= '0' && ch <= '9') || ch == '+' || ch == '-' || ch == '.'));
+            if (!schemeChar) {
+                return false;
+            }
         }
+        return false;
+    }
+
+    /**
+     * @return Path of the page package relative to the page, like {@code ../../com/devives}.
+     */
+    private String getPackageUri() {
+        if (packageUri_ == null) {
+            Path parent = Paths.get(docContext_.getHtmlDocletWriter().path().getPath()).getParent();
+            String path = parent != null ? parent.toString().replace("\\", "/") : "";
+            String pathToRoot = endWith(docContext_.getHtmlDocletWriter().pathToRoot().getPath().replace("\\", "/"), "/");
+            packageUri_ = URI.create(pathToRoot).resolve(path).toString();
+        }
+        return packageUri_;
+    }
 
-        URI hrefUri = URI.create(href);
-        if (hrefUri.getScheme() != null) {
+    private boolean isPackageIndexHref(String href) {
+        if (hasScheme(href)) {
             // Any external link
+            return false;
         } else if (href.startsWith("#")) {
             // Link to the class member or internal document anchor or header.
-        } else if (href.equals(packageSummaryFileName_)) {
-            // Link to the package index.
-            return Rst4Sphinx.elements().anonymousLink(packageIndexFileName_, text);
-        } else if (href.endsWith(packageSummaryFileName_)) {
-            String path = Paths.get(docContext_.getHtmlDocletWriter().path().getPath()).getParent().toString().replace("\\", "/");
-            String pathToRoot = endWith(docContext_.getHtmlDocletWriter().pathToRoot().getPath().replace("\\", "/"), "/");
-            URI pathUri = URI.create(pathToRoot).resolve(path);
-            if (href.startsWith(pathUri.toString())) {
-                return Rst4Sphinx.elements().anonymousLink(packageIndexFileName_, text);
-            }
-        } else if (href.equals(packageIndexFileName_)) {
+            return false;
+        } else if (href.equals(packageSummaryFileName_) || href.equals(packageIndexFileName_)) {
             // Link to the package index.
-            return Rst4Sphinx.elements().anonymousLink(packageIndexFileName_, text);
-        } else if (href.endsWith(packageIndexFileName_)) {
-            String path = Paths.get(docContext_.getHtmlDocletWriter().path().getPath()).getParent().toString().replace("\\", "/");
-            String pathToRoot = endWith(docContext_.getHtmlDocletWriter().pathToRoot().getPath().replace("\\", "/"), "/");
-            URI pathUri = URI.create(pathToRoot).resolve(path);
-            if (href.startsWith(pathUri.toString())) {
-                return Rst4Sphinx.elements().anonymousLink(packageIndexFileName_, text);
-            }
+            return true;
+        } else if (href.endsWith(packageSummaryFileName_) || href.endsWith(packageIndexFileName_)) {
+            return href.startsWith(getPackageUri());
+        }
+        return false;
+    }
+
+    @Override
+    public InlineElement resolve(String href, Map<String, String> attributes, String text) {
+        if (StringUtils.isNullOrEmpty(href)) {
+            return Rst4Sphinx.elements().text(text);
+        }
+        return linkFactories_.computeIfAbsent(href, this::createLinkFactory).apply(text);
+    }
+
+    private Function<String, InlineElement> createLinkFactory(String href) {
+        if (isPackageIndexHref(href)) {
+            return text -> Rst4Sphinx.elements().anonymousLink(packageIndexFileName_, text);
         }
-        return HtmlUtils.hrefToLink(HtmlTagFactory.create("a", attributes, text));
+        return HtmlUtils.hrefToLinkFactory(href);
     }
 }
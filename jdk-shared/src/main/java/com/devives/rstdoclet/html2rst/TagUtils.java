@@ -21,9 +21,11 @@ import com.devives.html2rst.HtmlUtils;
 import com.devives.rst.builder.BodyBuilders;
 import com.devives.rst.builder.RstElementBuilder;
 import com.devives.rst.document.Paragraph;
+import com.devives.rst.document.RstDocument;
 import com.devives.rst.document.inline.InlineElement;
 import com.devives.rst.util.StringUtils;
 import com.devives.rstdoclet.rst.RstGeneratorContext;
+import com.devives.rstdoclet.util.BlockTagIndex;
 import com.devives.sphinx.rst.Rst4Sphinx;
 import com.devives.sphinx.rst.document.directive.Directives;
 import com.sun.source.doctree.DocTree;
@@ -31,9 +33,8 @@ import com.sun.source.doctree.SeeTree;
 import jdk.javadoc.internal.doclets.toolkit.util.Utils;
 
 import javax.lang.model.element.Element;
-import java.util.Collection;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.stream.Collectors;
 
 public class TagUtils {
 
@@ -46,91 +47,94 @@ public class TagUtils {
     }
 
     public enum TagName {
-        Since,
-        Version,
-        Deprecated,
-        Author,
-        See
+        Since(DocTree.Kind.SINCE),
+        Version(DocTree.Kind.VERSION),
+        Deprecated(DocTree.Kind.DEPRECATED),
+        Author(DocTree.Kind.AUTHOR),
+        See(DocTree.Kind.SEE);
+
+        private final DocTree.Kind kind_;
+
+        TagName(DocTree.Kind kind) {
+            kind_ = kind;
+        }
+
+        public DocTree.Kind getKind() {
+            return kind_;
+        }
     }
 
     /**
+     * Descriptions of all requested tags, except {@code @see}, are converted to RST in one pass.
+     *
      * @see <a href="https://www.tutorialspoint.com/java/java_documentation.htm">The javadoc Tags</a>
      */
     public RstElementBuilder<?, ?, ?> appendTags(BodyBuilders<?, ?, ?, ?> builder, Element element, Collection<TagName> tagNames) {
         // Tag[] valueTags = doc.tags("@value");
         // Tag[] serialTags = doc.tags("@serial");
+        BlockTagIndex tagIndex = docContext_.getBlockTagIndex(element);
+        List<DocTree> batchTags = tagNames.stream()
+                .filter(tagName -> tagName != TagName.See)
+                .flatMap(tagName -> tagIndex.getBlockTags(tagName.getKind()).stream())
+                .collect(Collectors.toList());
+        Iterator<RstDocument> documents = batchTags.isEmpty()
+                ? Collections.emptyIterator()
+                : new CommentBatchBuilder(element, batchTags, docContext_).build().iterator();
         tagNames.forEach(tagName -> {
-            switch (tagName) {
-                case Author:
-                    appendAuthorTags(builder, element);
-                    break;
-                case Since:
-                    appendSinceTags(builder, element);
-                    break;
-                case Version:
-                    appendVersionTags(builder, element);
-                    break;
-                case Deprecated:
-                    appendDeprecatedTags(builder, element);
-                    break;
-                case See:
-                    appendSeeTags(builder, element);
-                    break;
+            if (tagName == TagName.See) {
+                appendSeeTags(builder, element);
+            } else {
+                appendDirectiveTags(builder, tagName, tagIndex.getBlockTags(tagName.getKind()).size(), documents);
             }
         });
         return builder;
     }
 
     public RstElementBuilder<?, ?, ?> appendAuthorTags(BodyBuilders<?, ?, ?, ?> builder, Element element) {
-        List<? extends DocTree> tags = utils_.getBlockTags(element, DocTree.Kind.AUTHOR);
-        return builder.ifTrue(tags.size() > 0, () -> {
-            for (DocTree tag : tags) {
-                String text = new CommentBuilder(tag, element, docContext_).build().serialize();
-                if (StringUtils.notNullOrEmpty(text)) {
-                    builder.directive(Directives.SectionAuthor, text);
-                }
-            }
-        });
+        return appendTags(builder, element, Collections.singletonList(TagName.Author));
     }
 
     public RstElementBuilder<?, ?, ?> appendSinceTags(BodyBuilders<?, ?, ?, ?> builder, Element element) {
-        List<? extends DocTree> tags = utils_.getBlockTags(element, DocTree.Kind.SINCE);
-        return builder.ifTrue(tags.size() > 0, () -> {
-            for (DocTree tag : tags) {
-                String text = new CommentBuilder(tag, element, docContext_).build().serialize();
-                if (StringUtils.notNullOrEmpty(text)) {
-                    builder.directive(Directives.VersionAdded, text);
-                }
-            }
-        });
+        return appendTags(builder, element, Collections.singletonList(TagName.Since));
     }
 
     public RstElementBuilder<?, ?, ?> appendVersionTags(BodyBuilders<?, ?, ?, ?> builder, Element element) {
-        List<? extends DocTree> tags = utils_.getBlockTags(element, DocTree.Kind.VERSION);
-        return builder.ifTrue(tags.size() > 0, () -> {
-            for (DocTree tag : tags) {
-                String text = new CommentBuilder(tag, element, docContext_).build().serialize();
-                if (StringUtils.notNullOrEmpty(text)) {
-                    builder.directive(Directives.VersionChanged, text);
-                }
-            }
-        });
+        return appendTags(builder, element, Collections.singletonList(TagName.Version));
     }
 
     public RstElementBuilder<?, ?, ?> appendDeprecatedTags(BodyBuilders<?, ?, ?, ?> builder, Element element) {
-        List<? extends DocTree> tags = utils_.getBlockTags(element, DocTree.Kind.DEPRECATED);
-        return builder.ifTrue(tags.size() > 0, () -> {
-            for (DocTree tag : tags) {
-                String text = new CommentBuilder(tag, element, docContext_).build().serialize();
-                if (StringUtils.notNullOrEmpty(text)) {
-                    builder.directive(Directives.Deprecated, text);
+        return appendTags(builder, element, Collections.singletonList(TagName.Deprecated));
+    }
+
+    private void appendDirectiveTags(BodyBuilders<?, ?, ?, ?> builder, TagName tagName, int count, Iterator<RstDocument> documents) {
+        for (int i = 0; i < count; i++) {
+            RstDocument document = documents.next();
+            if (document.getChildren().isEmpty()) {
+                continue;
+            }
+            // The document is serialized once, as the argument of the directive.
+            String text = document.serialize();
+            if (StringUtils.notNullOrEmpty(text)) {
+                switch (tagName) {
+                    case Author:
+                        builder.directive(Directives.SectionAuthor, text);
+                        break;
+                    case Since:
+                        builder.directive(Directives.VersionAdded, text);
+                        break;
+                    case Version:
+                        builder.directive(Directives.VersionChanged, text);
+                        break;
+                    case Deprecated:
+                        builder.directive(Directives.Deprecated, text);
+                        break;
                 }
             }
-        });
+        }
     }
 
     public RstElementBuilder<?, ?, ?> appendSeeTags(BodyBuilders<?, ?, ?, ?> builder, Element element) {
-        List<? extends DocTree> tags = utils_.getBlockTags(element, DocTree.Kind.SEE);
+        List<? extends DocTree> tags = docContext_.getBlockTagIndex(element).getBlockTags(DocTree.Kind.SEE);
         return builder.ifTrue(tags.size() > 0, () -> {
             builder.directive(Directives.SeeAlso, seeAlsoBuilder -> {
                 seeAlsoBuilder.lineBlock(lineBlockBuilder -> {
@@ -22,11 +22,11 @@ import com.devives.rst.builder.RstDocumentBuilder;
 import com.devives.rst.document.RstDocument;
 import com.devives.rst.document.directive.Directive;
 import com.devives.rstdoclet.RstConfiguration;
-import com.devives.rstdoclet.html.HtmlAdaptersFactory;
 import com.devives.rstdoclet.html.HtmlDocletWriterAdapter;
 import com.devives.rstdoclet.rst.builder.*;
 import com.devives.rstdoclet.util.DocUtils;
 import com.devives.rstdoclet.util.ElementUtils;
+import com.devives.sphinx.rst.Rst4Sphinx;
 import jdk.javadoc.internal.doclets.formats.html.HtmlDocletWriter;
 import jdk.javadoc.internal.doclets.toolkit.util.ClassTree;
 
@@ -40,79 +40,234 @@ import java.util.stream.Collectors;
 
 public class ClassRstGenerator implements Supplier<String> {
 
+    /**
+     * Group of class members, documented under the common title.
+     */
+    private static final class MemberGroup {
+        private final String title_;
+        private final String fileSuffix_;
+        private final List<? extends Element> members_;
+
+        MemberGroup(String title, String fileSuffix, List<? extends Element> members) {
+            title_ = title;
+            fileSuffix_ = fileSuffix;
+            members_ = members;
+        }
+    }
+
     private final TypeElement classDoc_;
     private final RstConfiguration configuration_;
-    private final Map<String, TypeElement> imports_ = new HashMap<>();
     private final HtmlDocletWriter htmlClassWriter_;
     private final HtmlDocletWriterAdapter htmlDocletWriter_;
     private final RstGeneratorContext docContext_;
+    private int titleLevel_ = 1;
+    private int splitThreshold_ = 0;
+    private List<MemberGroup> memberGroups_;
 
     public ClassRstGenerator(RstConfiguration configuration, TypeElement typeElement, ClassTree classTree) {
         this.classDoc_ = Objects.requireNonNull(typeElement);
         this.configuration_ = configuration;
-        this.htmlClassWriter_ = HtmlAdaptersFactory.getInstance().newHtmlClassWriter(configuration.getHtmlConfiguration(), typeElement, classTree);
+        this.htmlClassWriter_ = configuration.getHtmlAdaptersFactory().newHtmlClassWriter(configuration, typeElement, classTree);
         this.htmlDocletWriter_ =
-                HtmlAdaptersFactory.getInstance().newHtmlDocletWriterAdapter(
-                        HtmlAdaptersFactory.getInstance().newHtmlDocletWriter(
-                                htmlClassWriter_));
+                configuration.getHtmlAdaptersFactory().newHtmlDocletWriterAdapter(
+                        configuration.getHtmlAdaptersFactory().newHtmlDocletWriter(
+                                configuration, htmlClassWriter_));
         this.docContext_ = new RstGeneratorContextImpl(configuration, htmlDocletWriter_);
     }
 
+    /**
+     * Sets level of the class title. Titles of member groups and members follow the class title.
+     *
+     * @param titleLevel Level of the class title, {@code 1} for the separate page of the class.
+     * @return This generator.
+     */
+    public ClassRstGenerator setTitleLevel(int titleLevel) {
+        if (titleLevel < 1) {
+            throw new IllegalArgumentException("titleLevel must be positive.");
+        }
+        titleLevel_ = titleLevel;
+        return this;
+    }
+
+    /**
+     * Sets count of members, above which the class is split into several pages by {@link #getPages(String)}.
+     *
+     * @param splitThreshold Maximal count of members on the single page, or {@code 0} to never split the class.
+     * @return This generator.
+     */
+    public ClassRstGenerator setSplitThreshold(int splitThreshold) {
+        if (splitThreshold < 0) {
+            throw new IllegalArgumentException("splitThreshold must not be negative.");
+        }
+        splitThreshold_ = splitThreshold;
+        return this;
+    }
+
     @Override
     public String get() {
-        RstDocumentBuilder<?> classContentBuilder = Rst.builders().document().title(configuration_.utils().getSimpleName(classDoc_));
-        List<Element> enumConstants = configuration_.utils().getEnumConstants(classDoc_).stream()
-                .map(Element.class::cast)
-                .collect(Collectors.toList());
-        List<VariableElement> fields = configuration_.utils().getFields(classDoc_);
-        List<ExecutableElement> constructors = configuration_.utils().getConstructors(classDoc_);
-        List<ExecutableElement> methods = configuration_.utils().getMethods(classDoc_);
+        return buildDocument().getSerialized("Something gone wrong.");
+    }
+
+    /**
+     * @return Document of the class, which may be serialized as the page or included into another document.
+     */
+    public RstDocument buildDocument() {
+        Map<String, TypeElement> imports = new HashMap<>();
+        RstDocumentBuilder<?> classContentBuilder = Rst.builders().document();
+        appendTypeDescription(classContentBuilder, imports);
+        for (MemberGroup memberGroup : getMemberGroups()) {
+            appendMemberGroup(classContentBuilder, memberGroup.title_, memberGroup.members_, titleLevel_ + 1, imports);
+        }
+        return finishDocument(classContentBuilder, imports);
+    }
 
-        classContentBuilder
+    /**
+     * Generates pages of the class. If count of members does not exceed the split threshold, the class has the single
+     * page. Otherwise the class has the overview page, and each group of members (enum constants, fields,
+     * constructors, methods) has own page, referenced from the table of contents of the overview. The group, which
+     * alone exceeds the threshold, is split into alphabetical chunks.
+     *
+     * @param baseFileName Name of the class page file without extension.
+     * @return Page suppliers by file names, the overview page first.
+     */
+    public Map<String, Supplier<String>> getPages(String baseFileName) {
+        Map<String, Supplier<String>> pages = new LinkedHashMap<>();
+        int memberCount = getMemberGroups().stream().mapToInt(group -> group.members_.size()).sum();
+        if (splitThreshold_ == 0 || memberCount <= splitThreshold_) {
+            pages.put(baseFileName + ".rst", this);
+            return pages;
+        }
+        Map<String, Supplier<String>> memberPages = new LinkedHashMap<>();
+        for (MemberGroup memberGroup : getMemberGroups()) {
+            List<? extends Element> members = memberGroup.members_;
+            if (members.size() <= splitThreshold_) {
+                memberPages.put(baseFileName + "-" + memberGroup.fileSuffix_ + ".rst",
+                        () -> buildMemberPage(memberGroup.title_, members));
+            } else {
+                int chunkCount = (members.size() + splitThreshold_ - 1) / splitThreshold_;
+                for (int chunk = 0; chunk < chunkCount; chunk++) {
+                    List<? extends Element> chunkMembers = members.subList(chunk * splitThreshold_,
+                            Math.min(members.size(), (chunk + 1) * splitThreshold_));
+                    String chunkTitle = memberGroup.title_ + " ("
+                            + configuration_.utils().getSimpleName(chunkMembers.get(0)) + " - "
+                            + configuration_.utils().getSimpleName(chunkMembers.get(chunkMembers.size() - 1)) + ")";
+                    memberPages.put(baseFileName + "-" + memberGroup.fileSuffix_ + "-" + (chunk + 1) + ".rst",
+                            () -> buildMemberPage(chunkTitle, chunkMembers));
+                }
+            }
+        }
+        List<String> memberPageNames = new ArrayList<>(memberPages.keySet());
+        pages.put(baseFileName + ".rst", () -> buildOverviewPage(memberPageNames));
+        pages.putAll(memberPages);
+        return pages;
+    }
+
+    private String buildOverviewPage(List<String> memberPageNames) {
+        Map<String, TypeElement> imports = new HashMap<>();
+        RstDocumentBuilder<?> overviewBuilder = Rst.builders().document();
+        appendTypeDescription(overviewBuilder, imports);
+        Rst4Sphinx.builders().document()
+                .tocTree(tocTreeBuilder -> tocTreeBuilder
+                        .setMaxDepth(1)
+                        .paragraph(pb -> {
+                            for (String memberPageName : memberPageNames) {
+                                pb.text(memberPageName).lineBreak();
+                            }
+                        }))
+                .build().getChildren().forEach(overviewBuilder::addChild);
+        return finishDocument(overviewBuilder, imports).getSerialized("Something gone wrong.");
+    }
+
+    private String buildMemberPage(String title, List<? extends Element> members) {
+        Map<String, TypeElement> imports = new HashMap<>();
+        RstDocumentBuilder<?> pageBuilder = Rst.builders().document()
+                .title(configuration_.utils().getSimpleName(classDoc_) + " " + title, titleLevel_)
+                .addChild(new JavaPackageBuilder<>(ElementUtils.getPackageOfType(classDoc_), configuration_)
+                        .setNoIndex(true)
+                        .build());
+        for (Element member : members) {
+            pageBuilder.title(configuration_.utils().getSimpleName(member), titleLevel_ + 1)
+                    .addChild(buildMember(member, imports));
+        }
+        return finishDocument(pageBuilder, imports).getSerialized("Something gone wrong.");
+    }
+
+    private void appendTypeDescription(RstDocumentBuilder<?> builder, Map<String, TypeElement> imports) {
+        builder.title(configuration_.utils().getSimpleName(classDoc_), titleLevel_)
                 .addChild(new JavaPackageBuilder<>(ElementUtils.getPackageOfType(classDoc_), configuration_)
                         .setNoIndex(true)
                         .build())
-                .ifTrue(classDoc_.getAnnotationMirrors().size() > 0, builder -> {
+                .ifTrue(classDoc_.getAnnotationMirrors().size() > 0, () -> {
                     String annotations = DocUtils.formatAnnotations(classDoc_);
                     builder.ifTrue(!annotations.isEmpty(), () -> {
                         builder.paragraph(annotations);
                     });
                 })
-                .addChild(new JavaTypeBuilder<>(classDoc_, docContext_).fillImports(imports_).build())
-                .ifTrue(enumConstants.size() > 0, (textBuilder) -> {
-                    textBuilder.subTitle("Enum Constants");
-                    VariableElement[] sortedFieldDocs = enumConstants.stream()
-                            .sorted(Comparator.comparing(e -> configuration_.utils().getSimpleName(e)))
-                            .map(it -> (VariableElement) it)
-                            .toArray(VariableElement[]::new);
-                    for (VariableElement fieldDoc : sortedFieldDocs) {
-                        textBuilder.title(configuration_.utils().getSimpleName(fieldDoc), 3)
-                                .addChild(new JavaFieldBuilder<>(fieldDoc, docContext_).fillImports(imports_).build());
-                    }
-                }).ifTrue(fields.size() > 0, (documentBuilder) -> {
-                    documentBuilder.subTitle("Fields");
-                    VariableElement[] sortedFieldDocs = fields.stream().sorted(Comparator.comparing(e -> configuration_.utils().getSimpleName(e))).toArray(VariableElement[]::new);
-                    for (VariableElement fieldDoc : sortedFieldDocs) {
-                        documentBuilder.title(configuration_.utils().getSimpleName(fieldDoc), 3)
-                                .addChild(new JavaFieldBuilder<>(fieldDoc, docContext_).fillImports(imports_).build());
-                    }
-                }).ifTrue(constructors.size() > 0, (documentBuilder) -> {
-                    documentBuilder.subTitle("Constructors");
-                    for (ExecutableElement constructorDoc : constructors) {
-                        documentBuilder.title(configuration_.utils().getSimpleName(constructorDoc), 3)
-                                .addChild(new JavaConstructorBuilder<>(constructorDoc, docContext_).fillImports(imports_).build());
-                    }
-                }).ifTrue(methods.size() > 0, (documentBuilder) -> {
-                    documentBuilder.subTitle("Methods");
-                    ExecutableElement[] sortedMethodDocs = methods.stream()
-                            .sorted(Comparator.comparing(e -> configuration_.utils().getSimpleName(e)))
-                            .toArray(ExecutableElement[]::new);
-                    for (ExecutableElement methodDoc : sortedMethodDocs) {
-                        documentBuilder.title(configuration_.utils().getSimpleName(methodDoc), 3)
-                                .addChild(new JavaMethodBuilder<>(methodDoc, docContext_).fillImports(imports_).build());
-                    }
-                });
-        Map<String, TypeElement> filteredImports = imports_.entrySet().stream()
+                .addChild(new JavaTypeBuilder<>(classDoc_, docContext_).fillImports(imports).build());
+    }
+
+    private void appendMemberGroup(RstDocumentBuilder<?> builder, String title, List<? extends Element> members,
+                                   int groupTitleLevel, Map<String, TypeElement> imports) {
+        builder.title(title, groupTitleLevel);
+        for (Element member : members) {
+            builder.title(configuration_.utils().getSimpleName(member), groupTitleLevel + 1)
+                    .addChild(buildMember(member, imports));
+        }
+    }
+
+    private Directive buildMember(Element member, Map<String, TypeElement> imports) {
+        switch (member.getKind()) {
+            case ENUM_CONSTANT:
+            case FIELD:
+                return new JavaFieldBuilder<>((VariableElement) member, docContext_).fillImports(imports).build();
+            case CONSTRUCTOR:
+                return new JavaConstructorBuilder<>((ExecutableElement) member, docContext_).fillImports(imports).build();
+            default:
+                return new JavaMethodBuilder<>((ExecutableElement) member, docContext_).fillImports(imports).build();
+        }
+    }
+
+    /**
+     * @return Not empty groups of members in order of output. Members are sorted by name, except constructors.
+     */
+    private List<MemberGroup> getMemberGroups() {
+        if (memberGroups_ == null) {
+            Comparator<Element> byName = Comparator.comparing(e -> configuration_.utils().getSimpleName(e));
+            List<Element> enumConstants = configuration_.utils().getEnumConstants(classDoc_).stream()
+                    .map(Element.class::cast)
+                    .sorted(byName)
+                    .collect(Collectors.toList());
+            List<VariableElement> fields = configuration_.utils().getFields(classDoc_).stream()
+                    .sorted(byName)
+                    .collect(Collectors.toList());
+            List<ExecutableElement> constructors = configuration_.utils().getConstructors(classDoc_);
+            List<ExecutableElement> methods = configuration_.utils().getMethods(classDoc_).stream()
+                    .sorted(byName)
+                    .collect(Collectors.toList());
+            memberGroups_ = new ArrayList<>(4);
+            if (!enumConstants.isEmpty()) {
+                memberGroups_.add(new MemberGroup("Enum Constants", "enum-constants", enumConstants));
+            }
+            if (!fields.isEmpty()) {
+                memberGroups_.add(new MemberGroup("Fields", "fields", fields));
+            }
+            if (!constructors.isEmpty()) {
+                memberGroups_.add(new MemberGroup("Constructors", "constructors", constructors));
+            }
+            if (!methods.isEmpty()) {
+                memberGroups_.add(new MemberGroup("Methods", "methods", methods));
+            }
+        }
+        return memberGroups_;
+    }
+
+    /**
+     * Builds the document and inserts {@code java:import} directives of types, referenced by the document.
+     */
+    private RstDocument finishDocument(RstDocumentBuilder<?> builder, Map<String, TypeElement> imports) {
+        configuration_.getCrossReferenceIndex().addReferences(Collections.singleton(classDoc_));
+        configuration_.getCrossReferenceIndex().addReferences(imports.values());
+        Map<String, TypeElement> filteredImports = imports.entrySet().stream()
                 .filter((entry) -> (!(ElementUtils.getPackageOfType(entry.getValue()).getQualifiedName().equals((ElementUtils.getPackageOfType(classDoc_)).getQualifiedName()))
                         && !entry.getKey().startsWith(Object.class.getPackage().getName())
                         && entry.getValue().getEnclosingElement() != null
@@ -121,13 +276,13 @@ public class ClassRstGenerator implements Supplier<String> {
                 ))
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
 
-        List<Directive> imports = filteredImports.values().stream()
+        List<Directive> importDirectives = filteredImports.values().stream()
                 .sorted(Comparator.comparing(o -> o.getQualifiedName().toString()))
                 .map(doc -> new JavaImportBuilder<>(doc, configuration_.utils()).build())
                 .collect(Collectors.toList());
 
-        RstDocument document = classContentBuilder.build();
-        document.getChildren().addAll(0, imports);
-        return document.getSerialized("Something gone wrong.");
+        RstDocument document = builder.build();
+        document.getChildren().addAll(0, importDirectives);
+        return document;
     }
 }
@@ -20,11 +20,11 @@ package com.devives.rstdoclet.rst;
 import com.devives.rst.builder.BlockQuoteBuilder;
 import com.devives.rst.builder.BlockQuoteBuilderImpl;
 import com.devives.rstdoclet.RstConfiguration;
-import com.devives.rstdoclet.html.HtmlAdaptersFactory;
 import com.devives.rstdoclet.html.HtmlDocletWriterAdapter;
 import com.devives.rstdoclet.html2rst.CommentBuilder;
 import com.devives.rstdoclet.html2rst.TagUtils;
 import com.devives.rstdoclet.rst.builder.JavaPackageBuilder;
+import com.devives.rstdoclet.util.BlockTagIndex;
 import com.devives.sphinx.rst.Rst4Sphinx;
 import com.devives.sphinx.rst.document.IncludeDocument;
 import com.sun.source.doctree.DocTree;
@@ -33,6 +33,7 @@ import jdk.javadoc.internal.doclets.formats.html.HtmlDocletWriter;
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.SortedSet;
@@ -45,23 +46,39 @@ public class PackageSummaryRstGenerator implements Supplier<String> {
     private final HtmlDocletWriter htmlPackageWriter_;
     private final HtmlDocletWriterAdapter htmlDocletWriter_;
     private final RstGeneratorContext docContext_;
+    private List<ClassRstGenerator> classSections_;
 
     public PackageSummaryRstGenerator(PackageElement packageDoc, RstConfiguration configuration) {
         this.packageDoc_ = packageDoc;
         this.configuration_ = configuration;
-        this.htmlPackageWriter_ = HtmlAdaptersFactory.getInstance().newHtmlPackageWriter(configuration.getHtmlConfiguration(), packageDoc_);
+        this.htmlPackageWriter_ = configuration.getHtmlAdaptersFactory().newHtmlPackageWriter(configuration, packageDoc_);
         this.htmlDocletWriter_ =
-                HtmlAdaptersFactory.getInstance().newHtmlDocletWriterAdapter(
-                        HtmlAdaptersFactory.getInstance().newHtmlDocletWriter(
-                                htmlPackageWriter_));
+                configuration.getHtmlAdaptersFactory().newHtmlDocletWriterAdapter(
+                        configuration.getHtmlAdaptersFactory().newHtmlDocletWriter(
+                                configuration, htmlPackageWriter_));
         this.docContext_ = new RstGeneratorContextImpl(configuration, htmlDocletWriter_);
     }
 
+    /**
+     * Sets generators of classes, which documentation is placed into the package page as sections,
+     * instead of the table of contents referencing separate class pages.
+     *
+     * @param classSections Generators of class sections in order of output, or {@code null} for separate pages.
+     * @return This generator.
+     */
+    public PackageSummaryRstGenerator setClassSections(List<ClassRstGenerator> classSections) {
+        classSections_ = classSections;
+        return this;
+    }
+
     @Override
     public String get() {
-        List<? extends DocTree> tags = configuration_.utils().getBlockTags(packageDoc_);
-        List<? extends DocTree> body = configuration_.utils().getBody(packageDoc_);
+        BlockTagIndex tagIndex = docContext_.getBlockTagIndex(packageDoc_);
+        List<? extends DocTree> tags = tagIndex.getBlockTags();
+        List<? extends DocTree> body = tagIndex.getBody();
         SortedSet<? extends TypeElement> allClasses = configuration_.utils().getAllClasses(packageDoc_);
+        // The list of classes depends on the package, not on the content of classes.
+        configuration_.getCrossReferenceIndex().addReferences(Collections.singleton(packageDoc_));
         return Rst4Sphinx.builders().document()
                 .title(configuration_.utils().getPackageName(packageDoc_))
                 .addChild(new JavaPackageBuilder<>(packageDoc_, configuration_).build())
@@ -77,19 +94,26 @@ public class PackageSummaryRstGenerator implements Supplier<String> {
                             docContext_).build());
                     builder.addChild(includeDocument);
                 })
-                .tocTree(tocTreeBuilder -> tocTreeBuilder
-                        .setMaxDepth(1)
-                        .ifTrue(allClasses.size() > 0, () -> {
-                            TypeElement[] classDocs = allClasses.stream()
-                                    .sorted(Comparator.comparing(t -> t.getQualifiedName().toString()))
-                                    .toArray(TypeElement[]::new);
-                            tocTreeBuilder.paragraph(pb -> {
-                                for (TypeElement classDoc : classDocs) {
-                                    pb.text(configuration_.utils().getSimpleName(classDoc).replace(".", "-") + ".rst")
-                                            .lineBreak();
-                                }
-                            });
-                        }))
+                .ifTrue(classSections_ == null, (builder) -> {
+                    builder.tocTree(tocTreeBuilder -> tocTreeBuilder
+                            .setMaxDepth(1)
+                            .ifTrue(allClasses.size() > 0, () -> {
+                                TypeElement[] classDocs = allClasses.stream()
+                                        .sorted(Comparator.comparing(t -> t.getQualifiedName().toString()))
+                                        .toArray(TypeElement[]::new);
+                                tocTreeBuilder.paragraph(pb -> {
+                                    for (TypeElement classDoc : classDocs) {
+                                        pb.text(configuration_.utils().getSimpleName(classDoc).replace(".", "-") + ".rst")
+                                                .lineBreak();
+                                    }
+                                });
+                            }));
+                })
+                .ifTrue(classSections_ != null, (builder) -> {
+                    for (ClassRstGenerator classSection : classSections_) {
+                        classSection.buildDocument().getChildren().forEach(builder::addChild);
+                    }
+                })
                 .build().serialize();
     }
 
@@ -19,6 +19,10 @@ package com.devives.rstdoclet.rst;
 
 import com.devives.rstdoclet.RstConfiguration;
 import com.devives.rstdoclet.html.HtmlDocletWriterAdapter;
+import com.devives.rstdoclet.html2rst.HrefConverter;
+import com.devives.rstdoclet.util.BlockTagIndex;
+
+import javax.lang.model.element.Element;
 
 public interface RstGeneratorContext {
 
@@ -26,4 +30,20 @@ public interface RstGeneratorContext {
 
     HtmlDocletWriterAdapter getHtmlDocletWriter();
 
+    /**
+     * Returns the comment index of the given element. The index is built once per element
+     * and shared by all builders of the generated page.
+     *
+     * @param element Documented element.
+     * @return Index of the body and block tags of the element comment.
+     */
+    BlockTagIndex getBlockTagIndex(Element element);
+
+    /**
+     * Returns the converter of HTML links of the generated page. The converter is created once per page.
+     *
+     * @return Converter of links.
+     */
+    HrefConverter getHrefConverter();
+
 }
@@ -19,11 +19,20 @@ package com.devives.rstdoclet.rst;
 
 import com.devives.rstdoclet.RstConfiguration;
 import com.devives.rstdoclet.html.HtmlDocletWriterAdapter;
+import com.devives.rstdoclet.html2rst.HrefConverter;
+import com.devives.rstdoclet.html2rst.HrefConverterImpl;
+import com.devives.rstdoclet.util.BlockTagIndex;
+
+import javax.lang.model.element.Element;
+import java.util.HashMap;
+import java.util.Map;
 
 public class RstGeneratorContextImpl implements RstGeneratorContext {
 
     private final RstConfiguration rstConfiguration_;
     private final HtmlDocletWriterAdapter htmlDocletWriter_;
+    private final Map<Element, BlockTagIndex> blockTagIndexes_ = new HashMap<>();
+    private HrefConverter hrefConverter_;
 
     public RstGeneratorContextImpl(RstConfiguration rstConfiguration, HtmlDocletWriterAdapter htmlDocletWriter) {
         rstConfiguration_ = rstConfiguration;
@@ -40,4 +49,18 @@ public class RstGeneratorContextImpl implements RstGeneratorContext {
         return htmlDocletWriter_;
     }
 
+    @Override
+    public BlockTagIndex getBlockTagIndex(Element element) {
+        return blockTagIndexes_.computeIfAbsent(element,
+                key -> new BlockTagIndex(key, rstConfiguration_.getHtmlConfiguration().utils));
+    }
+
+    @Override
+    public HrefConverter getHrefConverter() {
+        if (hrefConverter_ == null) {
+            hrefConverter_ = new HrefConverterImpl(this);
+        }
+        return hrefConverter_;
+    }
+
 }
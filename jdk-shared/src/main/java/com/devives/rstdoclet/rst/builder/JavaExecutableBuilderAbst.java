@@ -20,10 +20,12 @@ package com.devives.rstdoclet.rst.builder;
 import com.devives.html2rst.HtmlUtils;
 import com.devives.rst.builder.BlockQuoteBuilder;
 import com.devives.rst.builder.RstNodeBuilder;
+import com.devives.rst.document.RstNode;
 import com.devives.rst.document.directive.Directive;
-import com.devives.rstdoclet.html2rst.CommentBuilder;
+import com.devives.rstdoclet.html2rst.CommentBatchBuilder;
 import com.devives.rstdoclet.html2rst.TagUtils;
 import com.devives.rstdoclet.rst.RstGeneratorContext;
+import com.devives.rstdoclet.util.BlockTagIndex;
 import com.sun.source.doctree.DocTree;
 import com.sun.source.doctree.ParamTree;
 import com.sun.source.doctree.ReturnTree;
@@ -35,9 +37,7 @@ import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.TypeMirror;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
 
 public abstract class JavaExecutableBuilderAbst<PARENT extends RstNodeBuilder<?, ?, ?, ?>, SELF extends JavaExecutableBuilderAbst<PARENT, SELF>>
@@ -52,21 +52,23 @@ public abstract class JavaExecutableBuilderAbst<PARENT extends RstNodeBuilder<?,
     @Override
     protected void fillElements(BlockQuoteBuilder<?> bodyBuilder) {
         super.fillElements(bodyBuilder);
-        List<? extends DocTree> tags = utils_.getBlockTags(executableElement_);
-        ParamTree[] paramTags = tags.stream().filter(tag -> tag.getKind() == DocTree.Kind.PARAM)
-                .map(ParamTree.class::cast).toArray(ParamTree[]::new);
-        ThrowsTree[] throwsTags = tags.stream().filter(tag -> tag.getKind() == DocTree.Kind.THROWS)
-                .map(ThrowsTree.class::cast).toArray(ThrowsTree[]::new);
-        ReturnTree[] returnTags = tags.stream().filter(tag -> tag.getKind() == DocTree.Kind.RETURN)
-                .map(ReturnTree.class::cast).toArray(ReturnTree[]::new);
+        BlockTagIndex tagIndex = docContext_.getBlockTagIndex(executableElement_);
+        List<? extends DocTree> tags = tagIndex.getBlockTags();
+        List<ParamTree> paramTags = tagIndex.getBlockTags(DocTree.Kind.PARAM, ParamTree.class);
+        List<ThrowsTree> throwsTags = tagIndex.getBlockTags(DocTree.Kind.THROWS, ThrowsTree.class);
+        List<ReturnTree> returnTags = tagIndex.getBlockTags(DocTree.Kind.RETURN, ReturnTree.class);
+        List<DocTree> batchTags = new ArrayList<>(paramTags.size() + throwsTags.size() + returnTags.size());
+        batchTags.addAll(paramTags);
+        batchTags.addAll(throwsTags);
+        batchTags.addAll(returnTags);
+        Iterator<Collection<RstNode>> bodies = batchTags.isEmpty()
+                ? Collections.emptyIterator()
+                : new CommentBatchBuilder(executableElement_, batchTags, docContext_).buildBodies().iterator();
 
         bodyBuilder.fieldList(flb -> {
             for (ParamTree tag : paramTags) {
-                flb.item("param " + formatParameterName(tag), ib ->
-                        new CommentBuilder(
-                                tag,
-                                executableElement_,
-                                docContext_).buildBody().forEach(ib::addChild));
+                Collection<RstNode> body = bodies.next();
+                flb.item("param " + formatParameterName(tag), ib -> body.forEach(ib::addChild));
             }
 
 //            for (TypeParameterElement typeParameterElement : executableElement_.getTypeParameters()) {
@@ -84,18 +86,12 @@ public abstract class JavaExecutableBuilderAbst<PARENT extends RstNodeBuilder<?,
 //                                configuration_).buildBody().forEach(ib::addChild));
 //            }
             for (ThrowsTree tag : throwsTags) {
-                flb.item("throws " + tag.getExceptionName(), ib ->
-                        new CommentBuilder(
-                                tag,
-                                executableElement_,
-                                docContext_).buildBody().forEach(ib::addChild));
+                Collection<RstNode> body = bodies.next();
+                flb.item("throws " + tag.getExceptionName(), ib -> body.forEach(ib::addChild));
             }
             for (ReturnTree tag : returnTags) {
-                flb.item("return", ib ->
-                        new CommentBuilder(
-                                tag,
-                                executableElement_,
-                                docContext_).buildBody().forEach(ib::addChild));
+                Collection<RstNode> body = bodies.next();
+                flb.item("return", ib -> body.forEach(ib::addChild));
             }
         }).ifTrue(tags.size() > 0, shiftBuilder -> {
             new TagUtils(docContext_).appendTags(bodyBuilder, executableElement_, Arrays.asList(TagUtils.TagName.Author, TagUtils.TagName.See));
@@ -113,12 +109,11 @@ public abstract class JavaExecutableBuilderAbst<PARENT extends RstNodeBuilder<?,
     }
 
     protected String formatThrows(ExecutableElement execMemberDoc) {
-        List<? extends DocTree> tags = utils_.getBlockTags(executableElement_);
-        ThrowsTree[] throwsTags = tags.stream().filter(tag -> tag.getKind() == DocTree.Kind.THROWS)
-                .map(ThrowsTree.class::cast).toArray(ThrowsTree[]::new);
+        List<ThrowsTree> throwsTags = docContext_.getBlockTagIndex(executableElement_)
+                .getBlockTags(DocTree.Kind.THROWS, ThrowsTree.class);
 
-        if (throwsTags.length > 0) {
-            return "throws " + Arrays.stream(throwsTags)
+        if (!throwsTags.isEmpty()) {
+            return "throws " + throwsTags.stream()
                     .map(tag -> tag.getExceptionName().getSignature())
                     .collect(Collectors.joining(", "));
         } else {
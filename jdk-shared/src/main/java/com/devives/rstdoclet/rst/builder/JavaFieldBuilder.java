@@ -50,7 +50,7 @@ public class JavaFieldBuilder<PARENT extends RstNodeBuilder<?, ?, ?, ?>>
     @Override
     protected void fillElements(BlockQuoteBuilder<?> bodyBuilder) {
         super.fillElements(bodyBuilder);
-        List<? extends DocTree> tags = utils_.getBlockTags(variableElement_);
+        List<? extends DocTree> tags = docContext_.getBlockTagIndex(variableElement_).getBlockTags();
         if (tags.size() > 0) {
             new TagUtils(docContext_).appendTags(bodyBuilder, variableElement_, Arrays.asList(TagUtils.TagName.Author, TagUtils.TagName.See));
         }
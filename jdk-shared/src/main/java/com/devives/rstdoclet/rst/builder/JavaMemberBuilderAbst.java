@@ -23,10 +23,10 @@ import com.devives.rst.builder.RstNodeBuilder;
 import com.devives.rst.builder.directive.DirectiveBuilderAbst;
 import com.devives.rst.document.directive.Directive;
 import com.devives.rst.document.inline.Text;
-import com.devives.rstdoclet.RstDocletComponentFactory;
 import com.devives.rstdoclet.html2rst.CommentBuilder;
 import com.devives.rstdoclet.html2rst.TagUtils;
 import com.devives.rstdoclet.rst.RstGeneratorContext;
+import com.devives.rstdoclet.util.BlockTagIndex;
 import com.devives.sphinx.rst.document.IncludeDocument;
 import com.sun.source.doctree.DocTree;
 import jdk.javadoc.internal.doclets.toolkit.util.Utils;
@@ -55,7 +55,7 @@ public abstract class JavaMemberBuilderAbst<
         this.memberDoc_ = Objects.requireNonNull(element);
         this.docContext_ = Objects.requireNonNull(docContext);
         this.utils_ = docContext_.getRstConfiguration().getHtmlConfiguration().utils;
-        this.imports_ = RstDocletComponentFactory.getInstance().newImportsCollector(utils_).collect(element).getImportsMap();
+        this.imports_ = docContext_.getRstConfiguration().getComponentFactory().newImportsCollector(utils_).collect(element).getImportsMap();
     }
 
     public JavaMemberBuilderAbst<PARENT, SELF> fillImports(Map<String, TypeElement> imports) {
@@ -84,12 +84,10 @@ public abstract class JavaMemberBuilderAbst<
     protected abstract void fillArguments(List<String> argumentList);
 
     protected void fillElements(BlockQuoteBuilder<?> bodyBuilder) {
-        List<? extends DocTree> tags = utils_.getBody(memberDoc_);
-        List<? extends DocTree> inlineTags = utils_.getBlockTags(memberDoc_).stream()
-                .filter(tag -> tag.getKind() == DocTree.Kind.SINCE || tag.getKind() == DocTree.Kind.DEPRECATED)
-                .collect(Collectors.toList());
+        BlockTagIndex tagIndex = docContext_.getBlockTagIndex(memberDoc_);
+        List<? extends DocTree> tags = tagIndex.getBody();
         bodyBuilder
-                .ifTrue(inlineTags.size() > 0, shiftBuilder -> {
+                .ifTrue(tagIndex.hasBlockTags(DocTree.Kind.SINCE, DocTree.Kind.DEPRECATED), shiftBuilder -> {
                     new TagUtils(docContext_).appendTags(bodyBuilder, memberDoc_, Arrays.asList(TagUtils.TagName.Since, TagUtils.TagName.Deprecated));
                 })
                 .ifTrue(tags.size() > 0, quoteBuilder -> {
@@ -18,6 +18,7 @@
 package com.devives.rstdoclet.rst.builder;
 
 import com.devives.rst.builder.RstNodeBuilder;
+import com.devives.rstdoclet.RstDocletComponentFactory;
 import com.devives.rstdoclet.util.DocUtils;
 import jdk.javadoc.internal.doclets.toolkit.util.Utils;
 
@@ -33,10 +34,12 @@ public class JavaMemberRefBuilder<
 
     private final Element memberElement_;
     private final Utils utils_;
+    private final RstDocletComponentFactory componentFactory_;
 
-    public JavaMemberRefBuilder(Element memberElement, Utils utils) {
+    public JavaMemberRefBuilder(Element memberElement, Utils utils, RstDocletComponentFactory componentFactory) {
         this.memberElement_ = memberElement;
         this.utils_ = utils;
+        this.componentFactory_ = componentFactory;
     }
 
     @Override
@@ -48,7 +51,7 @@ public class JavaMemberRefBuilder<
     protected String formatTarget() {
         String member;
         if (memberElement_ instanceof ExecutableElement) {
-            member = formatNameWithParamTypeNames((ExecutableElement) memberElement_, utils_);
+            member = formatNameWithParamTypeNames((ExecutableElement) memberElement_, utils_, componentFactory_);
         } else if (memberElement_ instanceof VariableElement) {
             member = memberElement_.getSimpleName().toString();
         } else {
@@ -65,7 +68,7 @@ public class JavaMemberRefBuilder<
         } else {
             String member;
             if (memberElement_ instanceof ExecutableElement) {
-                member = formatNameWithParamTypeNames((ExecutableElement) memberElement_, utils_);
+                member = formatNameWithParamTypeNames((ExecutableElement) memberElement_, utils_, componentFactory_);
             } else if (memberElement_ instanceof VariableElement) {
                 member = memberElement_.getSimpleName().toString();
             } else {
@@ -76,13 +79,14 @@ public class JavaMemberRefBuilder<
         }
     }
 
-    public static String formatNameWithParamTypeNames(ExecutableElement methodDoc, Utils utils) {
+    public static String formatNameWithParamTypeNames(ExecutableElement methodDoc, Utils utils,
+                                                      RstDocletComponentFactory componentFactory) {
         return new StringBuilder()
                 .append(methodDoc.getSimpleName())
                 .append("(")
                 .append(String.join(", ",
                         methodDoc.getParameters().stream()
-                                .map(p -> DocUtils.formatTypeName(p.asType(), utils))
+                                .map(p -> DocUtils.formatTypeName(p.asType(), utils, componentFactory))
                                 .toArray(String[]::new)))
                 .append(")")
                 .toString();
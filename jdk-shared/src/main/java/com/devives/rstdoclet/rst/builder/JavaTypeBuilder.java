@@ -24,11 +24,11 @@ import com.devives.rst.builder.RstNodeBuilder;
 import com.devives.rst.builder.directive.DirectiveBuilderAbst;
 import com.devives.rst.document.directive.Directive;
 import com.devives.rst.document.inline.Text;
-import com.devives.rstdoclet.RstDocletComponentFactory;
 import com.devives.rstdoclet.html.LinkInfoKind;
 import com.devives.rstdoclet.html2rst.CommentBuilder;
 import com.devives.rstdoclet.html2rst.TagUtils;
 import com.devives.rstdoclet.rst.RstGeneratorContext;
+import com.devives.rstdoclet.util.BlockTagIndex;
 import com.devives.sphinx.rst.document.IncludeDocument;
 import com.sun.source.doctree.DocTree;
 import jdk.javadoc.internal.doclets.toolkit.Content;
@@ -58,7 +58,7 @@ public class JavaTypeBuilder<PARENT extends RstNodeBuilder<?, ?, ?, ?>> extends
         this.classDoc_ = Objects.requireNonNull(classDoc);
         this.docContext_ = Objects.requireNonNull(docContext);
         this.utils_ = docContext_.getRstConfiguration().getHtmlConfiguration().utils;
-        this.imports_ = RstDocletComponentFactory.getInstance().newImportsCollector(utils_).collect(classDoc_, true).getImportsMap();
+        this.imports_ = docContext_.getRstConfiguration().getComponentFactory().newImportsCollector(utils_).collect(classDoc_, true).getImportsMap();
     }
 
     public JavaTypeBuilder<PARENT> fillImports(Map<String, TypeElement> imports) {
@@ -82,13 +82,14 @@ public class JavaTypeBuilder<PARENT extends RstNodeBuilder<?, ?, ?, ?>> extends
         if (classDoc_.getNestingKind() == NestingKind.MEMBER) {
             directive.getOptions().put("outertype", utils_.getSimpleName(utils_.getEnclosingTypeElement(classDoc_)));
         }
-        List<? extends DocTree> tags = utils_.getBlockTags(classDoc_);
+        BlockTagIndex tagIndex = docContext_.getBlockTagIndex(classDoc_);
+        List<? extends DocTree> tags = tagIndex.getBlockTags();
         if (!tags.isEmpty()) {
             BlockQuoteBuilder<?> bodyBuilder = new BlockQuoteBuilderImpl<>();
             new TagUtils(docContext_).appendTags(bodyBuilder, classDoc_, Arrays.asList(TagUtils.TagName.Since, TagUtils.TagName.Version, TagUtils.TagName.Deprecated));
             bodyBuilder.build().getChildren().forEach(directive.getChildren()::add);
         }
-        List<? extends DocTree> inlineTags = utils_.getBody(classDoc_);
+        List<? extends DocTree> inlineTags = tagIndex.getBody();
         if (!inlineTags.isEmpty()) {
             IncludeDocument includeDocument = new IncludeDocument();
             includeDocument.getChildren().add(new CommentBuilder(
@@ -0,0 +1,128 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.shard;
+
+import com.devives.rstdoclet.util.RstFileWriter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Part of documented packages, generated by one of several javadoc processes, running side by side.
+ * <p>
+ * Package belongs to the shard {@code i} of {@code N}, if {@link String#hashCode()} of its qualified name modulo
+ * {@code N} equals {@code i}. The string hash code is specified by the language, so all processes assign packages
+ * identically, regardless of their order and of the JVM. Each shard writes pages of its packages and the list of its
+ * packages into the destination directory; {@link ShardMerger} combines lists of all shards into the packages index.
+ */
+public final class Shard {
+
+    /**
+     * Prefix of names of package list files in the destination directory.
+     */
+    public static final String PACKAGES_FILE_PREFIX = ".rstdoclet-packages";
+
+    private final int index_;
+    private final int count_;
+
+    /**
+     * @param index Zero-based index of the shard.
+     * @param count Count of shards.
+     */
+    public Shard(int index, int count) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Shard index must be in range [0, count).");
+        }
+        index_ = index;
+        count_ = count;
+    }
+
+    /**
+     * @param spec Shard in form {@code i/N}, where {@code i} is zero-based index and {@code N} is count of shards.
+     * @return Parsed shard.
+     * @throws IllegalArgumentException If the spec is malformed.
+     */
+    public static Shard parse(String spec) {
+        int separator = spec.indexOf('/');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Shard must be given as i/N.");
+        }
+        return new Shard(Integer.parseInt(spec.substring(0, separator).trim()),
+                Integer.parseInt(spec.substring(separator + 1).trim()));
+    }
+
+    public int getIndex() {
+        return index_;
+    }
+
+    public int getCount() {
+        return count_;
+    }
+
+    /**
+     * @param packageName Qualified name of the package, empty for the unnamed package.
+     * @return {@code true}, if pages of the package are generated by this shard.
+     */
+    public boolean contains(String packageName) {
+        return Math.floorMod(packageName.hashCode(), count_) == index_;
+    }
+
+    /**
+     * @return Suffix of names of state files, which separates files of shards in the same destination directory.
+     */
+    public String getFileSuffix() {
+        return "-" + index_ + "-of-" + count_;
+    }
+
+    /**
+     * @param destDir Destination directory.
+     * @return Package list file of this shard.
+     */
+    public Path getPackagesFile(Path destDir) {
+        return destDir.resolve(PACKAGES_FILE_PREFIX + getFileSuffix());
+    }
+
+    /**
+     * Replaces the package list file of this shard.
+     *
+     * @param destDir      Destination directory.
+     * @param packageNames Qualified names of packages, generated by this shard.
+     * @throws IOException If any error occurs while writing the file.
+     */
+    public void savePackages(Path destDir, Collection<String> packageNames) throws IOException {
+        Path packagesFile = getPackagesFile(Objects.requireNonNull(destDir));
+        Files.createDirectories(destDir);
+        Path tempFile = packagesFile.resolveSibling(packagesFile.getFileName() + RstFileWriter.TEMP_FILE_SUFFIX);
+        Files.write(tempFile, new TreeSet<>(packageNames), StandardCharsets.UTF_8);
+        try {
+            Files.move(tempFile, packagesFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, packagesFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return index_ + "/" + count_;
+    }
+
+}
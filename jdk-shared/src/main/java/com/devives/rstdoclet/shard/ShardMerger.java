@@ -0,0 +1,187 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.shard;
+
+import com.devives.rstdoclet.util.PageManifest;
+import com.devives.rstdoclet.util.RstFileWriter;
+import com.devives.sphinx.java.doc.PackagesIndexRstGenerator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Merge step of sharded generation: writes the packages index of packages, generated by all shards.
+ * <p>
+ * Each javadoc process, started with {@code -shard i/N} option, writes pages of its packages and the list of them
+ * into the common destination directory. After all shards complete, the merger reads package lists of all {@code N}
+ * shards and writes the packages index, as a not sharded run does. Cross references between pages of different shards
+ * need no merging: they are {@code java:ref} roles, which Sphinx resolves over the whole documentation, and every
+ * shard indexes all documented types. Missing or inconsistent package lists fail the merge.
+ * <p>
+ * Usage: {@code ShardMerger -d <dir> [-doctitle <title>] [-packageindexfilename <name>] [-packagefanout <n>]
+ * [-docencoding <charset>]}.
+ */
+public class ShardMerger {
+
+    /**
+     * Suffix of the manifest of index documents, written by the merger.
+     */
+    private static final String MANIFEST_SUFFIX = "-merge";
+    private static final Pattern PACKAGES_FILE_PATTERN =
+            Pattern.compile(Pattern.quote(Shard.PACKAGES_FILE_PREFIX) + "-(\\d+)-of-(\\d+)");
+
+    private final Path destDir_;
+    private String title_;
+    private String packageIndexFileName_ = "package-index";
+    private int maxFanOut_ = 0;
+    private String docEncoding_;
+
+    /**
+     * @param destDir Common destination directory of shards.
+     */
+    public ShardMerger(Path destDir) {
+        destDir_ = Objects.requireNonNull(destDir).toAbsolutePath().normalize();
+    }
+
+    public static void main(String[] args) throws IOException {
+        ShardMerger merger = new ShardMerger(Paths.get(getOption(args, "-d", ".")));
+        merger.setTitle(getOption(args, "-doctitle", null))
+                .setPackageIndexFileName(getOption(args, "-packageindexfilename", merger.packageIndexFileName_))
+                .setMaxFanOut(Integer.parseInt(getOption(args, "-packagefanout", "0")))
+                .setDocEncoding(getOption(args, "-docencoding", null));
+        try {
+            System.out.println("Merged " + merger.merge() + " index documents of packages.");
+        } catch (IOException e) {
+            System.err.println("error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static String getOption(String[] args, String name, String defaultValue) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (name.equals(args[i])) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+
+    public ShardMerger setTitle(String title) {
+        title_ = title;
+        return this;
+    }
+
+    public ShardMerger setPackageIndexFileName(String packageIndexFileName) {
+        packageIndexFileName_ = Objects.requireNonNull(packageIndexFileName);
+        return this;
+    }
+
+    /**
+     * @param maxFanOut Maximal count of entries in one index document, {@code 0} to list all packages in one document.
+     * @return this
+     */
+    public ShardMerger setMaxFanOut(int maxFanOut) {
+        maxFanOut_ = maxFanOut;
+        return this;
+    }
+
+    /**
+     * @param docEncoding Name of the charset of index documents, or {@code null} for UTF-8.
+     * @return this
+     */
+    public ShardMerger setDocEncoding(String docEncoding) {
+        docEncoding_ = docEncoding;
+        return this;
+    }
+
+    /**
+     * Reads package lists of all shards.
+     *
+     * @return Sorted qualified names of packages.
+     * @throws IOException If package lists are missing, belong to different counts of shards, or can not be read.
+     */
+    public SortedSet<String> readPackages() throws IOException {
+        SortedMap<Integer, Path> packagesFiles = new TreeMap<>();
+        int shardCount = -1;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(destDir_, Shard.PACKAGES_FILE_PREFIX + "-*")) {
+            for (Path file : stream) {
+                Matcher matcher = PACKAGES_FILE_PATTERN.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                int count = Integer.parseInt(matcher.group(2));
+                if (shardCount >= 0 && shardCount != count) {
+                    throw new IOException("Package lists of " + shardCount + " and " + count
+                            + " shards are found in " + destDir_ + ". Delete lists of the obsolete sharding.");
+                }
+                shardCount = count;
+                packagesFiles.put(Integer.parseInt(matcher.group(1)), file);
+            }
+        }
+        if (shardCount < 0) {
+            throw new IOException("No package lists of shards are found in " + destDir_ + ".");
+        }
+        for (int index = 0; index < shardCount; index++) {
+            if (!packagesFiles.containsKey(index)) {
+                throw new IOException("Package list of shard " + new Shard(index, shardCount) + " is missing.");
+            }
+        }
+        SortedSet<String> packageNames = new TreeSet<>();
+        for (Path file : packagesFiles.values()) {
+            for (String packageName : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                packageNames.add(packageName);
+            }
+        }
+        return packageNames;
+    }
+
+    /**
+     * Writes the packages index of packages of all shards and deletes index documents of the previous merge, which
+     * are not written again.
+     *
+     * @return Count of written index documents.
+     * @throws IOException If package lists are inconsistent, or any error occurs while writing documents.
+     */
+    public int merge() throws IOException {
+        SortedSet<String> packageNames = readPackages();
+        Map<String, Supplier<String>> documents = new PackagesIndexRstGenerator(packageNames.toArray(new String[0]))
+                .setTitle(title_)
+                .setPackageIndexFileName(packageIndexFileName_)
+                .setMaxFanOut(maxFanOut_)
+                .getDocuments("packages");
+        RstFileWriter fileWriter = RstFileWriter.forCharsetName(docEncoding_);
+        PageManifest manifest = new PageManifest(destDir_, MANIFEST_SUFFIX);
+        for (Map.Entry<String, Supplier<String>> entry : documents.entrySet()) {
+            Path page = destDir_.resolve(entry.getKey());
+            fileWriter.write(page, entry.getValue().get());
+            manifest.add(page);
+        }
+        manifest.deleteStalePages();
+        manifest.save();
+        return documents.size();
+    }
+
+}
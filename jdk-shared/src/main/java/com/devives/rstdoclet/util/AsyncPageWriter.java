@@ -0,0 +1,176 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Write stage of generated pages.
+ * <p>
+ * Pages are rendered on the calling thread and handed over to dedicated I/O threads, so rendering of the next page
+ * does not wait for the disk. Total length of queued pages is limited: {@link #write(File, Supplier)} blocks, until
+ * I/O threads free enough room. The first failed write stops the stage; the failure is thrown from subsequent
+ * calls of {@link #write(File, Supplier)} and from {@link #close()}.
+ */
+public class AsyncPageWriter implements AutoCloseable {
+
+    private final PageSink sink_;
+    private final ExecutorService executor_;
+    private final Semaphore capacity_;
+    private final int maxQueuedChars_;
+    private final AtomicReference<PageWriteException> failure_ = new AtomicReference<>();
+    private boolean closed_ = false;
+
+    /**
+     * @param sink           Destination of pages, used by I/O threads. Closed by {@link #close()}.
+     * @param threadCount    Count of I/O threads.
+     * @param maxQueuedChars Maximal total length of pages, waiting for write.
+     */
+    public AsyncPageWriter(PageSink sink, int threadCount, int maxQueuedChars) {
+        if (threadCount < 1 || maxQueuedChars < 1) {
+            throw new IllegalArgumentException("threadCount and maxQueuedChars must be positive.");
+        }
+        sink_ = Objects.requireNonNull(sink);
+        maxQueuedChars_ = maxQueuedChars;
+        capacity_ = new Semaphore(maxQueuedChars);
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor_ = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "rst-page-writer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Renders the page on the calling thread and queues it for write.
+     *
+     * @param file            Target file.
+     * @param contentSupplier Supplier of the page text.
+     * @throws PageWriteException If any previously queued page was not written.
+     * @throws IOException        If the calling thread was interrupted while waiting for room in the queue.
+     */
+    public void write(File file, Supplier<String> contentSupplier) throws IOException {
+        write(file.toPath(), contentSupplier.get());
+    }
+
+    /**
+     * Queues the text for write. Blocks, while total length of queued pages exceeds the limit.
+     *
+     * @param path Target file.
+     * @param text Text to write.
+     * @throws PageWriteException If any previously queued page was not written.
+     * @throws IOException        If the calling thread was interrupted while waiting for room in the queue.
+     */
+    public void write(Path path, String text) throws IOException {
+        if (closed_) {
+            throw new IllegalStateException("Writer is closed.");
+        }
+        checkFailure();
+        // Page longer than the limit takes the whole queue.
+        int permits = Math.max(1, Math.min(text.length(), maxQueuedChars_));
+        try {
+            capacity_.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        }
+        executor_.execute(() -> {
+            try {
+                if (failure_.get() == null) {
+                    sink_.write(path, text);
+                }
+            } catch (IOException e) {
+                failure_.compareAndSet(null, new PageWriteException(path, e));
+            } catch (RuntimeException e) {
+                failure_.compareAndSet(null, new PageWriteException(path, new IOException(e)));
+            } finally {
+                capacity_.release(permits);
+            }
+        });
+    }
+
+    /**
+     * Waits, until all queued pages are written, stops I/O threads and closes the destination.
+     *
+     * @throws PageWriteException If any page was not written.
+     * @throws IOException        If the calling thread was interrupted while waiting.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed_) {
+            return;
+        }
+        closed_ = true;
+        executor_.shutdown();
+        try {
+            while (!executor_.awaitTermination(1, TimeUnit.SECONDS)) {
+                checkFailure();
+            }
+        } catch (InterruptedException e) {
+            executor_.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (PageWriteException e) {
+            executor_.shutdownNow();
+            sink_.close();
+            throw e;
+        }
+        sink_.close();
+        checkFailure();
+    }
+
+    /**
+     * Stops I/O threads without writing queued pages and closes the destination. Used to release resources after
+     * failed generation; does nothing, if the writer is already closed.
+     *
+     * @throws IOException If the destination can not be closed.
+     */
+    public void abort() throws IOException {
+        if (closed_) {
+            return;
+        }
+        closed_ = true;
+        executor_.shutdownNow();
+        try {
+            // The destination is closed after the page, which is being written, is finished.
+            executor_.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sink_.close();
+    }
+
+    private void checkFailure() throws PageWriteException {
+        PageWriteException failure = failure_.get();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+}
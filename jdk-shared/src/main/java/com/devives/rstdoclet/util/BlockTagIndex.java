@@ -0,0 +1,93 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import com.sun.source.doctree.DocTree;
+import jdk.javadoc.internal.doclets.toolkit.util.Utils;
+
+import javax.lang.model.element.Element;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Index of the comment of single element: body and block tags grouped by {@link DocTree.Kind}.
+ * <p>
+ * The index is built in one pass over block tags of the element and shared by all builders,
+ * which generate the documentation of the element.
+ */
+public class BlockTagIndex {
+
+    private final List<? extends DocTree> body_;
+    private final List<? extends DocTree> blockTags_;
+    private final Map<DocTree.Kind, List<DocTree>> blockTagsByKind_ = new EnumMap<>(DocTree.Kind.class);
+
+    public BlockTagIndex(Element element, Utils utils) {
+        Objects.requireNonNull(element);
+        body_ = utils.getBody(element);
+        blockTags_ = utils.getBlockTags(element);
+        for (DocTree tag : blockTags_) {
+            blockTagsByKind_.computeIfAbsent(tag.getKind(), kind -> new ArrayList<>()).add(tag);
+        }
+    }
+
+    /**
+     * @return Inline tags of the element comment body.
+     */
+    public List<? extends DocTree> getBody() {
+        return body_;
+    }
+
+    /**
+     * @return All block tags of the element comment.
+     */
+    public List<? extends DocTree> getBlockTags() {
+        return blockTags_;
+    }
+
+    /**
+     * @param kind Kind of the block tags.
+     * @return Block tags of the given kind, or empty list.
+     */
+    public List<DocTree> getBlockTags(DocTree.Kind kind) {
+        return blockTagsByKind_.getOrDefault(kind, Collections.emptyList());
+    }
+
+    /**
+     * @param kind     Kind of the block tags.
+     * @param tagClass Class of the block tags.
+     * @return Block tags of the given kind, casted to the given class.
+     */
+    public <T extends DocTree> List<T> getBlockTags(DocTree.Kind kind, Class<T> tagClass) {
+        return getBlockTags(kind).stream()
+                .map(tagClass::cast)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param kinds Kinds of the block tags.
+     * @return {@code true}, if the element comment contains block tags of any given kind.
+     */
+    public boolean hasBlockTags(DocTree.Kind... kinds) {
+        for (DocTree.Kind kind : kinds) {
+            if (blockTagsByKind_.containsKey(kind)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
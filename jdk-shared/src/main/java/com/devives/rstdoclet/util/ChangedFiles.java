@@ -0,0 +1,114 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * List of changed source files, given by {@code -changedfiles} option.
+ * <p>
+ * The list file contains one path per line. Relative paths are resolved against the working directory, empty lines
+ * and lines, starting with {@code #}, are ignored.
+ */
+public class ChangedFiles {
+
+    private static final String JAVA_EXTENSION = ".java";
+
+    private final Set<Path> files_ = new HashSet<>();
+
+    private ChangedFiles() {
+    }
+
+    /**
+     * Reads the list file.
+     *
+     * @param listFile File with paths of changed files.
+     * @return Changed files.
+     * @throws IOException If the list file can not be read.
+     */
+    public static ChangedFiles read(Path listFile) throws IOException {
+        ChangedFiles changedFiles = new ChangedFiles();
+        for (String line : Files.readAllLines(listFile, StandardCharsets.UTF_8)) {
+            String path = line.trim();
+            if (!path.isEmpty() && !path.startsWith("#")) {
+                changedFiles.files_.add(Paths.get(path).toAbsolutePath().normalize());
+            }
+        }
+        return changedFiles;
+    }
+
+    /**
+     * @param sourceFile URI of the source file, or {@code null}.
+     * @return {@code true}, if the source file is in the list.
+     */
+    public boolean contains(URI sourceFile) {
+        if (sourceFile == null || !"file".equals(sourceFile.getScheme())) {
+            return false;
+        }
+        return files_.contains(Paths.get(sourceFile).toAbsolutePath().normalize());
+    }
+
+    /**
+     * Computes qualified names of top-level types, which source files are listed, but do not exist anymore.
+     *
+     * @param sourceRoots Source roots, which contain packages of source files.
+     * @return Names of deleted types, derived from paths of missing {@code .java} files under source roots.
+     */
+    public Set<String> getDeletedTypeNames(Iterable<? extends Path> sourceRoots) {
+        Set<String> typeNames = new TreeSet<>();
+        for (Path file : files_) {
+            String fileName = file.getFileName() != null ? file.getFileName().toString() : "";
+            if (!fileName.endsWith(JAVA_EXTENSION) || fileName.equals("package-info.java")
+                    || fileName.equals("module-info.java") || Files.exists(file)) {
+                continue;
+            }
+            for (Path sourceRoot : sourceRoots) {
+                Path root = sourceRoot.toAbsolutePath().normalize();
+                if (file.startsWith(root)) {
+                    Path packagePath = root.relativize(file.getParent());
+                    StringBuilder typeName = new StringBuilder();
+                    if (!packagePath.toString().isEmpty()) {
+                        for (Path segment : packagePath) {
+                            typeName.append(segment).append('.');
+                        }
+                    }
+                    typeName.append(fileName, 0, fileName.length() - JAVA_EXTENSION.length());
+                    typeNames.add(typeName.toString());
+                    break;
+                }
+            }
+        }
+        return typeNames;
+    }
+
+    /**
+     * @return {@code true}, if the list is empty.
+     */
+    public boolean isEmpty() {
+        return files_.isEmpty();
+    }
+
+}
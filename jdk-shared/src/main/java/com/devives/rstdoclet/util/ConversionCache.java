@@ -0,0 +1,451 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.*;
+
+/**
+ * Persistent cache of converted fragments, shared by runs.
+ * <p>
+ * Values are appended to the data file as records of the key digest, the value length and the UTF-8 value. Key is
+ * never stored: its SHA-256 digest is computed together with the namespace, so changing the namespace, e.g. the
+ * version of the doclet, makes all previous records unreachable.
+ * <p>
+ * The index of records is loaded into memory on open and saved on {@link #close()} together with the identifier and
+ * the length of the data file it covers. Records, appended after the last saved index, e.g. by an interrupted run,
+ * are recovered by scanning the tail of the data file, and a partially written last record is cut off. When the data
+ * file exceeds the size limit, it is rewritten on close with the most recently used records only.
+ * <p>
+ * The data file is locked while the cache is open, so the process, which finds the cache used by another process,
+ * works without the cache.
+ */
+public class ConversionCache implements Closeable {
+
+    /**
+     * Name of the data file in the cache directory.
+     */
+    public static final String DATA_FILE_NAME = "rstdoclet-cache.dat";
+    /**
+     * Name of the index file in the cache directory.
+     */
+    public static final String INDEX_FILE_NAME = "rstdoclet-cache.idx";
+    /**
+     * Default limit of the data file size in bytes.
+     */
+    public static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+
+    private static final int DATA_MAGIC = 0x52535444;
+    private static final int INDEX_MAGIC = 0x52535449;
+    private static final int DATA_HEADER_LENGTH = 4 + 8;
+    private static final int DIGEST_LENGTH = 32;
+    private static final int RECORD_HEADER_LENGTH = DIGEST_LENGTH + 4;
+
+    /**
+     * Position of the value in the data file.
+     */
+    private static final class Record {
+
+        private final long offset_;
+        private final int length_;
+        /**
+         * Number of the last run, which used the record.
+         */
+        private int generation_;
+
+        Record(long offset, int length, int generation) {
+            offset_ = offset;
+            length_ = length;
+            generation_ = generation;
+        }
+    }
+
+    private final Path dataFile_;
+    private final Path indexFile_;
+    private final byte[] namespace_;
+    private final long maxSize_;
+    private final MessageDigest digest_;
+    private final Map<ByteBuffer, Record> records_ = new HashMap<>();
+    private FileChannel channel_;
+    private long dataId_;
+    private long dataLength_;
+    private int generation_ = 0;
+    private int hitCount_ = 0;
+    private int putCount_ = 0;
+
+    private ConversionCache(Path directory, String namespace, long maxSize, FileChannel channel) throws IOException {
+        dataFile_ = directory.resolve(DATA_FILE_NAME);
+        indexFile_ = directory.resolve(INDEX_FILE_NAME);
+        namespace_ = namespace.getBytes(StandardCharsets.UTF_8);
+        maxSize_ = maxSize;
+        channel_ = channel;
+        try {
+            digest_ = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        readDataHeader();
+        long indexedLength = readIndex();
+        generation_++;
+        scan(indexedLength);
+    }
+
+    /**
+     * Opens the cache in the given directory.
+     *
+     * @param directory Cache directory. Missing directories are created.
+     * @param namespace Text, which is mixed into all keys, e.g. the version of the doclet and options, affecting
+     *                  conversion.
+     * @param maxSize   Limit of the data file size in bytes.
+     * @return Opened cache, or {@code null}, if the cache is used by another process.
+     * @throws IOException If the cache can not be read or created.
+     */
+    public static ConversionCache open(Path directory, String namespace, long maxSize) throws IOException {
+        Objects.requireNonNull(namespace);
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive.");
+        }
+        Path cacheDir = directory.toAbsolutePath().normalize();
+        Files.createDirectories(cacheDir);
+        FileChannel channel = FileChannel.open(cacheDir.resolve(DATA_FILE_NAME),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                channel.close();
+                return null;
+            }
+            return new ConversionCache(cacheDir, namespace, maxSize, channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param type Class of the code.
+     * @return Version of the code: implementation version of the package of the class together with size and
+     * modification time of its jar file, so snapshot builds of the same version are distinguished.
+     */
+    public static String getCodeVersion(Class<?> type) {
+        Package typePackage = type.getPackage();
+        StringBuilder version = new StringBuilder(String.valueOf(typePackage != null ? typePackage.getImplementationVersion() : null));
+        try {
+            CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+            if (codeSource != null && codeSource.getLocation() != null) {
+                Path location = Paths.get(codeSource.getLocation().toURI());
+                if (Files.isRegularFile(location)) {
+                    version.append(' ').append(Files.size(location))
+                            .append(' ').append(Files.getLastModifiedTime(location).toMillis());
+                }
+            }
+        } catch (URISyntaxException | IOException | RuntimeException e) {
+            // Location of the code is unknown. The implementation version is used alone.
+        }
+        return version.toString();
+    }
+
+    /**
+     * @param key Text, which identifies the value.
+     * @return Cached value, or {@code null}, if the cache has no value for the key.
+     * @throws IOException If the value can not be read.
+     */
+    public synchronized String get(String key) throws IOException {
+        checkOpen();
+        Record record = records_.get(digest(key));
+        if (record == null) {
+            return null;
+        }
+        ByteBuffer value = ByteBuffer.allocate(record.length_);
+        readFully(channel_, value, record.offset_);
+        record.generation_ = generation_;
+        hitCount_++;
+        return new String(value.array(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends the value to the data file. The value replaces the previous value of the same key.
+     *
+     * @param key   Text, which identifies the value.
+     * @param value Value.
+     * @throws IOException If the value can not be written.
+     */
+    public synchronized void put(String key, String value) throws IOException {
+        checkOpen();
+        ByteBuffer digest = digest(key);
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_LENGTH + bytes.length);
+        record.put(digest.duplicate()).putInt(bytes.length).put(bytes).flip();
+        writeFully(channel_, record, dataLength_);
+        records_.put(digest, new Record(dataLength_ + RECORD_HEADER_LENGTH, bytes.length, generation_));
+        dataLength_ += RECORD_HEADER_LENGTH + bytes.length;
+        putCount_++;
+    }
+
+    /**
+     * @return Count of values, found in the cache.
+     */
+    public synchronized int getHitCount() {
+        return hitCount_;
+    }
+
+    /**
+     * @return Count of values, appended to the cache.
+     */
+    public synchronized int getPutCount() {
+        return putCount_;
+    }
+
+    /**
+     * @return Text like {@code "Conversion cache: 950 hits, 50 stores, 12000 entries, 3500 KB"}.
+     */
+    public synchronized String formatStatistics() {
+        return String.format(Locale.ROOT, "Conversion cache: %d hits, %d stores, %d entries, %d KB",
+                hitCount_, putCount_, records_.size(), dataLength_ / 1024);
+    }
+
+    /**
+     * Evicts the least recently used records, if the data file exceeds the size limit, saves the index and releases
+     * the cache.
+     *
+     * @throws IOException If the data file or the index can not be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel_ == null) {
+            return;
+        }
+        try {
+            if (dataLength_ > maxSize_) {
+                compact();
+            } else {
+                channel_.force(false);
+            }
+            saveIndex();
+        } finally {
+            if (channel_ != null) {
+                channel_.close();
+                channel_ = null;
+            }
+        }
+    }
+
+    private void checkOpen() {
+        if (channel_ == null) {
+            throw new IllegalStateException("Cache is closed.");
+        }
+    }
+
+    private ByteBuffer digest(String key) {
+        digest_.reset();
+        digest_.update(namespace_);
+        digest_.update((byte) 0);
+        digest_.update(key.getBytes(StandardCharsets.UTF_8));
+        return ByteBuffer.wrap(digest_.digest());
+    }
+
+    /**
+     * Reads the identifier of the data file. The data file, which is new or has unknown format, is truncated and
+     * gets new identifier.
+     */
+    private void readDataHeader() throws IOException {
+        if (channel_.size() >= DATA_HEADER_LENGTH) {
+            ByteBuffer header = ByteBuffer.allocate(DATA_HEADER_LENGTH);
+            readFully(channel_, header, 0);
+            header.flip();
+            if (header.getInt() == DATA_MAGIC) {
+                dataId_ = header.getLong();
+                return;
+            }
+        }
+        channel_.truncate(0);
+        dataId_ = writeDataHeader(channel_);
+    }
+
+    private static long writeDataHeader(FileChannel channel) throws IOException {
+        long dataId = new SecureRandom().nextLong();
+        ByteBuffer header = ByteBuffer.allocate(DATA_HEADER_LENGTH);
+        header.putInt(DATA_MAGIC).putLong(dataId).flip();
+        writeFully(channel, header, 0);
+        return dataId;
+    }
+
+    /**
+     * Loads the index, if it belongs to the data file.
+     *
+     * @return Length of the data file, covered by the loaded index.
+     */
+    private long readIndex() throws IOException {
+        if (!Files.exists(indexFile_)) {
+            return DATA_HEADER_LENGTH;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile_)))) {
+            if (input.readInt() != INDEX_MAGIC) {
+                return DATA_HEADER_LENGTH;
+            }
+            long dataId = input.readLong();
+            int generation = input.readInt();
+            long indexedLength = input.readLong();
+            int count = input.readInt();
+            if (dataId != dataId_ || indexedLength > channel_.size() || count < 0) {
+                return DATA_HEADER_LENGTH;
+            }
+            Map<ByteBuffer, Record> records = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                byte[] digest = new byte[DIGEST_LENGTH];
+                input.readFully(digest);
+                records.put(ByteBuffer.wrap(digest), new Record(input.readLong(), input.readInt(), input.readInt()));
+            }
+            records_.putAll(records);
+            generation_ = generation;
+            return indexedLength;
+        } catch (EOFException e) {
+            // Damaged index. Records are recovered by scanning of the whole data file.
+            return DATA_HEADER_LENGTH;
+        }
+    }
+
+    /**
+     * Adds records, which follow the given position, to the index and cuts off the partially written last record.
+     */
+    private void scan(long position) throws IOException {
+        long size = channel_.size();
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_LENGTH);
+        while (position + RECORD_HEADER_LENGTH <= size) {
+            header.clear();
+            readFully(channel_, header, position);
+            header.flip();
+            byte[] digest = new byte[DIGEST_LENGTH];
+            header.get(digest);
+            int length = header.getInt();
+            if (length < 0 || position + RECORD_HEADER_LENGTH + length > size) {
+                break;
+            }
+            records_.put(ByteBuffer.wrap(digest), new Record(position + RECORD_HEADER_LENGTH, length, generation_));
+            position += RECORD_HEADER_LENGTH + length;
+        }
+        if (position < size) {
+            channel_.truncate(position);
+        }
+        dataLength_ = position;
+    }
+
+    /**
+     * Rewrites the data file with the most recently used records, which take up to three quarters of the size limit.
+     * Replaced records of the same key are dropped too.
+     */
+    private void compact() throws IOException {
+        List<Map.Entry<ByteBuffer, Record>> entries = new ArrayList<>(records_.entrySet());
+        entries.sort(Comparator.comparingInt((Map.Entry<ByteBuffer, Record> entry) -> entry.getValue().generation_).reversed());
+        long limit = maxSize_ / 4 * 3;
+        Path tempFile = dataFile_.resolveSibling(dataFile_.getFileName() + RstFileWriter.TEMP_FILE_SUFFIX);
+        Map<ByteBuffer, Record> records = new HashMap<>();
+        long dataId;
+        long position = DATA_HEADER_LENGTH;
+        try (FileChannel output = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            dataId = writeDataHeader(output);
+            for (Map.Entry<ByteBuffer, Record> entry : entries) {
+                Record record = entry.getValue();
+                int recordLength = RECORD_HEADER_LENGTH + record.length_;
+                if (position + recordLength > limit) {
+                    continue;
+                }
+                ByteBuffer buffer = ByteBuffer.allocate(recordLength);
+                readFully(channel_, buffer, record.offset_ - RECORD_HEADER_LENGTH);
+                buffer.flip();
+                writeFully(output, buffer, position);
+                records.put(entry.getKey(), new Record(position + RECORD_HEADER_LENGTH, record.length_, record.generation_));
+                position += recordLength;
+            }
+            output.force(false);
+        }
+        // The lock is released before the data file is replaced. Process, which opens the cache meanwhile, works
+        // with the replaced file, and the index, saved by it, does not match the identifier of the new data file.
+        channel_.close();
+        channel_ = null;
+        try {
+            Files.move(tempFile, dataFile_, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, dataFile_, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // The data file is used by another process. Keep it as it is.
+            Files.deleteIfExists(tempFile);
+            return;
+        }
+        records_.clear();
+        records_.putAll(records);
+        dataId_ = dataId;
+        dataLength_ = position;
+    }
+
+    private void saveIndex() throws IOException {
+        Path tempFile = indexFile_.resolveSibling(indexFile_.getFileName() + RstFileWriter.TEMP_FILE_SUFFIX);
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            output.writeInt(INDEX_MAGIC);
+            output.writeLong(dataId_);
+            output.writeInt(generation_);
+            output.writeLong(dataLength_);
+            output.writeInt(records_.size());
+            for (Map.Entry<ByteBuffer, Record> entry : records_.entrySet()) {
+                output.write(entry.getKey().array());
+                output.writeLong(entry.getValue().offset_);
+                output.writeInt(entry.getValue().length_);
+                output.writeInt(entry.getValue().generation_);
+            }
+        }
+        try {
+            Files.move(tempFile, indexFile_, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, indexFile_, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int count = channel.read(buffer, position);
+            if (count < 0) {
+                throw new EOFException();
+            }
+            position += count;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+}
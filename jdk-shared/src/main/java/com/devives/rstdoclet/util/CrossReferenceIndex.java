@@ -0,0 +1,282 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import com.devives.rst.document.inline.Role;
+import com.devives.rstdoclet.RstDocletComponentFactory;
+import com.devives.rstdoclet.rst.builder.JavaMemberRefBuilder;
+import com.devives.sphinx.rst.Rst4Sphinx;
+import jdk.javadoc.internal.doclets.formats.html.HtmlConfiguration;
+import jdk.javadoc.internal.doclets.toolkit.util.DocLink;
+import jdk.javadoc.internal.doclets.toolkit.util.DocPath;
+import jdk.javadoc.internal.doclets.toolkit.util.Utils;
+
+import javax.lang.model.element.*;
+import java.util.*;
+
+/**
+ * Index of cross-reference targets of all documented types and their members.
+ * <p>
+ * The index is filled once before generation of pages. Links to elements, which are not documented in this run,
+ * are resolved against {@code -link} externals on first request and cached too. Elements, which are neither
+ * documented nor external, are counted as unresolved.
+ */
+public class CrossReferenceIndex {
+
+    /**
+     * Cross-reference target of the single element.
+     */
+    public static final class Entry {
+
+        private final String target_;
+        private final String label_;
+        private final String page_;
+
+        Entry(String target, String label, String page) {
+            target_ = target;
+            label_ = label;
+            page_ = page;
+        }
+
+        /**
+         * @return Target of {@code java:ref} role.
+         */
+        public String getTarget() {
+            return target_;
+        }
+
+        /**
+         * @return Default text of the link.
+         */
+        public String getLabel() {
+            return label_;
+        }
+
+        /**
+         * @return Path of the owning page relative to the destination directory, base URL of the external
+         * documentation, or {@code null}, if the element is unresolved.
+         */
+        public String getPage() {
+            return page_;
+        }
+
+        public boolean isResolved() {
+            return page_ != null;
+        }
+    }
+
+    private final HtmlConfiguration configuration_;
+    private final RstDocletComponentFactory componentFactory_;
+    private final String packagePageName_;
+    private final Map<Element, Entry> entries_ = new HashMap<>();
+    private final Map<PackageElement, Optional<String>> externalBaseUrls_ = new HashMap<>();
+    private final Set<Element> unresolved_ = new HashSet<>();
+    private PageDependencyGraph dependencyGraph_;
+    private Set<Element> recordedReferences_;
+
+    public CrossReferenceIndex(HtmlConfiguration configuration, RstDocletComponentFactory componentFactory) {
+        this(configuration, componentFactory, null);
+    }
+
+    /**
+     * @param configuration    Configuration of the HTML doclet.
+     * @param componentFactory Factory of components of the run.
+     * @param packagePageName  Name of the package page without extension, if types are documented as sections of
+     *                         package pages, or {@code null}, if each type has the separate page.
+     */
+    public CrossReferenceIndex(HtmlConfiguration configuration, RstDocletComponentFactory componentFactory,
+                               String packagePageName) {
+        configuration_ = Objects.requireNonNull(configuration);
+        componentFactory_ = Objects.requireNonNull(componentFactory);
+        packagePageName_ = packagePageName;
+    }
+
+    /**
+     * Sets the graph, which records referenced elements as dependencies of the rendered page.
+     *
+     * @param dependencyGraph Graph of page dependencies, or {@code null} to stop recording.
+     */
+    public void setDependencyGraph(PageDependencyGraph dependencyGraph) {
+        dependencyGraph_ = dependencyGraph;
+    }
+
+    /**
+     * Starts collecting of elements, referenced until {@link #stopRecording()} is called.
+     */
+    public void startRecording() {
+        recordedReferences_ = new LinkedHashSet<>();
+    }
+
+    /**
+     * @return Elements, referenced since {@link #startRecording()} was called.
+     */
+    public Set<Element> stopRecording() {
+        Set<Element> result = recordedReferences_ != null ? recordedReferences_ : Collections.emptySet();
+        recordedReferences_ = null;
+        return result;
+    }
+
+    /**
+     * Records elements, referenced by the rendered page without links, e.g. by imports.
+     *
+     * @param elements Referenced elements.
+     */
+    public void addReferences(Collection<? extends Element> elements) {
+        if (dependencyGraph_ != null) {
+            elements.forEach(dependencyGraph_::addReference);
+        }
+    }
+
+    private Utils utils() {
+        return configuration_.utils;
+    }
+
+    /**
+     * Adds documented types and their members to the index.
+     *
+     * @param typeElements Documented types.
+     */
+    public void addTypes(Collection<? extends TypeElement> typeElements) {
+        for (TypeElement typeElement : typeElements) {
+            String packageDir = ElementUtils.getPackageOfType(typeElement).getQualifiedName().toString().replace('.', '/');
+            String typeName = utils().getSimpleName(typeElement).replace(".", "-");
+            Entry typeEntry;
+            if (packagePageName_ != null && !packageDir.isEmpty()) {
+                String page = packageDir + "/" + packagePageName_ + ".rst";
+                typeEntry = new Entry(typeElement.getQualifiedName().toString(), typeElement.getSimpleName().toString(), page);
+            } else {
+                typeEntry = createEntry(typeElement, (packageDir.isEmpty() ? "" : packageDir + "/") + typeName + ".rst");
+            }
+            String page = typeEntry.getPage();
+            entries_.put(typeElement, typeEntry);
+            for (Element member : typeElement.getEnclosedElements()) {
+                switch (member.getKind()) {
+                    case METHOD:
+                    case CONSTRUCTOR:
+                    case FIELD:
+                    case ENUM_CONSTANT:
+                        entries_.put(member, createEntry(member, page));
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param element Referenced element.
+     * @return Cross-reference target of the element.
+     */
+    public Entry get(Element element) {
+        if (dependencyGraph_ != null) {
+            dependencyGraph_.addReference(element);
+        }
+        if (recordedReferences_ != null) {
+            recordedReferences_.add(element);
+        }
+        Entry entry = entries_.get(element);
+        if (entry == null) {
+            entry = createEntry(element, getExternalBaseUrl(element).orElse(null));
+            entries_.put(element, entry);
+            if (!entry.isResolved()) {
+                unresolved_.add(element);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Resolves the element without recording it as referenced.
+     *
+     * @param element Element.
+     * @return Path of the owning page relative to the destination directory, base URL of the external
+     * documentation, or {@code null}, if the element is unresolved.
+     */
+    public String getPage(Element element) {
+        Entry entry = entries_.get(element);
+        return entry != null ? entry.getPage() : getExternalBaseUrl(element).orElse(null);
+    }
+
+    /**
+     * Creates {@code java:ref} role, referencing the given element.
+     *
+     * @param element Referenced element.
+     * @param text    Text of the link, or {@code null} for default text.
+     * @return New role.
+     */
+    public Role createRef(Element element, String text) {
+        Entry entry = get(element);
+        return Rst4Sphinx.elements().role("java:ref", entry.getTarget(), text != null ? text : entry.getLabel());
+    }
+
+    /**
+     * @param element Referenced element.
+     * @return Base URL of the external documentation, given by {@code -link} option, containing the element.
+     */
+    public Optional<String> getExternalBaseUrl(Element element) {
+        PackageElement packageElement = element instanceof PackageElement
+                ? (PackageElement) element
+                : utils().containingPackage(element);
+        if (packageElement == null || configuration_.extern == null) {
+            return Optional.empty();
+        }
+        return externalBaseUrls_.computeIfAbsent(packageElement, key -> {
+            if (!configuration_.extern.isExternal(key)) {
+                return Optional.empty();
+            }
+            DocLink link = configuration_.extern.getExternalLink(key, DocPath.empty, "");
+            return Optional.ofNullable(link).map(DocLink::toString);
+        });
+    }
+
+    /**
+     * @return Count of referenced elements, which are neither documented nor external.
+     */
+    public int getUnresolvedCount() {
+        return unresolved_.size();
+    }
+
+    private Entry createEntry(Element element, String page) {
+        if (element instanceof TypeElement) {
+            TypeElement typeElement = (TypeElement) element;
+            return new Entry(typeElement.getQualifiedName().toString(), typeElement.getSimpleName().toString(), page);
+        } else if (element instanceof PackageElement) {
+            String name = ((PackageElement) element).getQualifiedName().toString();
+            return new Entry(name, name, page);
+        } else if (element instanceof ModuleElement) {
+            String name = ((ModuleElement) element).getQualifiedName().toString();
+            return new Entry(name, name, page);
+        }
+        String member;
+        if (element instanceof ExecutableElement) {
+            member = JavaMemberRefBuilder.formatNameWithParamTypeNames((ExecutableElement) element, utils(), componentFactory_);
+        } else {
+            member = element.getSimpleName().toString();
+        }
+        Element enclosingElement = element.getEnclosingElement();
+        if (enclosingElement == null) {
+            return new Entry(member, member, page);
+        }
+        String type = enclosingElement instanceof TypeElement
+                ? ((TypeElement) enclosingElement).getQualifiedName().toString()
+                : enclosingElement.getSimpleName().toString();
+        return new Entry(type + "." + member, enclosingElement.getSimpleName() + "." + member, page);
+    }
+
+}
@@ -0,0 +1,210 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mirror of {@code doc-files} directories into output directories of packages.
+ * <p>
+ * Files are mirrored by I/O threads. A target file with the same size and modification time as the source is left
+ * untouched, so repeated runs copy only changed resources. Copies keep the modification time of the source. If hard
+ * links are enabled, the target is linked to the source, and the file is copied only where linking fails, e.g.
+ * across file systems.
+ */
+public class DocFilesMirror implements AutoCloseable {
+
+    /**
+     * Name of the directory with resources of the package.
+     */
+    public static final String DIRECTORY_NAME = "doc-files";
+
+    /**
+     * Which files of {@code doc-files} directories are mirrored.
+     */
+    public enum Mode {
+        /**
+         * All files.
+         */
+        ALL,
+        /**
+         * Only files, referenced from documentation comments of the package.
+         */
+        REFERENCED,
+        /**
+         * No files.
+         */
+        NONE
+    }
+
+    private static final Pattern REFERENCE_PATTERN = Pattern.compile(DIRECTORY_NAME + "/([^\\s\"'<>()\\[\\]`#?]+)");
+
+    private final boolean hardLinks_;
+    private final ExecutorService executor_;
+    private final List<Future<Path>> tasks_ = new ArrayList<>();
+    private final AtomicInteger copiedCount_ = new AtomicInteger();
+    private final AtomicInteger linkedCount_ = new AtomicInteger();
+    private final AtomicInteger unchangedCount_ = new AtomicInteger();
+
+    /**
+     * @param threadCount Count of I/O threads.
+     * @param hardLinks   {@code true} to link target files to sources instead of copying.
+     */
+    public DocFilesMirror(int threadCount, boolean hardLinks) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount must be positive.");
+        }
+        hardLinks_ = hardLinks;
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor_ = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "rst-doc-files-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Finds references to resources of the package in the comment text, e.g. {@code <img src="doc-files/a.png">}.
+     *
+     * @param comment Text of the documentation comment.
+     * @return Paths of referenced files, relative to the {@code doc-files} directory.
+     */
+    public static Set<String> findReferences(CharSequence comment) {
+        Set<String> references = new LinkedHashSet<>();
+        if (comment != null) {
+            Matcher matcher = REFERENCE_PATTERN.matcher(comment);
+            while (matcher.find()) {
+                references.add(matcher.group(1));
+            }
+        }
+        return references;
+    }
+
+    /**
+     * Queues files of the source {@code doc-files} directory for mirroring.
+     *
+     * @param sourceDir       Source {@code doc-files} directory. Missing directory is ignored.
+     * @param targetDir       Target {@code doc-files} directory.
+     * @param recursive       {@code true} to mirror subdirectories.
+     * @param excludedSubdirs Names of subdirectories, which are never mirrored.
+     * @param filter          Filter of files by path, relative to the source directory, with {@code /} separators.
+     * @throws IOException If the source directory can not be read.
+     */
+    public void mirror(Path sourceDir, Path targetDir, boolean recursive, Set<String> excludedSubdirs,
+                       Predicate<String> filter) throws IOException {
+        if (!Files.isDirectory(sourceDir)) {
+            return;
+        }
+        Objects.requireNonNull(targetDir);
+        Objects.requireNonNull(excludedSubdirs);
+        Objects.requireNonNull(filter);
+        Files.walkFileTree(sourceDir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (dir.equals(sourceDir)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                return recursive && !excludedSubdirs.contains(dir.getFileName().toString())
+                        ? FileVisitResult.CONTINUE
+                        : FileVisitResult.SKIP_SUBTREE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                Path relativePath = sourceDir.relativize(file);
+                if (attrs.isRegularFile() && filter.test(relativePath.toString().replace('\\', '/'))) {
+                    Path target = targetDir.resolve(relativePath.toString());
+                    tasks_.add(executor_.submit(() -> mirrorFile(file, attrs, target)));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private Path mirrorFile(Path source, BasicFileAttributes sourceAttrs, Path target) throws IOException {
+        if (Files.exists(target)) {
+            BasicFileAttributes targetAttrs = Files.readAttributes(target, BasicFileAttributes.class);
+            if (targetAttrs.size() == sourceAttrs.size()
+                    && targetAttrs.lastModifiedTime().equals(sourceAttrs.lastModifiedTime())) {
+                unchangedCount_.incrementAndGet();
+                return target;
+            }
+        }
+        Files.createDirectories(target.getParent());
+        if (hardLinks_) {
+            try {
+                Files.deleteIfExists(target);
+                Files.createLink(target, source);
+                linkedCount_.incrementAndGet();
+                return target;
+            } catch (IOException | UnsupportedOperationException e) {
+                // Fall back to copy.
+            }
+        }
+        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+        copiedCount_.incrementAndGet();
+        return target;
+    }
+
+    /**
+     * Waits, until all queued files are mirrored, and stops I/O threads.
+     *
+     * @return Target files of all queued sources.
+     * @throws IOException If any file was not mirrored, or the calling thread was interrupted while waiting.
+     */
+    public List<Path> await() throws IOException {
+        List<Path> targets = new ArrayList<>(tasks_.size());
+        try {
+            for (Future<Path> task : tasks_) {
+                targets.add(task.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        } finally {
+            close();
+        }
+        return targets;
+    }
+
+    /**
+     * @return Summary of mirrored files, e.g. {@code "doc-files: 3 copied, 0 linked, 12 unchanged"}.
+     */
+    public String formatStatistics() {
+        return String.format("%s: %d copied, %d linked, %d unchanged",
+                DIRECTORY_NAME, copiedCount_.get(), linkedCount_.get(), unchangedCount_.get());
+    }
+
+    @Override
+    public void close() {
+        executor_.shutdownNow();
+    }
+
+}
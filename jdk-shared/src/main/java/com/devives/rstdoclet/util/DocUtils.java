@@ -28,14 +28,14 @@ import java.util.stream.Collectors;
 
 public class DocUtils {
 
-    public static String formatTypeName(TypeMirror type, Utils utils) {
+    public static String formatTypeName(TypeMirror type, Utils utils, RstDocletComponentFactory componentFactory) {
         String result = type.toString();
         if (!type.getKind().isPrimitive()) {
             TypeElement typeElement = utils.asTypeElement(type);
             if (typeElement != null){
                 Map<String, TypeElement> refClasses = new HashMap<>();
                 refClasses.put(utils.getQualifiedTypeName(type), typeElement);
-                refClasses.putAll(RstDocletComponentFactory.getInstance().newImportsCollector(utils).collect(typeElement).getImportsMap());
+                refClasses.putAll(componentFactory.newImportsCollector(utils).collect(typeElement).getImportsMap());
                 for (Map.Entry<String, TypeElement> entry : refClasses.entrySet()) {
                     result = result.replace(entry.getKey(), entry.getValue().getSimpleName().toString());
                 }
@@ -0,0 +1,74 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Output directories of packages.
+ * <p>
+ * Paths are computed once per package, and directories are created in one sweep before generation,
+ * so generation of each class does only a map lookup.
+ */
+public class PackageDirectories {
+
+    private final Path destDir_;
+    private final Map<String, Path> directories_ = new HashMap<>();
+
+    /**
+     * @param destDir Destination directory of the documentation.
+     */
+    public PackageDirectories(Path destDir) {
+        this.destDir_ = Objects.requireNonNull(destDir).toAbsolutePath();
+    }
+
+    /**
+     * Computes paths and creates directories of the given packages. Already known packages are skipped.
+     *
+     * @param packageNames Qualified names of packages.
+     * @throws IOException If any error occurs while creating directories.
+     */
+    public void createDirectories(Collection<String> packageNames) throws IOException {
+        for (String packageName : packageNames) {
+            if (!directories_.containsKey(packageName)) {
+                Path directory = resolve(packageName);
+                Files.createDirectories(directory);
+                directories_.put(packageName, directory);
+            }
+        }
+    }
+
+    /**
+     * @param packageName Qualified name of the package.
+     * @return Absolute path of the package directory.
+     */
+    public Path getDirectory(String packageName) {
+        return directories_.computeIfAbsent(packageName, this::resolve);
+    }
+
+    private Path resolve(String packageName) {
+        return destDir_.resolve(packageName.replace('.', '/'));
+    }
+
+}
@@ -0,0 +1,297 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Graph of dependencies of generated pages on referenced elements.
+ * <p>
+ * While the page is rendered, types, referenced by links and imports of the page, are recorded as its dependencies.
+ * Members are recorded as their types, packages as package names. The owner of the page, i.e. the documented type or
+ * package, is recorded too, so pages of split types are mapped back to their type. The graph is saved into the
+ * destination directory after successful generation. A later run loads the graph and computes pages, which must be
+ * regenerated, when the given elements change. Pages are rendered by the single thread, so recording is not
+ * synchronized.
+ */
+public class PageDependencyGraph {
+
+    /**
+     * Name of the graph file in the destination directory.
+     */
+    public static final String FILE_NAME = ".rstdoclet-dependencies";
+    /**
+     * First line of the graph file. Graph files of other formats are ignored.
+     */
+    private static final String FORMAT_HEADER = "#rstdoclet-dependencies 2";
+
+    private final Path destDir_;
+    private final Path graphFile_;
+    private final Map<String, NavigableSet<String>> dependencies_ = new TreeMap<>();
+    private final Map<String, String> owners_ = new HashMap<>();
+    private Map<String, NavigableSet<String>> previousDependencies_;
+    private Map<String, String> previousOwners_;
+    private NavigableSet<String> currentPage_;
+
+    /**
+     * @param destDir Destination directory.
+     */
+    public PageDependencyGraph(Path destDir) {
+        this(destDir, "");
+    }
+
+    /**
+     * @param destDir    Destination directory.
+     * @param fileSuffix Suffix of the graph file name, which separates graphs of processes, writing into the same
+     *                   destination directory.
+     */
+    public PageDependencyGraph(Path destDir, String fileSuffix) {
+        destDir_ = Objects.requireNonNull(destDir).toAbsolutePath().normalize();
+        graphFile_ = destDir_.resolve(FILE_NAME + fileSuffix);
+    }
+
+    /**
+     * Starts recording of dependencies of the page, which has no owner.
+     *
+     * @param page Path of the page file.
+     */
+    public void beginPage(Path page) {
+        beginPage(page, null);
+    }
+
+    /**
+     * Starts recording of dependencies of the page.
+     *
+     * @param page  Path of the page file.
+     * @param owner Documented type or package, or {@code null}, if the page documents no single element.
+     */
+    public void beginPage(Path page, Element owner) {
+        String entry = toEntry(page);
+        currentPage_ = new TreeSet<>();
+        dependencies_.put(entry, currentPage_);
+        String ownerName = owner != null ? getName(owner) : null;
+        if (ownerName != null) {
+            owners_.put(entry, ownerName);
+        } else {
+            owners_.remove(entry);
+        }
+    }
+
+    /**
+     * Stops recording of dependencies of the current page.
+     */
+    public void endPage() {
+        currentPage_ = null;
+    }
+
+    /**
+     * Records the element as the dependency of the current page. Does nothing, if no page is rendered.
+     *
+     * @param element Referenced element.
+     */
+    public void addReference(Element element) {
+        if (currentPage_ == null || element == null) {
+            return;
+        }
+        String name = getName(element);
+        if (name != null) {
+            currentPage_.add(name);
+        }
+    }
+
+    private static String getName(Element element) {
+        while (element != null) {
+            if (element instanceof TypeElement) {
+                return ((TypeElement) element).getQualifiedName().toString();
+            }
+            if (element instanceof PackageElement) {
+                return ((PackageElement) element).getQualifiedName().toString();
+            }
+            element = element.getEnclosingElement();
+        }
+        return null;
+    }
+
+    /**
+     * Keeps dependencies of the page from the previous graph, because the page was not rendered by this run.
+     *
+     * @param page Path of the page file.
+     * @throws IOException If the previous graph can not be read.
+     */
+    public void retainPreviousPage(Path page) throws IOException {
+        String entry = toEntry(page);
+        NavigableSet<String> previous = getPreviousDependencies().get(entry);
+        if (previous != null && !dependencies_.containsKey(entry)) {
+            dependencies_.put(entry, previous);
+            retainPreviousOwner(entry);
+        }
+    }
+
+    private void retainPreviousOwner(String entry) {
+        String owner = previousOwners_.get(entry);
+        if (owner != null) {
+            owners_.put(entry, owner);
+        }
+    }
+
+    /**
+     * Keeps dependencies of all pages from the previous graph, which were not rendered by this run.
+     *
+     * @throws IOException If the previous graph can not be read.
+     */
+    public void retainPreviousPages() throws IOException {
+        for (Map.Entry<String, NavigableSet<String>> entry : getPreviousDependencies().entrySet()) {
+            if (dependencies_.putIfAbsent(entry.getKey(), entry.getValue()) == null) {
+                retainPreviousOwner(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Drops the page, e.g. the page of the deleted type, from the graph.
+     *
+     * @param page Path of the page file.
+     */
+    public void removePage(Path page) {
+        String entry = toEntry(page);
+        dependencies_.remove(entry);
+        owners_.remove(entry);
+    }
+
+    /**
+     * @param page Path of the page file, relative to the destination directory, with {@code /} separators.
+     * @return Qualified name of the type or the package, documented by the page in the previous graph, or
+     * {@code null}, if the page is unknown or has no owner.
+     * @throws IOException If the previous graph can not be read.
+     */
+    public String getPreviousOwner(String page) throws IOException {
+        getPreviousDependencies();
+        return previousOwners_.get(page);
+    }
+
+    /**
+     * @param owner Qualified name of the type.
+     * @return Paths of pages of the previous graph, relative to the destination directory, which document the type
+     * or its nested types.
+     * @throws IOException If the previous graph can not be read.
+     */
+    public Set<String> getPreviousPagesOf(String owner) throws IOException {
+        getPreviousDependencies();
+        Set<String> pages = new TreeSet<>();
+        for (Map.Entry<String, String> entry : previousOwners_.entrySet()) {
+            if (entry.getValue().equals(owner) || entry.getValue().startsWith(owner + ".")) {
+                pages.add(entry.getKey());
+            }
+        }
+        return pages;
+    }
+
+    /**
+     * Computes pages of the previous graph, which reference any of the changed elements or their nested types.
+     *
+     * @param changedElements Qualified names of changed types or packages.
+     * @return Paths of affected pages, relative to the destination directory, with {@code /} separators.
+     * @throws IOException If the previous graph can not be read.
+     */
+    public Set<String> getAffectedPages(Collection<String> changedElements) throws IOException {
+        Set<String> pages = new TreeSet<>();
+        for (Map.Entry<String, NavigableSet<String>> entry : getPreviousDependencies().entrySet()) {
+            for (String changedElement : changedElements) {
+                if (dependsOn(entry.getValue(), changedElement)) {
+                    pages.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        return pages;
+    }
+
+    private static boolean dependsOn(NavigableSet<String> dependencies, String element) {
+        if (dependencies.contains(element)) {
+            return true;
+        }
+        // Nested types follow the enclosing type in sorted order.
+        String nestedPrefix = element + ".";
+        String next = dependencies.ceiling(nestedPrefix);
+        return next != null && next.startsWith(nestedPrefix);
+    }
+
+    /**
+     * Replaces the graph file with dependencies, recorded by this run.
+     *
+     * @throws IOException If any error occurs while writing the graph.
+     */
+    public void save() throws IOException {
+        Path tempFile = graphFile_.resolveSibling(graphFile_.getFileName() + RstFileWriter.TEMP_FILE_SUFFIX);
+        try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            writer.write(FORMAT_HEADER);
+            writer.write('\n');
+            for (Map.Entry<String, NavigableSet<String>> entry : dependencies_.entrySet()) {
+                writer.write(entry.getKey());
+                writer.write('\t');
+                writer.write(owners_.getOrDefault(entry.getKey(), ""));
+                for (String dependency : entry.getValue()) {
+                    writer.write('\t');
+                    writer.write(dependency);
+                }
+                writer.write('\n');
+            }
+        }
+        try {
+            Files.move(tempFile, graphFile_, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, graphFile_, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Map<String, NavigableSet<String>> getPreviousDependencies() throws IOException {
+        if (previousDependencies_ == null) {
+            previousDependencies_ = new HashMap<>();
+            previousOwners_ = new HashMap<>();
+            List<String> lines = Files.exists(graphFile_)
+                    ? Files.readAllLines(graphFile_, StandardCharsets.UTF_8)
+                    : Collections.emptyList();
+            if (!lines.isEmpty() && lines.get(0).equals(FORMAT_HEADER)) {
+                for (String line : lines.subList(1, lines.size())) {
+                    // Page, owner and dependencies.
+                    String[] parts = line.split("\t", -1);
+                    if (parts.length < 2 || parts[0].isEmpty()) {
+                        continue;
+                    }
+                    previousDependencies_.put(parts[0], new TreeSet<>(Arrays.asList(parts).subList(2, parts.length)));
+                    if (!parts[1].isEmpty()) {
+                        previousOwners_.put(parts[0], parts[1]);
+                    }
+                }
+            }
+        }
+        return previousDependencies_;
+    }
+
+    private String toEntry(Path page) {
+        return destDir_.relativize(page.toAbsolutePath().normalize()).toString().replace('\\', '/');
+    }
+
+}
@@ -0,0 +1,196 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Journal of completely written pages.
+ * <p>
+ * Path of each page, relative to the destination directory, is appended to the journal file after the page is
+ * written. The journal is deleted after successful generation, so it exists only after an interrupted run. Resumed
+ * run reads the journal and skips pages, which are recorded in it and still exist. A partially written last line
+ * of the journal is ignored. Temporary files, left by the interrupted run, are deleted when the journal is opened.
+ */
+public class PageJournal implements Closeable {
+
+    /**
+     * Name of the journal file in the destination directory.
+     */
+    public static final String FILE_NAME = ".rstdoclet-journal";
+
+    private final Path destDir_;
+    private final Path journalFile_;
+    private final Set<String> completedPages_ = new HashSet<>();
+    private final FileChannel channel_;
+
+    private PageJournal(Path destDir, String fileSuffix, boolean resume) throws IOException {
+        destDir_ = Objects.requireNonNull(destDir).toAbsolutePath().normalize();
+        journalFile_ = destDir_.resolve(FILE_NAME + fileSuffix);
+        Files.createDirectories(destDir_);
+        if (Files.exists(journalFile_)) {
+            deleteTempFiles(fileSuffix);
+        }
+        if (resume && Files.exists(journalFile_)) {
+            String journal = new String(Files.readAllBytes(journalFile_), StandardCharsets.UTF_8);
+            int start = 0;
+            int end;
+            while ((end = journal.indexOf('\n', start)) >= 0) {
+                if (end > start) {
+                    completedPages_.add(journal.substring(start, end));
+                }
+                start = end + 1;
+            }
+            channel_ = FileChannel.open(journalFile_, StandardOpenOption.WRITE);
+            // Cut off the partially written last line.
+            channel_.truncate(journal.substring(0, start).getBytes(StandardCharsets.UTF_8).length);
+            channel_.position(channel_.size());
+        } else {
+            channel_ = FileChannel.open(journalFile_, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+    }
+
+    /**
+     * Deletes temporary files of pages and state files, left by the interrupted run. Temporary files of pages are
+     * deleted only if the file suffix is empty, because processes with suffixes write into the same destination
+     * directory concurrently.
+     *
+     * @param fileSuffix Suffix of state file names.
+     * @throws IOException If any file can not be deleted.
+     */
+    private void deleteTempFiles(String fileSuffix) throws IOException {
+        Files.deleteIfExists(destDir_.resolve(PageManifest.FILE_NAME + fileSuffix + RstFileWriter.TEMP_FILE_SUFFIX));
+        Files.deleteIfExists(destDir_.resolve(PageDependencyGraph.FILE_NAME + fileSuffix + RstFileWriter.TEMP_FILE_SUFFIX));
+        if (!fileSuffix.isEmpty()) {
+            return;
+        }
+        String pageTempSuffix = ".rst" + RstFileWriter.TEMP_FILE_SUFFIX;
+        List<Path> tempFiles;
+        try (Stream<Path> files = Files.walk(destDir_)) {
+            tempFiles = files.filter(file -> file.getFileName().toString().endsWith(pageTempSuffix))
+                    .collect(Collectors.toList());
+        }
+        for (Path tempFile : tempFiles) {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Opens the journal in the destination directory.
+     *
+     * @param destDir Destination directory.
+     * @param resume  {@code true} to keep pages, recorded by the interrupted run, {@code false} to start a new journal.
+     * @return Opened journal.
+     * @throws IOException If the journal can not be read or created.
+     */
+    public static PageJournal open(Path destDir, boolean resume) throws IOException {
+        return open(destDir, "", resume);
+    }
+
+    /**
+     * Opens the journal in the destination directory.
+     *
+     * @param destDir    Destination directory.
+     * @param fileSuffix Suffix of the journal file name, which separates journals of processes, writing into the
+     *                   same destination directory.
+     * @param resume     {@code true} to keep pages, recorded by the interrupted run, {@code false} to start a new
+     *                   journal.
+     * @return Opened journal.
+     * @throws IOException If the journal can not be read or created.
+     */
+    public static PageJournal open(Path destDir, String fileSuffix, boolean resume) throws IOException {
+        return new PageJournal(destDir, fileSuffix, resume);
+    }
+
+    /**
+     * @param page Path of the page file.
+     * @return {@code true}, if the page was completely written by the interrupted run and the file still exists.
+     */
+    public boolean isCompleted(Path page) {
+        return !completedPages_.isEmpty()
+                && completedPages_.contains(toEntry(page))
+                && Files.exists(page);
+    }
+
+    /**
+     * Records the page as completely written.
+     *
+     * @param page Path of the page file.
+     * @throws IOException If any error occurs while writing the journal.
+     */
+    public synchronized void recordCompleted(Path page) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap((toEntry(page) + "\n").getBytes(StandardCharsets.UTF_8));
+        while (line.hasRemaining()) {
+            channel_.write(line);
+        }
+    }
+
+    /**
+     * @param sink Destination of pages.
+     * @return Destination, which records each written page in this journal.
+     */
+    public PageSink journaled(PageSink sink) {
+        Objects.requireNonNull(sink);
+        return new PageSink() {
+            @Override
+            public void write(Path path, CharSequence text) throws IOException {
+                sink.write(path, text);
+                recordCompleted(path);
+            }
+
+            @Override
+            public void close() throws IOException {
+                sink.close();
+            }
+        };
+    }
+
+    /**
+     * Closes and deletes the journal after successful generation.
+     *
+     * @throws IOException If the journal can not be deleted.
+     */
+    public void complete() throws IOException {
+        close();
+        Files.deleteIfExists(journalFile_);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel_.close();
+    }
+
+    private String toEntry(Path page) {
+        return destDir_.relativize(page.toAbsolutePath().normalize()).toString().replace('\\', '/');
+    }
+
+}
@@ -0,0 +1,153 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Manifest of pages, generated into the destination directory.
+ * <p>
+ * Paths of pages, relative to the destination directory, are saved into the manifest file after successful
+ * generation. The next run deletes pages, which are listed in the previous manifest but were not generated again,
+ * and package directories, which became empty. Files, which were never generated by the doclet, are not touched.
+ */
+public class PageManifest {
+
+    /**
+     * Name of the manifest file in the destination directory.
+     */
+    public static final String FILE_NAME = ".rstdoclet-manifest";
+
+    private final Path destDir_;
+    private final Path manifestFile_;
+    private final Set<String> pages_ = new TreeSet<>();
+
+    /**
+     * @param destDir Destination directory.
+     */
+    public PageManifest(Path destDir) {
+        this(destDir, "");
+    }
+
+    /**
+     * @param destDir    Destination directory.
+     * @param fileSuffix Suffix of the manifest file name, which separates manifests of processes, writing into the
+     *                   same destination directory.
+     */
+    public PageManifest(Path destDir, String fileSuffix) {
+        destDir_ = Objects.requireNonNull(destDir).toAbsolutePath().normalize();
+        manifestFile_ = destDir_.resolve(FILE_NAME + fileSuffix);
+    }
+
+    /**
+     * Registers the page, generated by the current run.
+     *
+     * @param page Path of the page file.
+     */
+    public synchronized void add(Path page) {
+        pages_.add(toEntry(page));
+    }
+
+    /**
+     * Unregisters the page, e.g. the retained page of the deleted type, so {@link #deleteStalePages()} deletes it.
+     *
+     * @param page Path of the page file.
+     */
+    public synchronized void remove(Path page) {
+        pages_.remove(toEntry(page));
+    }
+
+    /**
+     * Registers all pages of the previous manifest as generated by the current run, so partial run keeps pages,
+     * which it does not regenerate.
+     *
+     * @throws IOException If any error occurs while reading the manifest.
+     */
+    public synchronized void retainPreviousPages() throws IOException {
+        if (Files.exists(manifestFile_)) {
+            for (String entry : Files.readAllLines(manifestFile_, StandardCharsets.UTF_8)) {
+                if (!entry.isEmpty()) {
+                    pages_.add(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes pages, which are listed in the previous manifest, but were not generated by the current run,
+     * and directories, which became empty after that.
+     *
+     * @return Count of deleted pages.
+     * @throws IOException If any error occurs while reading the manifest or deleting files.
+     */
+    public synchronized int deleteStalePages() throws IOException {
+        if (!Files.exists(manifestFile_)) {
+            return 0;
+        }
+        int count = 0;
+        for (String entry : Files.readAllLines(manifestFile_, StandardCharsets.UTF_8)) {
+            if (entry.isEmpty() || pages_.contains(entry)) {
+                continue;
+            }
+            Path page = destDir_.resolve(entry).normalize();
+            if (!page.startsWith(destDir_)) {
+                // Never touch files outside of the destination directory.
+                continue;
+            }
+            if (Files.deleteIfExists(page)) {
+                count++;
+                deleteEmptyDirectories(page.getParent());
+            }
+        }
+        return count;
+    }
+
+    private void deleteEmptyDirectories(Path directory) throws IOException {
+        while (directory != null && directory.startsWith(destDir_) && !directory.equals(destDir_)) {
+            try {
+                Files.delete(directory);
+            } catch (DirectoryNotEmptyException | NoSuchFileException e) {
+                return;
+            }
+            directory = directory.getParent();
+        }
+    }
+
+    /**
+     * Replaces the manifest file with the list of pages, generated by the current run.
+     *
+     * @throws IOException If any error occurs while writing the manifest.
+     */
+    public synchronized void save() throws IOException {
+        Path tempFile = manifestFile_.resolveSibling(manifestFile_.getFileName() + RstFileWriter.TEMP_FILE_SUFFIX);
+        Files.write(tempFile, pages_, StandardCharsets.UTF_8);
+        try {
+            Files.move(tempFile, manifestFile_, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, manifestFile_, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private String toEntry(Path page) {
+        return destDir_.relativize(page.toAbsolutePath().normalize()).toString().replace('\\', '/');
+    }
+
+}
@@ -0,0 +1,51 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Signals, that the generated page was not written to the file.
+ */
+public class PageWriteException extends IOException {
+
+    private final Path path_;
+
+    /**
+     * @param path  Path of the page file.
+     * @param cause Original exception.
+     */
+    public PageWriteException(Path path, IOException cause) {
+        super(cause.getMessage(), cause);
+        path_ = Objects.requireNonNull(path);
+    }
+
+    /**
+     * @return Path of the page file.
+     */
+    public Path getPath() {
+        return path_;
+    }
+
+    @Override
+    public synchronized IOException getCause() {
+        return (IOException) super.getCause();
+    }
+}
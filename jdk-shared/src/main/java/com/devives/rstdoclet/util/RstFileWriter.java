@@ -0,0 +1,276 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Writer of generated pages.
+ * <p>
+ * Text is written through {@link FileChannel} using direct buffer and encoder, which are allocated once per thread
+ * and reused for all pages. Leading ASCII part of the text is copied to the buffer directly, if the charset encodes
+ * ASCII characters as single bytes; the encoder is used only from the first non-ASCII character.
+ * Pages are replaced atomically: text is written into the temporary file, which then is renamed to the page file.
+ * Count of written bytes and time spent on writing are accumulated for statistics.
+ */
+public class RstFileWriter implements PageSink {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Suffix of temporary files, which pages are written into before renaming.
+     */
+    public static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private final Charset charset_;
+    private final boolean asciiCompatible_;
+    private final ThreadLocal<ByteBuffer> buffer_ = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+    private final ThreadLocal<CharsetEncoder> encoder_;
+    private final AtomicLong fileCount_ = new AtomicLong();
+    private final AtomicLong byteCount_ = new AtomicLong();
+    private final AtomicLong writeNanos_ = new AtomicLong();
+
+    /**
+     * @param charset Charset of generated pages.
+     */
+    public RstFileWriter(Charset charset) {
+        charset_ = Objects.requireNonNull(charset);
+        asciiCompatible_ = isAsciiCompatible(charset);
+        encoder_ = ThreadLocal.withInitial(() -> charset_.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE));
+    }
+
+    /**
+     * @param charsetName Name of the charset of generated pages, or {@code null} for UTF-8.
+     * @return New writer.
+     * @throws IllegalCharsetNameException If the charset name is illegal.
+     * @throws UnsupportedCharsetException If the charset is not supported.
+     */
+    public static RstFileWriter forCharsetName(String charsetName) {
+        return new RstFileWriter(charsetName == null || charsetName.isEmpty()
+                ? StandardCharsets.UTF_8
+                : Charset.forName(charsetName));
+    }
+
+    public Charset getCharset() {
+        return charset_;
+    }
+
+    /**
+     * Writes text of the page to the file. Missing parent directories are created.
+     *
+     * @param file            Target file.
+     * @param contentSupplier Supplier of the page text. Time of generation is not included into statistics.
+     * @throws IOException If any error occurs while writing the file.
+     */
+    public void write(File file, Supplier<String> contentSupplier) throws IOException {
+        write(file.toPath(), contentSupplier.get());
+    }
+
+    /**
+     * Writes text to the file. Missing parent directories are created.
+     * <p>
+     * Text is written into the temporary file near the target one, which then is renamed to the target, so the target
+     * file either keeps the previous content or has the complete new one.
+     *
+     * @param path Target file.
+     * @param text Text to write.
+     * @throws IOException If any error occurs while writing the file.
+     */
+    @Override
+    public void write(Path path, CharSequence text) throws IOException {
+        Path tempPath = path.resolveSibling(path.getFileName() + TEMP_FILE_SUFFIX);
+        FileChannel channel;
+        try {
+            channel = open(tempPath);
+        } catch (NoSuchFileException e) {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent == null) {
+                throw e;
+            }
+            Files.createDirectories(parent);
+            channel = open(tempPath);
+        }
+        try {
+            try {
+                write(channel, text);
+            } finally {
+                channel.close();
+            }
+            moveIntoPlace(tempPath, path);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+    }
+
+    private static void moveIntoPlace(Path tempPath, Path path) throws IOException {
+        try {
+            Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Encodes text into the channel. The channel is not closed.
+     *
+     * @param channel Target channel.
+     * @param text    Text to write.
+     * @return Count of written bytes.
+     * @throws IOException If any error occurs while writing.
+     */
+    public long write(WritableByteChannel channel, CharSequence text) throws IOException {
+        long startNanos = System.nanoTime();
+        long bytes = encode(channel, text);
+        writeNanos_.addAndGet(System.nanoTime() - startNanos);
+        byteCount_.addAndGet(bytes);
+        fileCount_.incrementAndGet();
+        return bytes;
+    }
+
+    private long encode(WritableByteChannel channel, CharSequence text) throws IOException {
+        ByteBuffer buffer = buffer_.get();
+        buffer.clear();
+        long bytes = 0;
+        int length = text.length();
+        int index = 0;
+        if (asciiCompatible_) {
+            while (index < length) {
+                char ch = text.charAt(index);
+                if (ch >= 0x80) {
+                    break;
+                }
+                if (!buffer.hasRemaining()) {
+                    bytes += flush(channel, buffer);
+                }
+                buffer.put((byte) ch);
+                index++;
+            }
+        }
+        if (index < length) {
+            CharsetEncoder encoder = encoder_.get().reset();
+            CharBuffer in = CharBuffer.wrap(text, index, length);
+            CoderResult result;
+            while ((result = encoder.encode(in, buffer, true)).isOverflow()) {
+                bytes += flush(channel, buffer);
+            }
+            if (result.isError()) {
+                result.throwException();
+            }
+            while (encoder.flush(buffer).isOverflow()) {
+                bytes += flush(channel, buffer);
+            }
+        }
+        bytes += flush(channel, buffer);
+        return bytes;
+    }
+
+    private static int flush(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        int bytes = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        return bytes;
+    }
+
+    /**
+     * Nothing to release: channels are closed after each page.
+     */
+    @Override
+    public void close() {
+    }
+
+    /**
+     * @return Count of written files.
+     */
+    public long getFileCount() {
+        return fileCount_.get();
+    }
+
+    /**
+     * @return Count of written bytes.
+     */
+    public long getByteCount() {
+        return byteCount_.get();
+    }
+
+    /**
+     * @return Write throughput in bytes per second, or {@code 0}, if nothing was written.
+     */
+    public long getBytesPerSecond() {
+        long nanos = writeNanos_.get();
+        return nanos > 0 ? (long) ((double) byteCount_.get() * TimeUnit.SECONDS.toNanos(1) / nanos) : 0;
+    }
+
+    /**
+     * @return Human-readable statistics of written files.
+     */
+    public String formatStatistics() {
+        return String.format("Written %d files, %d bytes (%s) at %d KB/s",
+                getFileCount(), getByteCount(), charset_.name(), getBytesPerSecond() / 1024);
+    }
+
+    private static boolean isAsciiCompatible(Charset charset) {
+        if (!charset.canEncode()) {
+            return false;
+        }
+        char[] ascii = new char[0x80];
+        for (int i = 0; i < ascii.length; i++) {
+            ascii[i] = (char) i;
+        }
+        try {
+            ByteBuffer encoded = charset.newEncoder().encode(CharBuffer.wrap(ascii));
+            if (encoded.remaining() != ascii.length) {
+                return false;
+            }
+            for (int i = 0; i < ascii.length; i++) {
+                if (encoded.get(i) != i) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (CharacterCodingException e) {
+            return false;
+        }
+    }
+
+}
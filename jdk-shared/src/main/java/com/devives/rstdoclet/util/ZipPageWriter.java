@@ -0,0 +1,93 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.GregorianCalendar;
+import java.util.Objects;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writer of generated pages into the single zip archive.
+ * <p>
+ * Pages are appended to the archive sequentially in order of writing. Entry names are paths of pages relative to
+ * the destination directory, and all entries have the same modification time, so the archive content depends only
+ * on the generated pages.
+ */
+public class ZipPageWriter implements PageSink {
+
+    /**
+     * Modification time of all entries: 1980-02-01 00:00, the first date representable in DOS format in any time zone.
+     */
+    private static final long ENTRY_TIME = new GregorianCalendar(1980, 1, 1, 0, 0, 0).getTimeInMillis();
+
+    private final Path baseDir_;
+    private final RstFileWriter encoder_;
+    private final ZipOutputStream zipStream_;
+    private final WritableByteChannel channel_;
+
+    /**
+     * @param archiveFile Target archive file. Missing parent directories are created.
+     * @param baseDir     Destination directory, which paths of pages are relative to.
+     * @param encoder     Writer, used to encode pages.
+     * @throws IOException If the archive can not be created.
+     */
+    public ZipPageWriter(Path archiveFile, Path baseDir, RstFileWriter encoder) throws IOException {
+        baseDir_ = Objects.requireNonNull(baseDir).toAbsolutePath().normalize();
+        encoder_ = Objects.requireNonNull(encoder);
+        Path parent = archiveFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        zipStream_ = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(archiveFile)));
+        channel_ = Channels.newChannel(zipStream_);
+    }
+
+    @Override
+    public synchronized void write(Path path, CharSequence text) throws IOException {
+        ZipEntry entry = new ZipEntry(getEntryName(path));
+        entry.setTime(ENTRY_TIME);
+        zipStream_.putNextEntry(entry);
+        encoder_.write(channel_, text);
+        zipStream_.closeEntry();
+    }
+
+    private String getEntryName(Path path) {
+        Path relativePath = baseDir_.relativize(path.toAbsolutePath().normalize());
+        StringBuilder name = new StringBuilder();
+        for (Path part : relativePath) {
+            if (name.length() > 0) {
+                name.append('/');
+            }
+            name.append(part);
+        }
+        return name.toString();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        zipStream_.close();
+    }
+
+}
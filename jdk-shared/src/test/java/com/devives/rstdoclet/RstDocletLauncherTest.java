@@ -0,0 +1,112 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class RstDocletLauncherTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path writeSources(String name, String packageName) throws Exception {
+        Path sourcePath = tempDir.resolve(name).resolve("src");
+        Path packagePath = sourcePath.resolve(packageName.replace('.', '/'));
+        Files.createDirectories(packagePath);
+        Files.write(packagePath.resolve("Api.java"), Arrays.asList(
+                "package " + packageName + ";",
+                "/** Entry point of " + name + ". */",
+                "public class Api {",
+                "}"), StandardCharsets.UTF_8);
+        return sourcePath;
+    }
+
+    @Test
+    public void toArguments_typedOptions_javadocArguments() {
+        RstDocletLauncher.Job job = new RstDocletLauncher.Job("core")
+                .setDestination(Paths.get("out"))
+                .addSourcePath(Paths.get("src1"), Paths.get("src2"))
+                .addClassPath(Paths.get("lib.jar"))
+                .setEncoding("UTF-8")
+                .setPackageIndexFileName("index")
+                .addSubpackages("a", "b")
+                .addExcludedPackages("a.internal")
+                .addOption("-doctitle", "Core API")
+                .addPackages("c");
+        Assertions.assertEquals(Arrays.asList(
+                "-d", "out",
+                "-sourcepath", "src1" + File.pathSeparator + "src2",
+                "-classpath", "lib.jar",
+                "-encoding", "UTF-8",
+                "-packageindexfilename", "index",
+                "-subpackages", "a:b",
+                "-exclude", "a.internal",
+                "-doctitle", "Core API",
+                "c"), job.toArguments());
+        Assertions.assertEquals(Collections.emptyList(), new RstDocletLauncher.Job("empty").toArguments());
+    }
+
+    @Test
+    public void runAll_severalJobs_resultsInOrderOfJobs() throws Exception {
+        List<RstDocletLauncher.Job> jobs = Arrays.asList(
+                new RstDocletLauncher.Job("first")
+                        .addSourcePath(writeSources("first", "p.first"))
+                        .setDestination(tempDir.resolve("first/out"))
+                        .addSubpackages("p"),
+                new RstDocletLauncher.Job("second")
+                        .addSourcePath(writeSources("second", "p.second"))
+                        .setDestination(tempDir.resolve("second/out"))
+                        .addPackages("p.second"));
+        List<RstDocletLauncher.Result> results = new RstDocletLauncher(2).runAll(jobs);
+        Assertions.assertEquals(2, results.size());
+        for (int i = 0; i < jobs.size(); i++) {
+            RstDocletLauncher.Result result = results.get(i);
+            Assertions.assertSame(jobs.get(i), result.getJob());
+            Assertions.assertTrue(result.isSuccess(), result.getOutput());
+        }
+        Assertions.assertTrue(Files.exists(tempDir.resolve("first/out/p/first/Api.rst")));
+        Assertions.assertTrue(Files.exists(tempDir.resolve("second/out/p/second/Api.rst")));
+        Assertions.assertFalse(Files.exists(tempDir.resolve("second/out/p/first")));
+    }
+
+    @Test
+    public void run_invalidOption_failedResult() {
+        RstDocletLauncher.Result result = new RstDocletLauncher(1).run(new RstDocletLauncher.Job("invalid")
+                .setDestination(tempDir.resolve("out"))
+                .addOption("-nosuchoption"));
+        Assertions.assertFalse(result.isSuccess());
+        Assertions.assertFalse(result.getOutput().isEmpty());
+    }
+
+    @Test
+    public void runAll_noJobs_emptyResults() throws Exception {
+        Assertions.assertEquals(Collections.emptyList(), new RstDocletLauncher(1).runAll(Collections.emptyList()));
+    }
+
+}
@@ -0,0 +1,80 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.daemon;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class RstDocletRunnerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private List<String> expand(String content) throws Exception {
+        Path argumentFile = tempDir.resolve("args.txt");
+        Files.write(argumentFile, content.getBytes(StandardCharsets.UTF_8));
+        return RstDocletRunner.expandArgumentFiles(Arrays.asList("-d", "out", "@" + argumentFile, "p"));
+    }
+
+    @Test
+    public void expandArgumentFiles_whiteSpaceSeparated_tokensInserted() throws Exception {
+        Assertions.assertEquals(Arrays.asList("-d", "out", "-sourcepath", "src", "-quiet", "q", "p"),
+                expand("  -sourcepath\tsrc\r\n\n-quiet q\n"));
+    }
+
+    @Test
+    public void expandArgumentFiles_quotedTokens_unquoted() throws Exception {
+        Assertions.assertEquals(Arrays.asList("-d", "out", "-doctitle", "My 'own' docs", "path with spaces", "C:\\dir", "p"),
+                expand("-doctitle \"My 'own' docs\" 'path with spaces' \"C:\\\\dir\""));
+    }
+
+    @Test
+    public void expandArgumentFiles_quotedPartOfToken_joined() throws Exception {
+        Assertions.assertEquals(Arrays.asList("-d", "out", "-J-Dname=a b", "\"", "", "p"),
+                expand("-J-Dname='a b' '\"' \"\""));
+    }
+
+    @Test
+    public void expandArgumentFiles_commentLines_ignored() throws Exception {
+        Assertions.assertEquals(Arrays.asList("-d", "out", "-quiet", "a#b", "p"),
+                expand("# Options of the run.\n-quiet # trailing comment\na#b"));
+    }
+
+    @Test
+    public void expandArgumentFiles_noArgumentFiles_unchanged() throws Exception {
+        List<String> args = Arrays.asList("-d", "out", "@", "p");
+        Assertions.assertEquals(args, RstDocletRunner.expandArgumentFiles(args));
+        Assertions.assertEquals(Collections.emptyList(), RstDocletRunner.expandArgumentFiles(Collections.emptyList()));
+    }
+
+    @Test
+    public void expandArgumentFiles_missingFile_throws() {
+        Assertions.assertThrows(NoSuchFileException.class, () -> RstDocletRunner.expandArgumentFiles(
+                Collections.singletonList("@" + tempDir.resolve("missing.txt"))));
+    }
+
+}
@@ -0,0 +1,97 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.html2rst;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CommentBatchBuilderTest {
+
+    private static Element parseBody(String html) {
+        return Jsoup.parse(html).body();
+    }
+
+    @Test
+    public void isSplittable_delimitersOnly_true() {
+        Element body = parseBody("<div data-rst-tag=\"0\">First <b>tag</b></div><div data-rst-tag=\"2\">Third</div>");
+        Assertions.assertTrue(CommentBatchBuilder.isSplittable(body, 2));
+    }
+
+    @Test
+    public void isSplittable_blankTextBetweenDelimiters_true() {
+        Element body = parseBody("<div data-rst-tag=\"0\">First</div>\n <div data-rst-tag=\"1\">Second</div>");
+        Assertions.assertTrue(CommentBatchBuilder.isSplittable(body, 2));
+    }
+
+    @Test
+    public void isSplittable_strayTextOutsideDelimiters_false() {
+        // Stray text between delimiters does not change the count of elements.
+        Element body = parseBody("<div data-rst-tag=\"0\">First</div>lost text<div data-rst-tag=\"1\">Second</div>");
+        Assertions.assertEquals(2, body.children().size());
+        Assertions.assertFalse(CommentBatchBuilder.isSplittable(body, 2));
+    }
+
+    @Test
+    public void isSplittable_elementWithoutTagIndex_false() {
+        Element body = parseBody("<div data-rst-tag=\"0\">First</div><p>Paragraph</p>");
+        Assertions.assertFalse(CommentBatchBuilder.isSplittable(body, 2));
+    }
+
+    @Test
+    public void isSplittable_unbalancedMarkup_false() {
+        Element body = parseBody("<div data-rst-tag=\"0\"><table><tr><td>First</div><div data-rst-tag=\"1\">Second</div>");
+        Assertions.assertFalse(CommentBatchBuilder.isSplittable(body, 2));
+    }
+
+    @Test
+    public void parse_balancedTags_partsOfOneDocument() {
+        List<Element> parts = CommentBatchBuilder.parse(Arrays.asList("First <b>tag</b>", "<p>Second</p>", "Third"));
+        Assertions.assertEquals(3, parts.size());
+        Assertions.assertSame(parts.get(0).ownerDocument(), parts.get(2).ownerDocument());
+        Assertions.assertEquals("First tag", parts.get(0).text());
+        Assertions.assertEquals("Third", parts.get(2).text());
+    }
+
+    @Test
+    public void parse_unclosedFormattingElement_notContinuedInNextTags() {
+        List<Element> parts = CommentBatchBuilder.parse(Arrays.asList(
+                "First", "Second <b>bold", "Third <a href=\"x\">link", "Fourth", "<i>Fifth</i>"));
+        Assertions.assertEquals(5, parts.size());
+        Assertions.assertEquals("Second bold", parts.get(1).text());
+        Assertions.assertEquals(1, parts.get(1).select("b").size());
+        Assertions.assertEquals("Third link", parts.get(2).text());
+        Assertions.assertTrue(parts.get(3).select("b, a").isEmpty(), parts.get(3).html());
+        Assertions.assertTrue(parts.get(4).select("b, a").isEmpty(), parts.get(4).html());
+        Assertions.assertEquals(1, parts.get(4).select("i").size());
+        Assertions.assertSame(parts.get(3).ownerDocument(), parts.get(4).ownerDocument());
+    }
+
+    @Test
+    public void parse_unclosedTable_nextTagsNotNested() {
+        List<Element> parts = CommentBatchBuilder.parse(Arrays.asList("<table><tr><td>First", "Second"));
+        Assertions.assertEquals("First", parts.get(0).text());
+        Assertions.assertEquals("Second", parts.get(1).text());
+        Assertions.assertTrue(parts.get(1).select("table").isEmpty());
+    }
+
+}
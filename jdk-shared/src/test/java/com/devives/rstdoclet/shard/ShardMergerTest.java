@@ -0,0 +1,88 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.shard;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class ShardMergerTest {
+
+    @TempDir
+    Path destDir;
+
+    @Test
+    public void readPackages_allShards_unionOfLists() throws Exception {
+        new Shard(0, 2).savePackages(destDir, Arrays.asList("p.b", "p.a"));
+        new Shard(1, 2).savePackages(destDir, Collections.singletonList("q"));
+        Files.createFile(destDir.resolve(Shard.PACKAGES_FILE_PREFIX + "-1-of-2.tmp"));
+        Assertions.assertEquals(Arrays.asList("p.a", "p.b", "q"), Arrays.asList(
+                new ShardMerger(destDir).readPackages().toArray(new String[0])));
+    }
+
+    @Test
+    public void readPackages_missingShard_throws() throws Exception {
+        new Shard(0, 3).savePackages(destDir, Collections.singletonList("p"));
+        new Shard(2, 3).savePackages(destDir, Collections.singletonList("q"));
+        IOException exception = Assertions.assertThrows(IOException.class, () -> new ShardMerger(destDir).readPackages());
+        Assertions.assertTrue(exception.getMessage().contains("1/3"), exception.getMessage());
+    }
+
+    @Test
+    public void readPackages_listsOfDifferentShardCounts_throws() throws Exception {
+        new Shard(0, 2).savePackages(destDir, Collections.singletonList("p"));
+        new Shard(1, 2).savePackages(destDir, Collections.singletonList("q"));
+        new Shard(0, 3).savePackages(destDir, Collections.singletonList("p"));
+        IOException exception = Assertions.assertThrows(IOException.class, () -> new ShardMerger(destDir).readPackages());
+        Assertions.assertTrue(exception.getMessage().contains("obsolete"), exception.getMessage());
+    }
+
+    @Test
+    public void readPackages_noLists_throws() {
+        Assertions.assertThrows(IOException.class, () -> new ShardMerger(destDir).readPackages());
+    }
+
+    @Test
+    public void merge_allShards_indexWritten() throws Exception {
+        new Shard(0, 2).savePackages(destDir, Collections.singletonList("p"));
+        new Shard(1, 2).savePackages(destDir, Collections.singletonList("q"));
+        Assertions.assertEquals(1, new ShardMerger(destDir).merge());
+        String index = new String(Files.readAllBytes(destDir.resolve("packages.rst")), StandardCharsets.UTF_8);
+        Assertions.assertTrue(index.contains("p/package-index.rst"), index);
+        Assertions.assertTrue(index.contains("q/package-index.rst"), index);
+    }
+
+    @Test
+    public void merge_fanOutReduced_previousNestedIndexDeleted() throws Exception {
+        new Shard(0, 1).savePackages(destDir, Arrays.asList("a.b", "a.c", "d"));
+        ShardMerger merger = new ShardMerger(destDir).setMaxFanOut(2);
+        Assertions.assertEquals(2, merger.merge());
+        Assertions.assertTrue(Files.exists(destDir.resolve("a/packages.rst")));
+        Assertions.assertEquals(1, merger.setMaxFanOut(0).merge());
+        Assertions.assertFalse(Files.exists(destDir.resolve("a/packages.rst")));
+        Assertions.assertTrue(Files.exists(destDir.resolve("packages.rst")));
+    }
+
+}
@@ -0,0 +1,75 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.shard;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class ShardTest {
+
+    @TempDir
+    Path destDir;
+
+    @Test
+    public void parse_validSpec_indexAndCount() {
+        Shard shard = Shard.parse(" 2 / 5 ");
+        Assertions.assertEquals(2, shard.getIndex());
+        Assertions.assertEquals(5, shard.getCount());
+        Assertions.assertEquals("2/5", shard.toString());
+        Assertions.assertEquals("-2-of-5", shard.getFileSuffix());
+    }
+
+    @Test
+    public void parse_invalidSpec_throws() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Shard.parse("2"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Shard.parse("a/2"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Shard.parse("2/2"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Shard.parse("-1/2"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Shard.parse("0/0"));
+    }
+
+    @Test
+    public void contains_anyPackage_belongsToExactlyOneShard() {
+        int count = 3;
+        for (String packageName : Arrays.asList("", "a", "com.devives.rstdoclet", "java.util.concurrent", "org.example.v2")) {
+            int owners = 0;
+            for (int index = 0; index < count; index++) {
+                if (new Shard(index, count).contains(packageName)) {
+                    owners++;
+                }
+            }
+            Assertions.assertEquals(1, owners, packageName);
+        }
+    }
+
+    @Test
+    public void savePackages_unsortedNames_writtenSortedWithoutDuplicates() throws Exception {
+        Shard shard = new Shard(1, 2);
+        shard.savePackages(destDir, Arrays.asList("b", "a", "b"));
+        Path packagesFile = destDir.resolve(Shard.PACKAGES_FILE_PREFIX + "-1-of-2");
+        Assertions.assertEquals(packagesFile, shard.getPackagesFile(destDir));
+        Assertions.assertEquals(Arrays.asList("a", "b"), Files.readAllLines(packagesFile, StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,154 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class AsyncPageWriterTest {
+
+    private static class RecordingSink implements PageSink {
+
+        final Map<Path, String> pages = new ConcurrentHashMap<>();
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        volatile boolean blocking = false;
+        volatile Path failingPath = null;
+        volatile boolean closed = false;
+
+        @Override
+        public void write(Path path, CharSequence text) throws IOException {
+            started.countDown();
+            if (blocking) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            if (path.equals(failingPath)) {
+                throw new IOException("Disk is full.");
+            }
+            pages.put(path, text.toString());
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    public void close_queuedPages_writtenAndSinkClosed() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        AsyncPageWriter writer = new AsyncPageWriter(sink, 2, 16);
+        for (int i = 0; i < 100; i++) {
+            writer.write(Paths.get("page" + i + ".rst"), "Page " + i);
+        }
+        writer.close();
+        Assertions.assertEquals(100, sink.pages.size());
+        Assertions.assertEquals("Page 42", sink.pages.get(Paths.get("page42.rst")));
+        Assertions.assertTrue(sink.closed);
+    }
+
+    @Test
+    public void close_failedPage_throwsWithPathAndCause() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        sink.failingPath = Paths.get("broken.rst");
+        AsyncPageWriter writer = new AsyncPageWriter(sink, 1, 1024);
+        writer.write(Paths.get("first.rst"), "First");
+        writer.write(sink.failingPath, "Broken");
+        PageWriteException exception = Assertions.assertThrows(PageWriteException.class, writer::close);
+        Assertions.assertEquals(sink.failingPath, exception.getPath());
+        Assertions.assertEquals("Disk is full.", exception.getCause().getMessage());
+        Assertions.assertTrue(sink.closed);
+    }
+
+    @Test
+    public void write_afterFailedPage_throwsAndSkipsPage() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        sink.failingPath = Paths.get("broken.rst");
+        AsyncPageWriter writer = new AsyncPageWriter(sink, 1, 1024);
+        writer.write(sink.failingPath, "Broken");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        PageWriteException exception = null;
+        while (exception == null && System.nanoTime() < deadline) {
+            try {
+                writer.write(Paths.get("next.rst"), "Next");
+                Thread.sleep(10);
+            } catch (PageWriteException e) {
+                exception = e;
+            }
+        }
+        Assertions.assertNotNull(exception, "Failure was not propagated.");
+        Assertions.assertEquals(sink.failingPath, exception.getPath());
+        writer.abort();
+        Assertions.assertFalse(sink.pages.containsKey(Paths.get("next.rst")));
+    }
+
+    @Test
+    public void write_queueFull_blocksUntilPageWritten() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        sink.blocking = true;
+        AsyncPageWriter writer = new AsyncPageWriter(sink, 1, 10);
+        writer.write(Paths.get("first.rst"), "0123456789");
+        Assertions.assertTrue(sink.started.await(10, TimeUnit.SECONDS));
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> second = caller.submit(() -> {
+                writer.write(Paths.get("second.rst"), "Second");
+                return null;
+            });
+            Assertions.assertThrows(TimeoutException.class, () -> second.get(200, TimeUnit.MILLISECONDS));
+            sink.release.countDown();
+            second.get(10, TimeUnit.SECONDS);
+        } finally {
+            caller.shutdownNow();
+        }
+        writer.close();
+        Assertions.assertEquals(2, sink.pages.size());
+    }
+
+    @Test
+    public void abort_queuedPages_sinkClosedAndWriterUnusable() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        sink.blocking = true;
+        AsyncPageWriter writer = new AsyncPageWriter(sink, 1, 1024);
+        writer.write(Paths.get("first.rst"), "First");
+        writer.write(Paths.get("second.rst"), "Second");
+        Assertions.assertTrue(sink.started.await(10, TimeUnit.SECONDS));
+        writer.abort();
+        Assertions.assertTrue(sink.closed);
+        Assertions.assertFalse(sink.pages.containsKey(Paths.get("second.rst")));
+        Assertions.assertThrows(IllegalStateException.class, () -> writer.write(Paths.get("third.rst"), "Third"));
+        writer.close();
+    }
+
+}
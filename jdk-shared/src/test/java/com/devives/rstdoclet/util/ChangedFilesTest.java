@@ -0,0 +1,92 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.TreeSet;
+
+public class ChangedFilesTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ChangedFiles readList(String... lines) throws Exception {
+        Path listFile = tempDir.resolve("changed.txt");
+        Files.write(listFile, Arrays.asList(lines), StandardCharsets.UTF_8);
+        return ChangedFiles.read(listFile);
+    }
+
+    @Test
+    public void contains_listedAbsolutePath_true() throws Exception {
+        Path source = tempDir.resolve("src/p/A.java");
+        ChangedFiles changedFiles = readList("  " + source + "  ");
+        Assertions.assertTrue(changedFiles.contains(source.toUri()));
+        Assertions.assertFalse(changedFiles.contains(tempDir.resolve("src/p/B.java").toUri()));
+    }
+
+    @Test
+    public void contains_relativeAndNotNormalizedPath_resolvedAgainstWorkingDirectory() throws Exception {
+        ChangedFiles changedFiles = readList("src/../src/p/A.java");
+        Assertions.assertTrue(changedFiles.contains(Paths.get("src/p/A.java").toAbsolutePath().toUri()));
+    }
+
+    @Test
+    public void read_commentsAndEmptyLines_ignored() throws Exception {
+        ChangedFiles changedFiles = readList("", "   ", "# src/p/A.java");
+        Assertions.assertTrue(changedFiles.isEmpty());
+        Assertions.assertFalse(changedFiles.contains(Paths.get("# src/p/A.java").toAbsolutePath().toUri()));
+    }
+
+    @Test
+    public void contains_notFileUri_false() throws Exception {
+        ChangedFiles changedFiles = readList(tempDir.resolve("A.java").toString());
+        Assertions.assertFalse(changedFiles.isEmpty());
+        Assertions.assertFalse(changedFiles.contains(null));
+        Assertions.assertFalse(changedFiles.contains(URI.create("jar:file:/lib/src.jar!/p/A.java")));
+        Assertions.assertFalse(changedFiles.contains(URI.create("string:///p/A.java")));
+    }
+
+    @Test
+    public void getDeletedTypeNames_missingSourceFiles_typeNamesUnderSourceRoots() throws Exception {
+        Path sourceRoot = tempDir.resolve("src");
+        Path existing = sourceRoot.resolve("p/q/Kept.java");
+        Files.createDirectories(existing.getParent());
+        Files.createFile(existing);
+        ChangedFiles changedFiles = readList(
+                existing.toString(),
+                sourceRoot.resolve("p/q/Removed.java").toString(),
+                sourceRoot.resolve("Unnamed.java").toString(),
+                sourceRoot.resolve("p/package-info.java").toString(),
+                sourceRoot.resolve("p/notes.txt").toString(),
+                tempDir.resolve("other/r/Outside.java").toString());
+        Assertions.assertEquals(new TreeSet<>(Arrays.asList("Unnamed", "p.q.Removed")),
+                changedFiles.getDeletedTypeNames(Arrays.asList(tempDir.resolve("lib"), sourceRoot)));
+        Assertions.assertTrue(changedFiles.getDeletedTypeNames(Collections.emptyList()).isEmpty());
+    }
+
+}
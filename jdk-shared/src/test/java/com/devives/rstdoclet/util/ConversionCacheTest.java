@@ -0,0 +1,185 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public class ConversionCacheTest {
+
+    private static final String NAMESPACE = "1.0";
+
+    @TempDir
+    Path cacheDir;
+
+    private ConversionCache open() throws Exception {
+        return open(ConversionCache.DEFAULT_MAX_SIZE);
+    }
+
+    private ConversionCache open(long maxSize) throws Exception {
+        ConversionCache cache = ConversionCache.open(cacheDir, NAMESPACE, maxSize);
+        Assertions.assertNotNull(cache);
+        return cache;
+    }
+
+    private static String value(int index) {
+        StringBuilder value = new StringBuilder("value" + index);
+        while (value.length() < 100) {
+            value.append('.');
+        }
+        return value.toString();
+    }
+
+    @Test
+    public void get_afterReopen_valueFound() throws Exception {
+        try (ConversionCache cache = open()) {
+            Assertions.assertNull(cache.get("key"));
+            cache.put("key", "\u0417\u043d\u0430\u0447\u0435\u043d\u0438\u0435");
+            cache.put("other", "first");
+            cache.put("other", "second");
+            Assertions.assertEquals("\u0417\u043d\u0430\u0447\u0435\u043d\u0438\u0435", cache.get("key"));
+        }
+        try (ConversionCache cache = open()) {
+            Assertions.assertEquals("\u0417\u043d\u0430\u0447\u0435\u043d\u0438\u0435", cache.get("key"));
+            Assertions.assertEquals("second", cache.get("other"));
+            Assertions.assertEquals(2, cache.getHitCount());
+        }
+    }
+
+    @Test
+    public void get_otherNamespace_valueNotFound() throws Exception {
+        try (ConversionCache cache = open()) {
+            cache.put("key", "value");
+        }
+        try (ConversionCache cache = ConversionCache.open(cacheDir, "2.0", ConversionCache.DEFAULT_MAX_SIZE)) {
+            Assertions.assertNull(cache.get("key"));
+        }
+    }
+
+    @Test
+    public void open_recordsAfterSavedIndex_recoveredByTailScan() throws Exception {
+        try (ConversionCache cache = open()) {
+            cache.put("first", "1");
+        }
+        Path indexFile = cacheDir.resolve(ConversionCache.INDEX_FILE_NAME);
+        Path savedIndex = cacheDir.resolve("saved.idx");
+        Files.copy(indexFile, savedIndex);
+        try (ConversionCache cache = open()) {
+            cache.put("second", "2");
+        }
+        // The index of the interrupted run was not saved.
+        Files.move(savedIndex, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        try (ConversionCache cache = open()) {
+            Assertions.assertEquals("1", cache.get("first"));
+            Assertions.assertEquals("2", cache.get("second"));
+        }
+    }
+
+    @Test
+    public void open_tornLastRecord_cutOff() throws Exception {
+        try (ConversionCache cache = open()) {
+            cache.put("first", "1");
+        }
+        Path dataFile = cacheDir.resolve(ConversionCache.DATA_FILE_NAME);
+        long length = Files.size(dataFile);
+        // Header of the record, which value was not written completely.
+        ByteBuffer tornRecord = ByteBuffer.allocate(32 + 4 + 3);
+        tornRecord.position(32);
+        tornRecord.putInt(1000).put(new byte[]{1, 2, 3});
+        Files.write(dataFile, tornRecord.array(), StandardOpenOption.APPEND);
+        Files.delete(cacheDir.resolve(ConversionCache.INDEX_FILE_NAME));
+        try (ConversionCache cache = open()) {
+            Assertions.assertEquals(length, Files.size(dataFile));
+            Assertions.assertEquals("1", cache.get("first"));
+            cache.put("second", "2");
+        }
+        try (ConversionCache cache = open()) {
+            Assertions.assertEquals("1", cache.get("first"));
+            Assertions.assertEquals("2", cache.get("second"));
+        }
+    }
+
+    @Test
+    public void open_damagedIndex_recordsRecovered() throws Exception {
+        try (ConversionCache cache = open()) {
+            cache.put("first", "1");
+        }
+        Files.write(cacheDir.resolve(ConversionCache.INDEX_FILE_NAME), new byte[]{0x52, 0x53});
+        try (ConversionCache cache = open()) {
+            Assertions.assertEquals("1", cache.get("first"));
+        }
+    }
+
+    @Test
+    public void close_sizeLimitExceeded_recentlyUsedRecordsKept() throws Exception {
+        // Each record takes 136 bytes, so the compacted file keeps 5 records of 1000 * 3/4 bytes.
+        long maxSize = 1000;
+        try (ConversionCache cache = open(maxSize)) {
+            for (int i = 0; i < 5; i++) {
+                cache.put("key" + i, value(i));
+            }
+        }
+        try (ConversionCache cache = open(maxSize)) {
+            Assertions.assertEquals(value(0), cache.get("key0"));
+            for (int i = 5; i < 8; i++) {
+                cache.put("key" + i, value(i));
+            }
+        }
+        Assertions.assertTrue(Files.size(cacheDir.resolve(ConversionCache.DATA_FILE_NAME)) <= maxSize / 4 * 3);
+        Assertions.assertFalse(Files.exists(cacheDir.resolve(ConversionCache.DATA_FILE_NAME + RstFileWriter.TEMP_FILE_SUFFIX)));
+        try (ConversionCache cache = open(maxSize)) {
+            Assertions.assertEquals(value(0), cache.get("key0"));
+            for (int i = 5; i < 8; i++) {
+                Assertions.assertEquals(value(i), cache.get("key" + i));
+            }
+            int oldCount = 0;
+            for (int i = 1; i < 5; i++) {
+                String value = cache.get("key" + i);
+                if (value != null) {
+                    Assertions.assertEquals(value(i), value);
+                    oldCount++;
+                }
+            }
+            Assertions.assertEquals(1, oldCount);
+        }
+    }
+
+    @Test
+    public void open_cacheAlreadyOpened_null() throws Exception {
+        try (ConversionCache cache = open()) {
+            Assertions.assertNull(ConversionCache.open(cacheDir, NAMESPACE, ConversionCache.DEFAULT_MAX_SIZE));
+            cache.put("key", "value");
+        }
+    }
+
+    @Test
+    public void get_closedCache_throws() throws Exception {
+        ConversionCache cache = open();
+        cache.close();
+        cache.close();
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.get("key"));
+    }
+
+}
@@ -0,0 +1,162 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Name;
+import javax.lang.model.element.TypeElement;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class PageDependencyGraphTest {
+
+    @TempDir
+    Path destDir;
+
+    /**
+     * @param lines Lines of the graph: page, owner and dependencies, separated by tabs.
+     */
+    private void writeGraph(String... lines) throws Exception {
+        List<String> graph = new ArrayList<>();
+        graph.add("#rstdoclet-dependencies 2");
+        graph.addAll(Arrays.asList(lines));
+        Files.write(destDir.resolve(PageDependencyGraph.FILE_NAME), graph, StandardCharsets.UTF_8);
+    }
+
+    private static Set<String> setOf(String... values) {
+        return new TreeSet<>(Arrays.asList(values));
+    }
+
+    /**
+     * @return Type element, which supports only {@link TypeElement#getQualifiedName()}.
+     */
+    private static TypeElement typeElement(String qualifiedName) {
+        Name name = (Name) Proxy.newProxyInstance(Name.class.getClassLoader(), new Class<?>[]{Name.class},
+                (proxy, method, args) -> method.getName().equals("toString") ? qualifiedName : null);
+        return (TypeElement) Proxy.newProxyInstance(TypeElement.class.getClassLoader(), new Class<?>[]{TypeElement.class},
+                (proxy, method, args) -> method.getName().equals("getQualifiedName") ? name : null);
+    }
+
+    @Test
+    public void getAffectedPages_referencedType_pagesReturned() throws Exception {
+        writeGraph("p/A.rst\tp.A\tp.B\tq.C",
+                "p/B.rst\tp.B\tp.A",
+                "q/C.rst\tq.C\tp.B.Nested",
+                "q/D.rst\tq.D\tp.BB");
+        PageDependencyGraph graph = new PageDependencyGraph(destDir);
+        Assertions.assertEquals(setOf("p/A.rst", "q/C.rst"), graph.getAffectedPages(Collections.singleton("p.B")));
+        Assertions.assertEquals(setOf("p/A.rst", "p/B.rst"), graph.getAffectedPages(Arrays.asList("p.A", "q.C")));
+        Assertions.assertEquals(setOf(), graph.getAffectedPages(Collections.singleton("p.B.Other")));
+    }
+
+    @Test
+    public void getAffectedPages_noGraphFile_empty() throws Exception {
+        Assertions.assertEquals(setOf(), new PageDependencyGraph(destDir).getAffectedPages(Collections.singleton("p.A")));
+    }
+
+    @Test
+    public void save_recordedReferences_loadedByNextRun() throws Exception {
+        PageDependencyGraph graph = new PageDependencyGraph(destDir);
+        graph.beginPage(destDir.resolve("p/A.rst"));
+        graph.addReference(typeElement("p.B"));
+        graph.addReference((Element) null);
+        graph.endPage();
+        graph.addReference(typeElement("p.Ignored"));
+        graph.save();
+        PageDependencyGraph nextGraph = new PageDependencyGraph(destDir);
+        Assertions.assertEquals(setOf("p/A.rst"), nextGraph.getAffectedPages(Collections.singleton("p.B")));
+        Assertions.assertEquals(setOf(), nextGraph.getAffectedPages(Collections.singleton("p.Ignored")));
+    }
+
+    @Test
+    public void save_pagesNotRendered_previousDependenciesRetained() throws Exception {
+        writeGraph("p/A.rst\tp.A\tp.B", "p/C.rst\tp.C\tp.D", "p/E.rst\tp.E\tp.F");
+        PageDependencyGraph graph = new PageDependencyGraph(destDir);
+        graph.beginPage(destDir.resolve("p/A.rst"));
+        graph.addReference(typeElement("p.G"));
+        graph.endPage();
+        graph.retainPreviousPage(destDir.resolve("p/A.rst"));
+        graph.retainPreviousPage(destDir.resolve("p/C.rst"));
+        graph.save();
+        PageDependencyGraph nextGraph = new PageDependencyGraph(destDir);
+        Assertions.assertEquals(setOf(), nextGraph.getAffectedPages(Arrays.asList("p.B", "p.F")));
+        Assertions.assertEquals(setOf("p/A.rst", "p/C.rst"), nextGraph.getAffectedPages(Arrays.asList("p.G", "p.D")));
+    }
+
+    @Test
+    public void getPreviousOwner_splitTypePages_mappedToType() throws Exception {
+        PageDependencyGraph graph = new PageDependencyGraph(destDir);
+        for (String page : Arrays.asList("p/A.rst", "p/A-methods-1.rst", "p/A-Inner.rst")) {
+            graph.beginPage(destDir.resolve(page), typeElement(page.equals("p/A-Inner.rst") ? "p.A.Inner" : "p.A"));
+            graph.addReference(typeElement("q.B"));
+            graph.endPage();
+        }
+        graph.beginPage(destDir.resolve("packages.rst"));
+        graph.endPage();
+        graph.save();
+        PageDependencyGraph nextGraph = new PageDependencyGraph(destDir);
+        Assertions.assertEquals("p.A", nextGraph.getPreviousOwner("p/A-methods-1.rst"));
+        Assertions.assertEquals("p.A.Inner", nextGraph.getPreviousOwner("p/A-Inner.rst"));
+        Assertions.assertNull(nextGraph.getPreviousOwner("packages.rst"));
+        Assertions.assertNull(nextGraph.getPreviousOwner("p/Unknown.rst"));
+        Assertions.assertEquals(setOf("p/A-Inner.rst", "p/A-methods-1.rst", "p/A.rst"), nextGraph.getPreviousPagesOf("p.A"));
+        Assertions.assertEquals(setOf(), nextGraph.getPreviousPagesOf("p.AB"));
+    }
+
+    @Test
+    public void removePage_retainedPage_droppedFromGraph() throws Exception {
+        writeGraph("p/A.rst\tp.A\tq.B", "p/C.rst\tp.C\tq.B");
+        PageDependencyGraph graph = new PageDependencyGraph(destDir);
+        graph.retainPreviousPages();
+        graph.removePage(destDir.resolve("p/A.rst"));
+        graph.save();
+        PageDependencyGraph nextGraph = new PageDependencyGraph(destDir);
+        Assertions.assertEquals(setOf("p/C.rst"), nextGraph.getAffectedPages(Collections.singleton("q.B")));
+        Assertions.assertEquals("p.C", nextGraph.getPreviousOwner("p/C.rst"));
+    }
+
+    @Test
+    public void getAffectedPages_graphOfOtherFormat_ignored() throws Exception {
+        Files.write(destDir.resolve(PageDependencyGraph.FILE_NAME),
+                Collections.singletonList("p/A.rst\tp.B"), StandardCharsets.UTF_8);
+        Assertions.assertEquals(setOf(), new PageDependencyGraph(destDir).getAffectedPages(Collections.singleton("p.B")));
+    }
+
+    @Test
+    public void save_withFileSuffix_separateGraph() throws Exception {
+        writeGraph("p/A.rst\tp.A\tp.B");
+        PageDependencyGraph graph = new PageDependencyGraph(destDir, ".1");
+        graph.retainPreviousPages();
+        graph.save();
+        Assertions.assertEquals(setOf(), new PageDependencyGraph(destDir, ".1").getAffectedPages(Collections.singleton("p.B")));
+        Assertions.assertEquals(setOf("p/A.rst"), new PageDependencyGraph(destDir).getAffectedPages(Collections.singleton("p.B")));
+    }
+
+}
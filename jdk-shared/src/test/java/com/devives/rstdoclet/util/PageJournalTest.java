@@ -0,0 +1,114 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class PageJournalTest {
+
+    @TempDir
+    Path destDir;
+
+    private Path createPage(String relativePath) throws Exception {
+        Path page = destDir.resolve(relativePath);
+        Files.createDirectories(page.getParent());
+        Files.write(page, "Page".getBytes(StandardCharsets.UTF_8));
+        return page;
+    }
+
+    private String readJournal() throws Exception {
+        return new String(Files.readAllBytes(destDir.resolve(PageJournal.FILE_NAME)), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void open_resume_recordedExistingPagesCompleted() throws Exception {
+        Path first = createPage("p/First.rst");
+        Path second = createPage("p/Second.rst");
+        try (PageJournal journal = PageJournal.open(destDir, false)) {
+            journal.recordCompleted(first);
+            journal.recordCompleted(second);
+        }
+        Files.delete(second);
+        try (PageJournal journal = PageJournal.open(destDir, true)) {
+            Assertions.assertTrue(journal.isCompleted(first));
+            Assertions.assertFalse(journal.isCompleted(second), "Deleted page must be written again.");
+            Assertions.assertFalse(journal.isCompleted(createPage("p/Third.rst")));
+        }
+    }
+
+    @Test
+    public void open_resumeWithTruncatedLastLine_lineIgnoredAndCut() throws Exception {
+        Path first = createPage("p/First.rst");
+        Path second = createPage("p/Second.rst");
+        Files.write(destDir.resolve(PageJournal.FILE_NAME), "p/First.rst\np/Sec".getBytes(StandardCharsets.UTF_8));
+        try (PageJournal journal = PageJournal.open(destDir, true)) {
+            Assertions.assertTrue(journal.isCompleted(first));
+            Assertions.assertFalse(journal.isCompleted(second));
+            journal.recordCompleted(second);
+        }
+        Assertions.assertEquals("p/First.rst\np/Second.rst\n", readJournal());
+    }
+
+    @Test
+    public void open_withoutResume_journalRestarted() throws Exception {
+        Path first = createPage("First.rst");
+        try (PageJournal journal = PageJournal.open(destDir, false)) {
+            journal.recordCompleted(first);
+        }
+        try (PageJournal journal = PageJournal.open(destDir, false)) {
+            Assertions.assertFalse(journal.isCompleted(first));
+        }
+        Assertions.assertEquals("", readJournal());
+    }
+
+    @Test
+    public void open_afterInterruptedRun_tempFilesDeleted() throws Exception {
+        Path pageTemp = createPage("p/First.rst" + RstFileWriter.TEMP_FILE_SUFFIX);
+        Path manifestTemp = createPage(PageManifest.FILE_NAME + RstFileWriter.TEMP_FILE_SUFFIX);
+        Path otherTemp = createPage("p/data.txt" + RstFileWriter.TEMP_FILE_SUFFIX);
+        Files.createFile(destDir.resolve(PageJournal.FILE_NAME));
+        PageJournal.open(destDir, true).close();
+        Assertions.assertFalse(Files.exists(pageTemp));
+        Assertions.assertFalse(Files.exists(manifestTemp));
+        Assertions.assertTrue(Files.exists(otherTemp));
+    }
+
+    @Test
+    public void open_withFileSuffix_pageTempFilesKept() throws Exception {
+        Path pageTemp = createPage("p/First.rst" + RstFileWriter.TEMP_FILE_SUFFIX);
+        Files.createFile(destDir.resolve(PageJournal.FILE_NAME + ".1"));
+        PageJournal.open(destDir, ".1", true).close();
+        Assertions.assertTrue(Files.exists(pageTemp), "Page may be written by the concurrent process.");
+    }
+
+    @Test
+    public void complete_journalDeleted() throws Exception {
+        PageJournal journal = PageJournal.open(destDir, false);
+        journal.journaled(new RstFileWriter(StandardCharsets.UTF_8)).write(destDir.resolve("First.rst"), "Page");
+        Assertions.assertEquals("First.rst\n", readJournal());
+        journal.complete();
+        Assertions.assertFalse(Files.exists(destDir.resolve(PageJournal.FILE_NAME)));
+    }
+
+}
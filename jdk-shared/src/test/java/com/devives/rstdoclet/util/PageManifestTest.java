@@ -0,0 +1,124 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class PageManifestTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path createFile(Path file) throws Exception {
+        Files.createDirectories(file.getParent());
+        Files.write(file, "Page".getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static void writeManifest(Path destDir, String... entries) throws Exception {
+        Files.write(destDir.resolve(PageManifest.FILE_NAME), Arrays.asList(entries), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void deleteStalePages_pageNotGenerated_deletedWithEmptyDirectories() throws Exception {
+        Path destDir = tempDir.resolve("dest");
+        Path kept = createFile(destDir.resolve("p/Kept.rst"));
+        Path stale = createFile(destDir.resolve("p/q/Stale.rst"));
+        Path foreign = createFile(destDir.resolve("p/notes.txt"));
+        writeManifest(destDir, "p/Kept.rst", "p/q/Stale.rst");
+        PageManifest manifest = new PageManifest(destDir);
+        manifest.add(kept);
+        Assertions.assertEquals(1, manifest.deleteStalePages());
+        Assertions.assertTrue(Files.exists(kept));
+        Assertions.assertFalse(Files.exists(stale));
+        Assertions.assertFalse(Files.exists(destDir.resolve("p/q")));
+        Assertions.assertTrue(Files.exists(foreign), "Files, not listed in the manifest, must be kept.");
+    }
+
+    @Test
+    public void deleteStalePages_entryOutsideDestDir_notDeleted() throws Exception {
+        Path destDir = tempDir.resolve("dest");
+        Files.createDirectories(destDir);
+        Path outside = createFile(tempDir.resolve("outside/Page.rst"));
+        writeManifest(destDir, "../outside/Page.rst", outside.toAbsolutePath().toString(), "p/../../outside/Page.rst");
+        PageManifest manifest = new PageManifest(destDir);
+        Assertions.assertEquals(0, manifest.deleteStalePages());
+        Assertions.assertTrue(Files.exists(outside));
+    }
+
+    @Test
+    public void deleteStalePages_emptyDestDir_notDeleted() throws Exception {
+        Path destDir = tempDir.resolve("dest");
+        createFile(destDir.resolve("Stale.rst"));
+        writeManifest(destDir, "Stale.rst");
+        new PageManifest(destDir).deleteStalePages();
+        Assertions.assertTrue(Files.isDirectory(destDir));
+    }
+
+    @Test
+    public void retainPreviousPages_partialRun_previousPagesKept() throws Exception {
+        Path destDir = tempDir.resolve("dest");
+        Path previous = createFile(destDir.resolve("p/Previous.rst"));
+        Path current = createFile(destDir.resolve("p/Current.rst"));
+        writeManifest(destDir, "p/Previous.rst");
+        PageManifest manifest = new PageManifest(destDir);
+        manifest.retainPreviousPages();
+        manifest.add(current);
+        Assertions.assertEquals(0, manifest.deleteStalePages());
+        Assertions.assertTrue(Files.exists(previous));
+        manifest.save();
+        List<String> expected = Arrays.asList("p/Current.rst", "p/Previous.rst");
+        Assertions.assertEquals(expected, Files.readAllLines(destDir.resolve(PageManifest.FILE_NAME), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void remove_retainedPreviousPage_deletedAsStale() throws Exception {
+        Path destDir = tempDir.resolve("dest");
+        Path kept = createFile(destDir.resolve("p/Kept.rst"));
+        Path removed = createFile(destDir.resolve("p/Removed.rst"));
+        writeManifest(destDir, "p/Kept.rst", "p/Removed.rst");
+        PageManifest manifest = new PageManifest(destDir);
+        manifest.retainPreviousPages();
+        manifest.remove(removed);
+        Assertions.assertEquals(1, manifest.deleteStalePages());
+        Assertions.assertTrue(Files.exists(kept));
+        Assertions.assertFalse(Files.exists(removed));
+    }
+
+    @Test
+    public void save_withFileSuffix_separateManifest() throws Exception {
+        Path destDir = tempDir.resolve("dest");
+        Path page = createFile(destDir.resolve("Page.rst"));
+        PageManifest manifest = new PageManifest(destDir, ".2");
+        manifest.add(page);
+        manifest.save();
+        Assertions.assertEquals(Collections.singletonList("Page.rst"),
+                Files.readAllLines(destDir.resolve(PageManifest.FILE_NAME + ".2"), StandardCharsets.UTF_8));
+        Assertions.assertFalse(Files.exists(destDir.resolve(PageManifest.FILE_NAME)));
+    }
+
+}
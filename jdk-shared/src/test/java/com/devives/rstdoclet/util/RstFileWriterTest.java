@@ -0,0 +1,109 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+public class RstFileWriterTest {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private static String repeat(char ch, int count) {
+        StringBuilder builder = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            builder.append(ch);
+        }
+        return builder.toString();
+    }
+
+    private void assertWritten(Charset charset, String text) throws IOException {
+        Path path = tempDir.resolve("page.rst");
+        RstFileWriter writer = new RstFileWriter(charset);
+        writer.write(path, text);
+        byte[] expected = text.getBytes(charset);
+        Assertions.assertArrayEquals(expected, Files.readAllBytes(path));
+        Assertions.assertEquals(expected.length, writer.getByteCount());
+        Assertions.assertEquals(1, writer.getFileCount());
+    }
+
+    @Test
+    public void write_asciiLongerThanBuffer_bytesEqual() throws Exception {
+        assertWritten(StandardCharsets.UTF_8, repeat('a', BUFFER_SIZE * 2 + 17));
+    }
+
+    @Test
+    public void write_nonAsciiAtBufferBoundary_bytesEqual() throws Exception {
+        // Multi-byte characters and the surrogate pair straddle the end of the first buffer.
+        String text = repeat('a', BUFFER_SIZE - 1) + "\u00e9\u20ac\ud83d\ude00" + repeat('b', BUFFER_SIZE + 3) + "\u044f";
+        assertWritten(StandardCharsets.UTF_8, text);
+    }
+
+    @Test
+    public void write_unmappableCharacterAtBufferBoundary_replaced() throws Exception {
+        String text = repeat('a', BUFFER_SIZE - 1) + "\u20ac\u00e9" + repeat('b', BUFFER_SIZE);
+        assertWritten(StandardCharsets.ISO_8859_1, text);
+        Assertions.assertEquals((byte) '?', Files.readAllBytes(tempDir.resolve("page.rst"))[BUFFER_SIZE - 1]);
+    }
+
+    @Test
+    public void write_asciiIncompatibleCharset_bytesEqual() throws Exception {
+        assertWritten(StandardCharsets.UTF_16, repeat('a', BUFFER_SIZE) + "\u00e9");
+    }
+
+    @Test
+    public void write_missingParentDirectory_created() throws Exception {
+        Path path = tempDir.resolve("a/b/page.rst");
+        new RstFileWriter(StandardCharsets.UTF_8).write(path, "Title");
+        Assertions.assertEquals("Title", new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void write_existingFile_replacedWithoutTempFile() throws Exception {
+        Path path = tempDir.resolve("page.rst");
+        Files.write(path, "Old content, which is longer than the new one".getBytes(StandardCharsets.UTF_8));
+        new RstFileWriter(StandardCharsets.UTF_8).write(path, "New");
+        Assertions.assertEquals("New", new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            Assertions.assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void write_moveFails_targetKeptAndTempFileDeleted() throws Exception {
+        Path path = tempDir.resolve("page.rst");
+        Files.createDirectories(path);
+        Files.write(path.resolve("child.rst"), new byte[]{1});
+        Assertions.assertThrows(IOException.class,
+                () -> new RstFileWriter(StandardCharsets.UTF_8).write(path, "Text"));
+        Assertions.assertTrue(Files.isDirectory(path));
+        Assertions.assertFalse(Files.exists(tempDir.resolve("page.rst" + RstFileWriter.TEMP_FILE_SUFFIX)));
+    }
+
+}
@@ -18,8 +18,7 @@
 package com.devives.rstdoclet;
 
 import com.devives.rst.Rst;
-import com.devives.rstdoclet.html.HtmlAdaptersFactory;
-import com.devives.rstdoclet.html.HtmlAdaptersFactoryImpl;
+import com.devives.rstdoclet.util.PageWriteException;
 import com.devives.sphinx.rst.document.JavaDocRstElementFactoryImpl;
 import com.sun.source.util.DocTreePath;
 import jdk.javadoc.doclet.Doclet;
@@ -49,13 +48,16 @@ abstract class AbstractRstDoclet implements Doclet {
     protected final Messages messages;
     protected Utils utils;
 
+    static {
+        // The element factory of the rst-document library is global. It has no state, so it is installed once,
+        // and concurrent runs never replace it.
+        Rst.setElementFactory(new JavaDocRstElementFactoryImpl());
+    }
+
     public AbstractRstDoclet() {
         htmlDoclet_ = new LocalHtmlDoclet(this);
         configuration = htmlDoclet_.getConfiguration();
         messages = htmlDoclet_.getConfiguration().getMessages();
-        Rst.setElementFactory(new JavaDocRstElementFactoryImpl());
-        RstDocletComponentFactory.setInstance(new RstDocletComponentFactoryImpl());
-        HtmlAdaptersFactory.setInstance(new HtmlAdaptersFactoryImpl());
     }
 
     @Override
@@ -105,7 +107,13 @@ abstract class AbstractRstDoclet implements Doclet {
             dumpStack(configuration.dumpOnError, e);
 
         } catch (SimpleDocletException e) {
-            configuration.reporter.print(ERROR, e.getMessage());
+            if (e.getCause() instanceof PageWriteException) {
+                PageWriteException cause = (PageWriteException) e.getCause();
+                messages.error("doclet.exception.write.file",
+                        cause.getPath().toString(), cause.getCause());
+            } else {
+                configuration.reporter.print(ERROR, e.getMessage());
+            }
             dumpStack(configuration.dumpOnError, e);
 
         } catch (InternalException e) {
@@ -115,11 +123,30 @@ abstract class AbstractRstDoclet implements Doclet {
         } catch (DocletException | RuntimeException | Error e) {
             messages.error("doclet.internal.exception", e);
             reportInternalError(e);
+        } finally {
+            releaseResources();
+            // Released after failed runs too, so the next run of the daemon can use the cache.
+            rstConfiguration.closeConversionCache();
         }
 
         return false;
     }
 
+    /**
+     * Generates {@code element-list} file in the destination directory.
+     *
+     * @throws DocletException If the file can not be written.
+     */
+    protected void generateElementList() throws DocletException {
+        ElementListWriter.generate(configuration);
+    }
+
+    /**
+     * Releases I/O threads and open files of the run. Called after successful and failed generation.
+     */
+    protected void releaseResources() {
+    }
+
     private void reportInternalError(Throwable t) {
         if (getClass().equals(StandardDoclet.class) || getClass().equals(HtmlDoclet.class)) {
             System.err.println(configuration.getResources().getText("doclet.internal.report.bug"));
@@ -178,7 +205,7 @@ abstract class AbstractRstDoclet implements Doclet {
 
         generateClassFiles(docEnv, classtree);
 
-        ElementListWriter.generate(configuration);
+        generateElementList();
         generatePackageFiles(classtree);
 
         configuration.tagletManager.printReport();
@@ -17,12 +17,21 @@
  */
 package com.devives.rstdoclet;
 
+import com.devives.rstdoclet.html.HtmlAdaptersFactory;
+import com.devives.rstdoclet.html.HtmlAdaptersFactoryImpl;
+import com.devives.rstdoclet.shard.Shard;
+import com.devives.rstdoclet.util.ConversionCache;
+import com.devives.rstdoclet.util.CrossReferenceIndex;
+import com.devives.rstdoclet.util.DocFilesMirror;
 import jdk.javadoc.doclet.Doclet;
 import jdk.javadoc.internal.doclets.formats.html.HtmlConfiguration;
 import jdk.javadoc.internal.doclets.toolkit.BaseConfiguration;
 import jdk.javadoc.internal.doclets.toolkit.Resources;
 import jdk.javadoc.internal.doclets.toolkit.util.Utils;
 
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -30,12 +39,77 @@ public class RstConfigurationImpl implements RstConfiguration {
 
     private final HtmlConfiguration htmlConfiguration_;
     public Utils utils;
+    private final RstDocletComponentFactory componentFactory_ = new RstDocletComponentFactoryImpl();
+    private final HtmlAdaptersFactory htmlAdaptersFactory_ = new HtmlAdaptersFactoryImpl();
+    private CrossReferenceIndex crossReferenceIndex_;
+    private ConversionCache conversionCache_;
+    private boolean conversionCacheOpened_ = false;
 
     /**
      * Argument for command line option "-packageindexfilename".
      */
     private String packageIndexFileName = "package-index";
 
+    /**
+     * Argument for command line option "-docencoding". Encoding of generated pages, UTF-8 if not specified.
+     */
+    private String docEncoding = null;
+
+    /**
+     * Argument for command line option "-archive". Zip file, which all pages are written into.
+     */
+    private String archiveFileName = null;
+
+    /**
+     * Argument for command line option "-onefileperpackage". Classes are documented as sections of package pages.
+     */
+    private boolean oneFilePerPackage = false;
+
+    /**
+     * Argument for command line option "-resume". Pages, completed by the interrupted run, are not regenerated.
+     */
+    private boolean resume = false;
+
+    /**
+     * Argument for command line option "-splitmembers". Count of members, above which class page is split.
+     */
+    private int splitThreshold = 0;
+
+    /**
+     * Argument for command line option "-packagefanout". Maximal count of entries in one packages index document.
+     */
+    private int packageFanOut = 0;
+
+    /**
+     * Argument for command line option "-docfiles". Which files of doc-files directories are mirrored.
+     */
+    private DocFilesMirror.Mode docFilesMode = DocFilesMirror.Mode.ALL;
+
+    /**
+     * Argument for command line option "-linkdocfiles". Hard link doc-files instead of copying.
+     */
+    private boolean linkDocFiles = false;
+
+    /**
+     * Argument for command line option "-partial". Only given packages are regenerated, other pages are kept.
+     */
+    private boolean partial = false;
+
+    /**
+     * Argument for command line option "-changedfiles". File with the list of changed source files, which pages are regenerated.
+     */
+    private String changedFilesList = null;
+
+    /**
+     * Argument for command line option "-shard". Part of packages, which pages are generated by this process.
+     */
+    private Shard shard = null;
+
+    /**
+     * Argument for command line option "-cachedir". Directory of the persistent cache of converted comments.
+     */
+    private String cacheDir = null;
+
     public RstConfigurationImpl(HtmlConfiguration htmlConfiguration) {
         htmlConfiguration_ = htmlConfiguration;
     }
@@ -51,13 +125,127 @@ public class RstConfigurationImpl implements RstConfiguration {
         Resources resources = htmlConfiguration_.getResources();
 
         List<Doclet.Option> options = List.of(
-                new BaseConfiguration.Option(resources, "-packageindexfilename", 1) {
+                new RstOption(resources, "-packageindexfilename", 1) {
                     @Override
                     public boolean process(String opt, List<String> args) {
                         packageIndexFileName = args.get(0);
                         return true;
                     }
                 },
+                new RstOption(resources, "-archive", 1) {
+                    @Override
+                    public boolean process(String opt, List<String> args) {
+                        archiveFileName = args.get(0);
+                        return true;
+                    }
+                },
+                new RstOption(resources, "-onefileperpackage") {
+                    @Override
+                    public boolean process(String opt, List<String> args) {
+                        oneFilePerPackage = true;
+                        return true;
+                    }
+                },
+                new RstOption(resources, "-resume") {
+                    @Override
+                    public boolean process(String opt, List<String> args) {
+                        resume = true;
+                        return true;
+                    }
+                },
+                new RstOption(resources, "-splitmembers", 1) {
+                    @Override
+                    public boolean process(String opt, List<String> args) {
+                        try {
+                            splitThreshold = Integer.parseInt(args.get(0));
+                        } catch (NumberFormatException e) {
+                            splitThreshold = -1;
+                        }
+                        if (splitThreshold < 0) {
+                            htmlConfiguration_.reporter.print(Diagnostic.Kind.ERROR,
+                                    "Invalid argument " + args.get(0) + " for " + opt + " option.");
+                            return false;
+                        }
+                        return true;
+                    }
+                },
+                new RstOption(resources, "-packagefanout", 1) {
+                    @Override
+                    public boolean process(String opt, List<String> args) {
+                        try {
+                            packageFanOut = Integer.parseInt(args.get(0));
+                        } catch (NumberFormatException e) {
+                            packageFanOut = -1;
+                        }
+                        if (packageFanOut < 0) {
+                            htmlConfiguration_.reporter.print(Diagnostic.Kind.ERROR,
+                                    "Invalid argument " + args.get(0) + " for " + opt + " option.");
+                            return false;
+                        }
+                        return true;
+                    }
+                },
+                new RstOption(resources, "-docfiles", 1) {
+                    @Override
+                    public boolean process(String opt, List<String> args) {
+                        try {
+                            docFilesMode = DocFilesMirror.Mode.valueOf(args.get(0).toUpperCase(Locale.ROOT));
+                        } catch (IllegalArgumentException e) {
+                            htmlConfiguration_.reporter.print(Diagnostic.Kind.ERROR,
+                                    "Invalid argument " + args.get(0) + " for " + opt + " option.");
+                            return false;
+                        }
+                        return true;
+                    }
+                },
+                new RstOption(resources, "-linkdocfiles") {
+                    @Override
+                    public boolean process(String opt, List<String> args) {
+                        linkDocFiles = true;
+                        return true;
+                    }
+                },
+                new RstOption(resources, "-partial") {
+                    @Override
+                    public boolean process(String opt, List<String> args) {
+                        partial = true;
+                        return true;
+                    }
+                },
+                new RstOption(resources, "-changedfiles", 1) {
+                    @Override
+                    public boolean process(String opt, List<String> args) {
+                        changedFilesList = args.get(0);
+                        return true;
+                    }
+                },
+                new RstOption(resources, "-shard", 1) {
+                    @Override
+                    public boolean process(String opt, List<String> args) {
+                        try {
+                            shard = Shard.parse(args.get(0));
+                        } catch (IllegalArgumentException e) {
+                            htmlConfiguration_.reporter.print(Diagnostic.Kind.ERROR,
+                                    "Invalid argument " + args.get(0) + " for " + opt + " option.");
+                            return false;
+                        }
+                        return true;
+                    }
+                },
+                new RstOption(resources, "-cachedir", 1) {
+                    @Override
+                    public boolean process(String opt, List<String> args) {
+                        cacheDir = args.get(0);
+                        return true;
+                    }
+                },
+                new BaseConfiguration.Option(resources, "-docencoding", 1) {
+                    @Override
+                    public boolean process(String opt, List<String> args) {
+                        docEncoding = args.get(0);
+                        return superOptions.get("-docencoding").process(opt, args);
+                    }
+                },
                 // For compatibility with gradle javadoc task.
                 new BaseConfiguration.Option(resources, "-windowtitle", 1) {
 
@@ -83,6 +271,66 @@ public class RstConfigurationImpl implements RstConfiguration {
         return htmlConfiguration_;
     }
 
+    @Override
+    public String getDocEncoding() {
+        return docEncoding;
+    }
+
+    @Override
+    public String getArchiveFileName() {
+        return archiveFileName;
+    }
+
+    @Override
+    public boolean isOneFilePerPackage() {
+        return oneFilePerPackage;
+    }
+
+    @Override
+    public boolean isResume() {
+        return resume;
+    }
+
+    @Override
+    public int getSplitThreshold() {
+        return splitThreshold;
+    }
+
+    @Override
+    public int getPackageFanOut() {
+        return packageFanOut;
+    }
+
+    @Override
+    public DocFilesMirror.Mode getDocFilesMode() {
+        return docFilesMode;
+    }
+
+    @Override
+    public boolean isLinkDocFiles() {
+        return linkDocFiles;
+    }
+
+    @Override
+    public boolean isPartial() {
+        return partial;
+    }
+
+    @Override
+    public String getChangedFilesList() {
+        return changedFilesList;
+    }
+
+    @Override
+    public Shard getShard() {
+        return shard;
+    }
+
+    @Override
+    public String getCacheDir() {
+        return cacheDir;
+    }
+
     @Override
     public Utils utils() {
         return utils;
@@ -96,6 +344,30 @@ public class RstConfigurationImpl implements RstConfiguration {
     }
 
 
+    /**
+     * Option of the doclet, which description is read from resources of the doclet.
+     */
+    private abstract static class RstOption extends BaseConfiguration.Option {
+
+        public RstOption(Resources resources, String name, int argCount) {
+            super(resources, name, argCount);
+        }
+
+        public RstOption(Resources resources, String name) {
+            super(resources, name);
+        }
+
+        @Override
+        public String getDescription() {
+            return RstOptionResources.getDescription(getNames().get(0));
+        }
+
+        @Override
+        public String getParameters() {
+            return RstOptionResources.getParameters(getNames().get(0));
+        }
+    }
+
     private final Set<String> baseOptionFilter = new HashSet<>(Arrays.asList(
 //                "--allow-script-in-comments",
 //                "--disable-javafx-strict-checks",
@@ -110,9 +382,9 @@ public class RstConfigurationImpl implements RstConfiguration {
 //                "-author",
             "-d",
             "-docencoding",
-//                "-docfilessubdirs",
+            "-docfilessubdirs",
             "-encoding",
-//                "-excludedocfilessubdir",
+            "-excludedocfilessubdir",
 //                "-group",
 //                "-keywords",
             "-link",
@@ -161,4 +433,84 @@ public class RstConfigurationImpl implements RstConfiguration {
 //                "-use",
 //                "-windowtitle"
     ));
+
+    @Override
+    public RstDocletComponentFactory getComponentFactory() {
+        return componentFactory_;
+    }
+
+    @Override
+    public HtmlAdaptersFactory getHtmlAdaptersFactory() {
+        return htmlAdaptersFactory_;
+    }
+
+    @Override
+    public CrossReferenceIndex getCrossReferenceIndex() {
+        if (crossReferenceIndex_ == null) {
+            crossReferenceIndex_ = new CrossReferenceIndex(htmlConfiguration_, componentFactory_,
+                    isOneFilePerPackage() ? getPackageIndexFileName() : null);
+        }
+        return crossReferenceIndex_;
+    }
+
+    @Override
+    public ConversionCache getConversionCache() {
+        if (!conversionCacheOpened_) {
+            conversionCacheOpened_ = true;
+            conversionCache_ = openConversionCache();
+        }
+        return conversionCache_;
+    }
+
+    private ConversionCache openConversionCache() {
+        String directory = getCacheDir();
+        if (directory == null) {
+            return null;
+        }
+        try {
+            ConversionCache cache = ConversionCache.open(Paths.get(directory), getConversionNamespace(),
+                    ConversionCache.DEFAULT_MAX_SIZE);
+            if (cache == null) {
+                htmlConfiguration_.reporter.print(Diagnostic.Kind.WARNING,
+                        "Cache " + directory + " is used by another process. Comments are converted without cache.");
+            }
+            return cache;
+        } catch (IOException e) {
+            htmlConfiguration_.reporter.print(Diagnostic.Kind.WARNING,
+                    "Cache " + directory + " is not available: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return Text, which is mixed into keys of the conversion cache: versions of the doclet and the javadoc tool,
+     * and options, which affect conversion of comments.
+     */
+    private String getConversionNamespace() {
+        return String.join("\n",
+                ConversionCache.getCodeVersion(getClass()),
+                String.valueOf(htmlConfiguration_.getDocletVersion()),
+                getPackageIndexFileName(),
+                String.valueOf(isOneFilePerPackage()),
+                String.valueOf(getDocFilesMode()),
+                String.valueOf(isLinkDocFiles()));
+    }
+
+    /**
+     * Closes the conversion cache, if it was opened by the run, and reports its statistics.
+     */
+    void closeConversionCache() {
+        ConversionCache cache = conversionCache_;
+        conversionCache_ = null;
+        conversionCacheOpened_ = false;
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.close();
+            htmlConfiguration_.reporter.print(Diagnostic.Kind.NOTE, cache.formatStatistics());
+        } catch (IOException e) {
+            htmlConfiguration_.reporter.print(Diagnostic.Kind.WARNING, "Cache is not saved: " + e.getMessage());
+        }
+    }
 }
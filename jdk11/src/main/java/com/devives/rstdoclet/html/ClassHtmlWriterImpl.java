@@ -18,21 +18,23 @@
 package com.devives.rstdoclet.html;
 
 import com.devives.html2rst.HtmlUtils;
-import com.devives.rst.document.inline.InlineElement;
-import com.devives.rstdoclet.rst.builder.JavaMemberRefBuilder;
-import com.devives.rstdoclet.rst.builder.JavaTypeRefBuilder;
-import jdk.javadoc.internal.doclets.formats.html.HtmlConfiguration;
+import com.devives.rstdoclet.RstConfiguration;
+import com.devives.rstdoclet.util.CrossReferenceIndex;
 import jdk.javadoc.internal.doclets.formats.html.LinkInfoImpl;
 import jdk.javadoc.internal.doclets.toolkit.Content;
 import jdk.javadoc.internal.doclets.toolkit.util.ClassTree;
 
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
 
 public class ClassHtmlWriterImpl extends jdk.javadoc.internal.doclets.formats.html.ClassWriterImpl {
 
-    public ClassHtmlWriterImpl(HtmlConfiguration configuration, TypeElement typeElement, ClassTree classTree) {
-        super(configuration, typeElement, classTree);
+    private final CrossReferenceIndex crossReferenceIndex_;
+
+    public ClassHtmlWriterImpl(RstConfiguration rstConfiguration, TypeElement typeElement, ClassTree classTree) {
+        super(rstConfiguration.getHtmlConfiguration(), typeElement, classTree);
+        crossReferenceIndex_ = rstConfiguration.getCrossReferenceIndex();
     }
 
     @Override
@@ -41,15 +43,16 @@ public class ClassHtmlWriterImpl extends jdk.javadoc.internal.doclets.formats.ht
         if (content instanceof RstContent) {
             return content;
         } else if (linkInfo.executableElement != null) {
-            InlineElement inlineElement = new JavaMemberRefBuilder<>(linkInfo.executableElement, configuration.utils).build();
-            return  new RstContent(inlineElement, content);
+            // Link info is reused by the HTML writer, so the element and the label are copied before the link is deferred.
+            ExecutableElement executableElement = linkInfo.executableElement;
+            return new RstContent(() -> crossReferenceIndex_.createRef(executableElement, null), content);
         } else if (linkInfo.typeElement != null) {
-            String text = null;
-            if (linkInfo.label != null) {
-                text = HtmlUtils.removeCodeTags((linkInfo.label != null) ? linkInfo.label.toString() : "");
-            }
-            InlineElement inlineElement = new JavaTypeRefBuilder<>(linkInfo.typeElement).setText(text).build();
-            return  new RstContent(inlineElement, content);
+            TypeElement typeElement = linkInfo.typeElement;
+            Content label = linkInfo.label;
+            return new RstContent(() -> {
+                String text = label != null ? HtmlUtils.removeCodeTags(label.toString()) : null;
+                return crossReferenceIndex_.createRef(typeElement, text);
+            }, content);
         }
         return content;
     }
@@ -57,16 +60,16 @@ public class ClassHtmlWriterImpl extends jdk.javadoc.internal.doclets.formats.ht
     @Override
     public Content getDocLink(LinkInfoImpl.Kind context, TypeElement typeElement, Element element, Content label, boolean strong, boolean isProperty) {
         Content content = super.getDocLink(context, typeElement, element, label, strong, isProperty);
-        String text = HtmlUtils.removeCodeTags((label != null) ? label.toString() : "");
-        InlineElement inlineElement = new JavaMemberRefBuilder<>(element, configuration.utils).setText(text).build();
-        return new RstContent(inlineElement, content);
+        return new RstContent(() -> {
+            String text = HtmlUtils.removeCodeTags((label != null) ? label.toString() : "");
+            return crossReferenceIndex_.createRef(element, text);
+        }, content);
     }
 
     @Override
     public Content getCrossClassLink(TypeElement classElement, String refMemName, Content label, boolean strong, boolean code) {
         Content content = super.getCrossClassLink(classElement, refMemName, label, strong, code);
-        InlineElement inlineElement = new JavaTypeRefBuilder<>(classElement).build();
-        return new RstContent(inlineElement, content);
+        return new RstContent(() -> crossReferenceIndex_.createRef(classElement, null), content);
     }
 
 }
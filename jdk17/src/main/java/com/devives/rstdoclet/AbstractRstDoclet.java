@@ -18,8 +18,7 @@
 package com.devives.rstdoclet;
 
 import com.devives.rst.Rst;
-import com.devives.rstdoclet.html.HtmlAdaptersFactory;
-import com.devives.rstdoclet.html.HtmlAdaptersFactoryImpl;
+import com.devives.rstdoclet.util.PageWriteException;
 import com.devives.sphinx.rst.document.JavaDocRstElementFactoryImpl;
 import com.sun.source.util.DocTreePath;
 import jdk.javadoc.doclet.Doclet;
@@ -57,11 +56,14 @@ public abstract class AbstractRstDoclet implements Doclet {
     protected Messages messages;
     protected Utils utils;
 
+    static {
+        // The element factory of the rst-document library is global. It has no state, so it is installed once,
+        // and concurrent runs never replace it.
+        Rst.setElementFactory(new JavaDocRstElementFactoryImpl());
+    }
+
     public AbstractRstDoclet() {
         htmlDoclet_ = new LocalHtmlDoclet(this);
-        Rst.setElementFactory(new JavaDocRstElementFactoryImpl());
-        RstDocletComponentFactory.setInstance(new RstDocletComponentFactoryImpl());
-        HtmlAdaptersFactory.setInstance(new HtmlAdaptersFactoryImpl());
     }
 
     @Override
@@ -120,7 +122,13 @@ public abstract class AbstractRstDoclet implements Doclet {
             dumpStack(options.dumpOnError(), e);
 
         } catch (SimpleDocletException e) {
-            htmlConfiguration.reporter.print(ERROR, e.getMessage());
+            if (e.getCause() instanceof PageWriteException) {
+                PageWriteException cause = (PageWriteException) e.getCause();
+                messages.error("doclet.exception.write.file",
+                        cause.getPath().toString(), cause.getCause());
+            } else {
+                htmlConfiguration.reporter.print(ERROR, e.getMessage());
+            }
             dumpStack(options.dumpOnError(), e);
 
         } catch (InternalException e) {
@@ -130,11 +138,30 @@ public abstract class AbstractRstDoclet implements Doclet {
         } catch (DocletException | RuntimeException | Error e) {
             messages.error("doclet.internal.exception", e);
             reportInternalError(e);
+        } finally {
+            releaseResources();
+            // Released after failed runs too, so the next run of the daemon can use the cache.
+            configuration.closeConversionCache();
         }
 
         return false;
     }
 
+    /**
+     * Generates {@code element-list} file in the destination directory.
+     *
+     * @throws DocletException If the file can not be written.
+     */
+    protected void generateElementList() throws DocletException {
+        ElementListWriter.generate(htmlConfiguration);
+    }
+
+    /**
+     * Releases I/O threads and open files of the run. Called after successful and failed generation.
+     */
+    protected void releaseResources() {
+    }
+
     private void reportInternalError(Throwable t) {
         dumpStack(true, t);
     }
@@ -190,7 +217,7 @@ public abstract class AbstractRstDoclet implements Doclet {
 
         generateClassFiles(classtree);
 
-        ElementListWriter.generate(htmlConfiguration);
+        generateElementList();
         generatePackageFiles(classtree);
 
         htmlConfiguration.tagletManager.printReport();
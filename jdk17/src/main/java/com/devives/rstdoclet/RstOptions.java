@@ -17,11 +17,14 @@
  */
 package com.devives.rstdoclet;
 
+import com.devives.rstdoclet.shard.Shard;
+import com.devives.rstdoclet.util.DocFilesMirror;
 import jdk.javadoc.doclet.Doclet;
 import jdk.javadoc.internal.doclets.formats.html.HtmlOptions;
 import jdk.javadoc.internal.doclets.toolkit.BaseConfiguration;
 import jdk.javadoc.internal.doclets.toolkit.Resources;
 
+import javax.tools.Diagnostic;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -52,6 +55,66 @@ public class RstOptions {
      */
     private boolean dumpOnError = false;
 
+    /**
+     * Argument for command-line option {@code -docencoding}. Encoding of generated pages, UTF-8 if not specified.
+     */
+    private String docEncoding = null;
+
+    /**
+     * Argument for command-line option {@code -archive}. Zip file, which all pages are written into.
+     */
+    private String archiveFileName = null;
+
+    /**
+     * Argument for command-line option {@code -onefileperpackage}. Classes are documented as sections of package pages.
+     */
+    private boolean oneFilePerPackage = false;
+
+    /**
+     * Argument for command-line option {@code -resume}. Pages, completed by the interrupted run, are not regenerated.
+     */
+    private boolean resume = false;
+
+    /**
+     * Argument for command-line option {@code -splitmembers}. Count of members, above which class page is split.
+     */
+    private int splitThreshold = 0;
+
+    /**
+     * Argument for command-line option {@code -packagefanout}. Maximal count of entries in one packages index document.
+     */
+    private int packageFanOut = 0;
+
+    /**
+     * Argument for command-line option {@code -docfiles}. Which files of doc-files directories are mirrored.
+     */
+    private DocFilesMirror.Mode docFilesMode = DocFilesMirror.Mode.ALL;
+
+    /**
+     * Argument for command-line option {@code -linkdocfiles}. Hard link doc-files instead of copying.
+     */
+    private boolean linkDocFiles = false;
+
+    /**
+     * Argument for command-line option {@code -partial}. Only given packages are regenerated, other pages are kept.
+     */
+    private boolean partial = false;
+
+    /**
+     * Argument for command-line option {@code -changedfiles}. File with the list of changed source files, which pages are regenerated.
+     */
+    private String changedFilesList = null;
+
+    /**
+     * Argument for command-line option {@code -shard}. Part of packages, which pages are generated by this process.
+     */
+    private Shard shard = null;
+
+    /**
+     * Argument for command-line option {@code -cachedir}. Directory of the persistent cache of converted comments.
+     */
+    private String cacheDir = null;
+
     protected RstOptions(HtmlOptions htmlOptions, BaseConfiguration config) {
         config_ = Objects.requireNonNull(config);
         htmlOptions_ = Objects.requireNonNull(htmlOptions);
@@ -85,6 +148,54 @@ public class RstOptions {
         return docTitle;
     }
 
+    public String docEncoding() {
+        return docEncoding;
+    }
+
+    public String archiveFileName() {
+        return archiveFileName;
+    }
+
+    public boolean oneFilePerPackage() {
+        return oneFilePerPackage;
+    }
+
+    public boolean resume() {
+        return resume;
+    }
+
+    public int splitThreshold() {
+        return splitThreshold;
+    }
+
+    public int packageFanOut() {
+        return packageFanOut;
+    }
+
+    public DocFilesMirror.Mode docFilesMode() {
+        return docFilesMode;
+    }
+
+    public boolean linkDocFiles() {
+        return linkDocFiles;
+    }
+
+    public boolean partial() {
+        return partial;
+    }
+
+    public String changedFilesList() {
+        return changedFilesList;
+    }
+
+    public Shard shard() {
+        return shard;
+    }
+
+    public String cacheDir() {
+        return cacheDir;
+    }
+
     private class LocalBaseOptions extends jdk.javadoc.internal.doclets.toolkit.BaseOptions {
 
         protected LocalBaseOptions(BaseConfiguration config) {
@@ -111,13 +222,120 @@ public class RstOptions {
             Resources resources = config_.getDocResources();
 
             List<Doclet.Option> options = List.of(
-                    new LocalBaseOptions.Option(resources, "-packageindexfilename", 1) {
+                    new RstOption(resources, "-packageindexfilename", 1) {
                         @Override
                         public boolean process(String opt, List<String> args) {
                             packageIndexFileName = args.get(0);
                             return true;
                         }
                     },
+                    new RstOption(resources, "-archive", 1) {
+                        @Override
+                        public boolean process(String opt, List<String> args) {
+                            archiveFileName = args.get(0);
+                            return true;
+                        }
+                    },
+                    new RstOption(resources, "-onefileperpackage") {
+                        @Override
+                        public boolean process(String opt, List<String> args) {
+                            oneFilePerPackage = true;
+                            return true;
+                        }
+                    },
+                    new RstOption(resources, "-resume") {
+                        @Override
+                        public boolean process(String opt, List<String> args) {
+                            resume = true;
+                            return true;
+                        }
+                    },
+                    new RstOption(resources, "-splitmembers", 1) {
+                        @Override
+                        public boolean process(String opt, List<String> args) {
+                            try {
+                                splitThreshold = Integer.parseInt(args.get(0));
+                            } catch (NumberFormatException e) {
+                                splitThreshold = -1;
+                            }
+                            if (splitThreshold < 0) {
+                                config_.reporter.print(Diagnostic.Kind.ERROR,
+                                        "Invalid argument " + args.get(0) + " for " + opt + " option.");
+                                return false;
+                            }
+                            return true;
+                        }
+                    },
+                    new RstOption(resources, "-packagefanout", 1) {
+                        @Override
+                        public boolean process(String opt, List<String> args) {
+                            try {
+                                packageFanOut = Integer.parseInt(args.get(0));
+                            } catch (NumberFormatException e) {
+                                packageFanOut = -1;
+                            }
+                            if (packageFanOut < 0) {
+                                config_.reporter.print(Diagnostic.Kind.ERROR,
+                                        "Invalid argument " + args.get(0) + " for " + opt + " option.");
+                                return false;
+                            }
+                            return true;
+                        }
+                    },
+                    new RstOption(resources, "-docfiles", 1) {
+                        @Override
+                        public boolean process(String opt, List<String> args) {
+                            try {
+                                docFilesMode = DocFilesMirror.Mode.valueOf(args.get(0).toUpperCase(Locale.ROOT));
+                            } catch (IllegalArgumentException e) {
+                                config_.reporter.print(Diagnostic.Kind.ERROR,
+                                        "Invalid argument " + args.get(0) + " for " + opt + " option.");
+                                return false;
+                            }
+                            return true;
+                        }
+                    },
+                    new RstOption(resources, "-linkdocfiles") {
+                        @Override
+                        public boolean process(String opt, List<String> args) {
+                            linkDocFiles = true;
+                            return true;
+                        }
+                    },
+                    new RstOption(resources, "-partial") {
+                        @Override
+                        public boolean process(String opt, List<String> args) {
+                            partial = true;
+                            return true;
+                        }
+                    },
+                    new RstOption(resources, "-changedfiles", 1) {
+                        @Override
+                        public boolean process(String opt, List<String> args) {
+                            changedFilesList = args.get(0);
+                            return true;
+                        }
+                    },
+                    new RstOption(resources, "-shard", 1) {
+                        @Override
+                        public boolean process(String opt, List<String> args) {
+                            try {
+                                shard = Shard.parse(args.get(0));
+                            } catch (IllegalArgumentException e) {
+                                config_.reporter.print(Diagnostic.Kind.ERROR,
+                                        "Invalid argument " + args.get(0) + " for " + opt + " option.");
+                                return false;
+                            }
+                            return true;
+                        }
+                    },
+                    new RstOption(resources, "-cachedir", 1) {
+                        @Override
+                        public boolean process(String opt, List<String> args) {
+                            cacheDir = args.get(0);
+                            return true;
+                        }
+                    },
                     new OverrideOption(resources, superBaseOptions.get("-d")) {
                         @Override
                         public boolean process(String opt, List<String> args) {
@@ -134,6 +352,14 @@ public class RstOptions {
                             return result;
                         }
                     },
+                    new OverrideOption(resources, superBaseOptions.get("-docencoding")) {
+                        @Override
+                        public boolean process(String opt, List<String> args) {
+                            boolean result = super.process(opt, args);
+                            docEncoding = args.get(0);
+                            return result;
+                        }
+                    },
                     new OverrideOption(resources, superHtmlOptions.get("-doctitle")) {
                         @Override
                         public boolean process(String opt, List<String> args) {
@@ -157,6 +383,30 @@ public class RstOptions {
             return allOptions;
         }
 
+        /**
+         * Option of the doclet, which description is read from resources of the doclet.
+         */
+        private abstract class RstOption extends Option {
+
+            public RstOption(Resources resources, String name, int argCount) {
+                super(resources, name, argCount);
+            }
+
+            public RstOption(Resources resources, String name) {
+                super(resources, name);
+            }
+
+            @Override
+            public String getDescription() {
+                return RstOptionResources.getDescription(getNames().get(0));
+            }
+
+            @Override
+            public String getParameters() {
+                return RstOptionResources.getParameters(getNames().get(0));
+            }
+        }
+
         private class OverrideOption extends Option {
 
             private final Option option;
@@ -216,9 +466,9 @@ public class RstOptions {
 //                "-author",
 //                "-d",
                 "-docencoding",
-//                "-docfilessubdirs",
+                "-docfilessubdirs",
                 "-encoding",
-//                "-excludedocfilessubdir",
+                "-excludedocfilessubdir",
 //                "-group",
 //                "-keywords",
                 "-link",
@@ -18,22 +18,24 @@
 package com.devives.rstdoclet.html;
 
 import com.devives.html2rst.HtmlUtils;
-import com.devives.rst.document.inline.InlineElement;
-import com.devives.rstdoclet.rst.builder.JavaMemberRefBuilder;
-import com.devives.rstdoclet.rst.builder.JavaTypeRefBuilder;
-import jdk.javadoc.internal.doclets.formats.html.HtmlConfiguration;
+import com.devives.rstdoclet.RstConfiguration;
+import com.devives.rstdoclet.util.CrossReferenceIndex;
 import jdk.javadoc.internal.doclets.formats.html.HtmlLinkInfo;
 import jdk.javadoc.internal.doclets.formats.html.markup.HtmlStyle;
 import jdk.javadoc.internal.doclets.toolkit.Content;
 
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
 
 public class PackageHtmlWriterImpl extends jdk.javadoc.internal.doclets.formats.html.PackageWriterImpl {
 
-    public PackageHtmlWriterImpl(HtmlConfiguration configuration, PackageElement packageElement) {
-        super(configuration, packageElement);
+    private final CrossReferenceIndex crossReferenceIndex_;
+
+    public PackageHtmlWriterImpl(RstConfiguration rstConfiguration, PackageElement packageElement) {
+        super(rstConfiguration.getHtmlConfiguration(), packageElement);
+        crossReferenceIndex_ = rstConfiguration.getCrossReferenceIndex();
     }
 
     @Override
@@ -42,11 +44,12 @@ public class PackageHtmlWriterImpl extends jdk.javadoc.internal.doclets.formats.
         if (content instanceof RstContent) {
             return content;
         } else if (linkInfo.executableElement != null) {
-            InlineElement inlineElement = new JavaMemberRefBuilder<>(linkInfo.executableElement, linkInfo.utils).build();
-            return new RstContent(inlineElement, content);
+            // Link info is reused by the HTML writer, so the element and the label are copied before the link is deferred.
+            ExecutableElement executableElement = linkInfo.executableElement;
+            return new RstContent(() -> crossReferenceIndex_.createRef(executableElement, null), content);
         } else if (linkInfo.typeElement != null) {
-            InlineElement inlineElement = new JavaTypeRefBuilder<>(linkInfo.typeElement).build();
-            return new RstContent(inlineElement, content);
+            TypeElement typeElement = linkInfo.typeElement;
+            return new RstContent(() -> crossReferenceIndex_.createRef(typeElement, null), content);
         }
         return content;
     }
@@ -55,17 +58,17 @@ public class PackageHtmlWriterImpl extends jdk.javadoc.internal.doclets.formats.
     public Content getDocLink(HtmlLinkInfo.Kind context, TypeElement typeElement, Element element, Content
             label, HtmlStyle style, boolean isProperty) {
         Content content = super.getDocLink(context, typeElement, element, label, style, isProperty);
-        String text = HtmlUtils.removeCodeTags(label.toString());
-        InlineElement inlineElement = new JavaMemberRefBuilder<>(element, configuration.utils).setText(text).build();
-        return new RstContent(inlineElement, content);
+        return new RstContent(() -> {
+            String text = HtmlUtils.removeCodeTags((label != null) ? label.toString() : "");
+            return crossReferenceIndex_.createRef(element, text);
+        }, content);
     }
 
     @Override
     public Content getCrossClassLink(TypeElement classElement, String refMemName, Content label, HtmlStyle style,
                                      boolean code) {
         Content content = super.getCrossClassLink(classElement, refMemName, label, style, code);
-        InlineElement inlineElement = new JavaTypeRefBuilder<>(classElement).build();
-        return new RstContent(inlineElement, content);
+        return new RstContent(() -> crossReferenceIndex_.createRef(classElement, null), content);
     }
 
 }
@@ -23,14 +23,22 @@ import jdk.javadoc.internal.doclets.toolkit.Content;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 public class RstContent extends Content {
 
     private final Content htmlContent_;
-    private final InlineElement inlineElement_;
+    private final Supplier<InlineElement> inlineElementSupplier_;
+    private InlineElement inlineElement_;
+    private String serialized_;
 
-    public RstContent(InlineElement inlineElement, Content htmlContent) {
-        inlineElement_ = inlineElement;
+    /**
+     * @param inlineElementSupplier Supplier of the RST link. Must not depend on state that changes after construction.
+     * @param htmlContent           HTML link.
+     */
+    public RstContent(Supplier<InlineElement> inlineElementSupplier, Content htmlContent) {
+        inlineElementSupplier_ = Objects.requireNonNull(inlineElementSupplier);
         htmlContent_ = htmlContent;
     }
 
@@ -38,13 +46,28 @@ public class RstContent extends Content {
         return htmlContent_;
     }
 
+    /**
+     * Builds the RST link on the first call and returns the same instance later, so the caller must not modify it.
+     *
+     * @return RST link.
+     */
     public InlineElement getInlineElement() {
+        if (inlineElement_ == null) {
+            inlineElement_ = inlineElementSupplier_.get();
+        }
         return inlineElement_;
     }
 
+    private String getSerialized() {
+        if (serialized_ == null) {
+            serialized_ = getInlineElement().serialize();
+        }
+        return serialized_;
+    }
+
     @Override
     public boolean write(Writer out, boolean atNewline) throws IOException {
-        Content textContent = Text.of(inlineElement_.serialize());
+        Content textContent = Text.of(getSerialized());
         return textContent.write(out, atNewline);
     }
 
@@ -26,11 +26,13 @@ import org.opentest4j.AssertionFailedError;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Stream;
@@ -169,6 +171,99 @@ public class RstDocletJdk17Test {
     }
 
 
+    @Test
+    public void generate_withCacheDir_superclassCommentEdited_inheritedDocUpdated() throws Exception {
+        Path testPath = outputPath.resolve("cache-inherit-doc");
+        deleteDirectoryRecursive(testPath);
+        Path sourcePath = testPath.resolve("src");
+        Path testOutputPath = testPath.resolve("out");
+        Files.createDirectories(sourcePath.resolve("p"));
+        Files.write(sourcePath.resolve("p/Derived.java"), Arrays.asList(
+                "package p;",
+                "public class Derived extends Base {",
+                "    /** {@inheritDoc} Limit is {@value Base#LIMIT}. */",
+                "    @Override",
+                "    public void run() {}",
+                "}"));
+        String[] args = new String[]{
+                "-d", testOutputPath.toString()
+                , "-encoding", "UTF-8"
+                , "-doclet", RstDoclet.class.getCanonicalName()
+                , "-docletpath", docletPath.toString()
+                , "-sourcepath", sourcePath.toString()
+                , "-cachedir", testPath.resolve("cache").toString()
+                , "p"
+        };
+        Path derivedPage = testOutputPath.resolve("p/Derived.rst");
+
+        writeBaseClass(sourcePath, "Runs the first version.", 1001);
+        Assertions.assertEquals(0, Main.execute(args));
+        String firstPage = new String(Files.readAllBytes(derivedPage), StandardCharsets.UTF_8);
+        Assertions.assertTrue(firstPage.contains("Runs the first version."), firstPage);
+        Assertions.assertTrue(firstPage.contains("1001"), firstPage);
+
+        writeBaseClass(sourcePath, "Runs the second version.", 2002);
+        Assertions.assertEquals(0, Main.execute(args));
+        String secondPage = new String(Files.readAllBytes(derivedPage), StandardCharsets.UTF_8);
+        Assertions.assertTrue(secondPage.contains("Runs the second version."), secondPage);
+        Assertions.assertTrue(secondPage.contains("2002"), secondPage);
+        Assertions.assertFalse(secondPage.contains("1001"), secondPage);
+        Assertions.assertFalse(secondPage.contains("Runs the first version."), secondPage);
+    }
+
+    private void writeBaseClass(Path sourcePath, String runComment, int limit) throws IOException {
+        Files.write(sourcePath.resolve("p/Base.java"), Arrays.asList(
+                "package p;",
+                "public class Base {",
+                "    public static final int LIMIT = " + limit + ";",
+                "    /** " + runComment + " */",
+                "    public void run() {}",
+                "}"));
+    }
+
+    @Test
+    public void generate_withChangedFiles_sourceFileDeleted_pagesDeletedAndPackageUpdated() throws Exception {
+        Path testPath = outputPath.resolve("changed-files-deleted");
+        deleteDirectoryRecursive(testPath);
+        Path sourcePath = testPath.resolve("src");
+        Path testOutputPath = testPath.resolve("out");
+        Path removedSource = sourcePath.resolve("p/Removable.java");
+        Files.createDirectories(sourcePath.resolve("p"));
+        Files.write(sourcePath.resolve("p/Kept.java"), Arrays.asList(
+                "package p;",
+                "/** Kept class. */",
+                "public class Kept {",
+                "}"));
+        Files.write(removedSource, Arrays.asList(
+                "package p;",
+                "/** Removable class. */",
+                "public class Removable {",
+                "}"));
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "-d", testOutputPath.toString()
+                , "-encoding", "UTF-8"
+                , "-doclet", RstDoclet.class.getCanonicalName()
+                , "-docletpath", docletPath.toString()
+                , "-sourcepath", sourcePath.toString()
+                , "-subpackages", "p"
+        ));
+        Path packagePage = testOutputPath.resolve("p/package-index.rst");
+        Assertions.assertEquals(0, Main.execute(args.toArray(new String[0])));
+        Assertions.assertTrue(Files.exists(testOutputPath.resolve("p/Removable.rst")));
+        Assertions.assertTrue(new String(Files.readAllBytes(packagePage), StandardCharsets.UTF_8).contains("Removable"));
+
+        Files.delete(removedSource);
+        Path changedFilesList = testPath.resolve("changed.txt");
+        Files.write(changedFilesList, Collections.singletonList(removedSource.toString()));
+        args.addAll(Arrays.asList("-changedfiles", changedFilesList.toString()));
+        Assertions.assertEquals(0, Main.execute(args.toArray(new String[0])));
+        Assertions.assertFalse(Files.exists(testOutputPath.resolve("p/Removable.rst")));
+        Assertions.assertTrue(Files.exists(testOutputPath.resolve("p/Kept.rst")));
+        String packageText = new String(Files.readAllBytes(packagePage), StandardCharsets.UTF_8);
+        Assertions.assertFalse(packageText.contains("Removable"), packageText);
+        Assertions.assertTrue(packageText.contains("Kept"), packageText);
+    }
+
     @Test
     @Disabled
     public void generate_forJavaUtils_noExceptions() throws Exception {
@@ -0,0 +1,111 @@
+/**
+ * RstDoclet for JavaDoc Tool, generating reStructuredText for Sphinx.
+ * Copyright (C) 2023-2024 Vladimir Ivanov <ivvlev@devives.com>.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.devives.rstdoclet;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time of one doclet run over generated sources, which comments are dominated by {@code @see} and
+ * {@code {@link}} tags, so the run is bound by taglet writers.
+ * <p>
+ * Run with {@code gradlew :jdk21:jmh}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeeTagsBenchmark {
+
+    @Param({"100"})
+    public int classCount;
+
+    @Param({"20"})
+    public int methodCount;
+
+    private Path tempPath_;
+    private RstDocletLauncher.Job job_;
+    private final RstDocletLauncher launcher_ = new RstDocletLauncher(1);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        tempPath_ = Files.createTempDirectory("rstdoclet-bench");
+        Path packagePath = tempPath_.resolve("src/bench");
+        Files.createDirectories(packagePath);
+        for (int classIndex = 0; classIndex < classCount; classIndex++) {
+            String next = "C" + ((classIndex + 1) % classCount);
+            List<String> lines = new ArrayList<>();
+            lines.add("package bench;");
+            lines.add("/**");
+            lines.add(" * Class " + classIndex + ", see {@link " + next + "}.");
+            lines.add(" * @see " + next);
+            lines.add(" * @see " + next + "#m0(int)");
+            lines.add(" */");
+            lines.add("public class C" + classIndex + " {");
+            for (int methodIndex = 0; methodIndex < methodCount; methodIndex++) {
+                lines.add("    /**");
+                lines.add("     * Method " + methodIndex + ", like {@link " + next + "#m" + methodIndex + "(int) the next}.");
+                lines.add("     * @param value Value, see {@link " + next + "}.");
+                lines.add("     * @return Result.");
+                lines.add("     * @see " + next + "#m" + methodIndex + "(int)");
+                lines.add("     * @see " + next + "#m" + methodIndex + "(int) Label of the link");
+                lines.add("     * @see java.util.List");
+                lines.add("     */");
+                lines.add("    public int m" + methodIndex + "(int value) { return value; }");
+            }
+            lines.add("}");
+            Files.write(packagePath.resolve("C" + classIndex + ".java"), lines, StandardCharsets.UTF_8);
+        }
+        job_ = new RstDocletLauncher.Job("bench")
+                .addSourcePath(tempPath_.resolve("src"))
+                .setDestination(tempPath_.resolve("out"))
+                .setEncoding("UTF-8")
+                .addPackages("bench");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> pathStream = Files.walk(tempPath_)) {
+            pathStream.sorted(Comparator.reverseOrder())
+                    .map(Path::toFile)
+                    .forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public int generate() {
+        RstDocletLauncher.Result result = launcher_.run(job_);
+        if (!result.isSuccess()) {
+            throw new IllegalStateException(result.getOutput());
+        }
+        return result.getExitCode();
+    }
+
+}
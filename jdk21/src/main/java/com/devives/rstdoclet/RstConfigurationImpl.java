@@ -17,14 +17,29 @@
  */
 package com.devives.rstdoclet;
 
+import com.devives.rstdoclet.html.HtmlAdaptersFactory;
+import com.devives.rstdoclet.html.HtmlAdaptersFactoryImpl;
+import com.devives.rstdoclet.shard.Shard;
+import com.devives.rstdoclet.util.ConversionCache;
+import com.devives.rstdoclet.util.CrossReferenceIndex;
+import com.devives.rstdoclet.util.DocFilesMirror;
 import jdk.javadoc.internal.doclets.formats.html.HtmlConfiguration;
 import jdk.javadoc.internal.doclets.toolkit.util.Utils;
 
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.nio.file.Paths;
+
 public class RstConfigurationImpl implements RstConfiguration {
 
     private final HtmlConfiguration htmlConfiguration_;
     private final RstOptions rstOptions_;
     public Utils utils;
+    private final RstDocletComponentFactory componentFactory_ = new RstDocletComponentFactoryImpl();
+    private final HtmlAdaptersFactory htmlAdaptersFactory_ = new HtmlAdaptersFactoryImpl();
+    private CrossReferenceIndex crossReferenceIndex_;
+    private ConversionCache conversionCache_;
+    private boolean conversionCacheOpened_ = false;
 
     public RstConfigurationImpl(HtmlConfiguration htmlConfiguration) {
         htmlConfiguration_ = htmlConfiguration;
@@ -44,8 +59,148 @@ public class RstConfigurationImpl implements RstConfiguration {
         return getOptions().getPackageIndexFileName();
     }
 
+    @Override
+    public String getDocEncoding() {
+        return getOptions().docEncoding();
+    }
+
+    @Override
+    public String getArchiveFileName() {
+        return getOptions().archiveFileName();
+    }
+
+    @Override
+    public boolean isOneFilePerPackage() {
+        return getOptions().oneFilePerPackage();
+    }
+
+    @Override
+    public boolean isResume() {
+        return getOptions().resume();
+    }
+
+    @Override
+    public int getSplitThreshold() {
+        return getOptions().splitThreshold();
+    }
+
+    @Override
+    public int getPackageFanOut() {
+        return getOptions().packageFanOut();
+    }
+
+    @Override
+    public DocFilesMirror.Mode getDocFilesMode() {
+        return getOptions().docFilesMode();
+    }
+
+    @Override
+    public boolean isLinkDocFiles() {
+        return getOptions().linkDocFiles();
+    }
+
+    @Override
+    public boolean isPartial() {
+        return getOptions().partial();
+    }
+
+    @Override
+    public String getChangedFilesList() {
+        return getOptions().changedFilesList();
+    }
+
+    @Override
+    public Shard getShard() {
+        return getOptions().shard();
+    }
+
+    @Override
+    public String getCacheDir() {
+        return getOptions().cacheDir();
+    }
+
     @Override
     public Utils utils() {
         return utils;
     }
+
+    @Override
+    public RstDocletComponentFactory getComponentFactory() {
+        return componentFactory_;
+    }
+
+    @Override
+    public HtmlAdaptersFactory getHtmlAdaptersFactory() {
+        return htmlAdaptersFactory_;
+    }
+
+    @Override
+    public CrossReferenceIndex getCrossReferenceIndex() {
+        if (crossReferenceIndex_ == null) {
+            crossReferenceIndex_ = new CrossReferenceIndex(htmlConfiguration_, componentFactory_,
+                    isOneFilePerPackage() ? getPackageIndexFileName() : null);
+        }
+        return crossReferenceIndex_;
+    }
+
+    @Override
+    public ConversionCache getConversionCache() {
+        if (!conversionCacheOpened_) {
+            conversionCacheOpened_ = true;
+            conversionCache_ = openConversionCache();
+        }
+        return conversionCache_;
+    }
+
+    private ConversionCache openConversionCache() {
+        String directory = getCacheDir();
+        if (directory == null) {
+            return null;
+        }
+        try {
+            ConversionCache cache = ConversionCache.open(Paths.get(directory), getConversionNamespace(),
+                    ConversionCache.DEFAULT_MAX_SIZE);
+            if (cache == null) {
+                htmlConfiguration_.reporter.print(Diagnostic.Kind.WARNING,
+                        "Cache " + directory + " is used by another process. Comments are converted without cache.");
+            }
+            return cache;
+        } catch (IOException e) {
+            htmlConfiguration_.reporter.print(Diagnostic.Kind.WARNING,
+                    "Cache " + directory + " is not available: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return Text, which is mixed into keys of the conversion cache: versions of the doclet and the javadoc tool,
+     * and options, which affect conversion of comments.
+     */
+    private String getConversionNamespace() {
+        return String.join("\n",
+                ConversionCache.getCodeVersion(getClass()),
+                String.valueOf(htmlConfiguration_.getDocletVersion()),
+                getPackageIndexFileName(),
+                String.valueOf(isOneFilePerPackage()),
+                String.valueOf(getDocFilesMode()),
+                String.valueOf(isLinkDocFiles()));
+    }
+
+    /**
+     * Closes the conversion cache, if it was opened by the run, and reports its statistics.
+     */
+    void closeConversionCache() {
+        ConversionCache cache = conversionCache_;
+        conversionCache_ = null;
+        conversionCacheOpened_ = false;
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.close();
+            htmlConfiguration_.reporter.print(Diagnostic.Kind.NOTE, cache.formatStatistics());
+        } catch (IOException e) {
+            htmlConfiguration_.reporter.print(Diagnostic.Kind.WARNING, "Cache is not saved: " + e.getMessage());
+        }
+    }
 }
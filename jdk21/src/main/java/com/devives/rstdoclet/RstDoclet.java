@@ -17,27 +17,48 @@
  */
 package com.devives.rstdoclet;
 
-import com.devives.rst.util.TextFileWriter;
 import com.devives.rstdoclet.rst.ClassRstGenerator;
 import com.devives.rstdoclet.rst.PackageSummaryRstGenerator;
+import com.devives.rstdoclet.shard.Shard;
+import com.devives.rstdoclet.util.AsyncPageWriter;
+import com.devives.rstdoclet.util.ChangedFiles;
+import com.devives.rstdoclet.util.DocFilesMirror;
+import com.devives.rstdoclet.util.PackageDirectories;
+import com.devives.rstdoclet.util.PageDependencyGraph;
+import com.devives.rstdoclet.util.PageJournal;
+import com.devives.rstdoclet.util.PageManifest;
+import com.devives.rstdoclet.util.PageSink;
+import com.devives.rstdoclet.util.RstFileWriter;
+import com.devives.rstdoclet.util.ZipPageWriter;
 import com.devives.sphinx.java.doc.PackagesIndexRstGenerator;
+import com.sun.source.util.DocTrees;
+import com.sun.source.util.TreePath;
 import com.sun.tools.javac.util.FatalError;
 import jdk.javadoc.internal.doclets.formats.html.HtmlOptions;
 import jdk.javadoc.internal.doclets.toolkit.DocletException;
 import jdk.javadoc.internal.doclets.toolkit.util.ClassTree;
-import jdk.javadoc.internal.doclets.toolkit.util.DocFile;
+import jdk.javadoc.internal.doclets.toolkit.util.DocPaths;
 import jdk.javadoc.internal.doclets.toolkit.util.SimpleDocletException;
 
 import javax.lang.model.element.Element;
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileManager;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
 import java.io.File;
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Arrays;
-import java.util.SortedSet;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * RstDoclet entry point. This class declares
@@ -49,6 +70,37 @@ import java.util.SortedSet;
  */
 public final class RstDoclet extends AbstractRstDoclet {
 
+    /**
+     * Count of threads, writing generated pages.
+     */
+    private static final int WRITER_THREAD_COUNT = 2;
+    /**
+     * Maximal total length of rendered pages, waiting for write.
+     */
+    private static final int MAX_QUEUED_CHARS = 8 * 1024 * 1024;
+
+    private PackageDirectories packageDirectories_;
+    private RstFileWriter fileWriter_;
+    private AsyncPageWriter pageWriter_;
+    private PageJournal journal_;
+    private PageManifest pageManifest_;
+    private PageDependencyGraph dependencyGraph_;
+    private int resumedPageCount_ = 0;
+    private int stalePageCount_ = 0;
+    private ClassTree classTree_;
+    /**
+     * Types, documented as sections of package pages, by package.
+     */
+    private final Map<PackageElement, List<TypeElement>> packageSectionTypes_ = new LinkedHashMap<>();
+    /**
+     * Types and packages, which pages are regenerated, if {@code -changedfiles} option is given, otherwise {@code null}.
+     */
+    private Set<Element> selectedElements_;
+    /**
+     * Pages of types, which source files are deleted, relative to the destination directory.
+     */
+    private final Set<String> deletedPages_ = new HashSet<>();
+
     @Override
     protected void generatePackageFiles(ClassTree classtree) throws DocletException {
         HtmlOptions htmlOptions = htmlConfiguration.getOptions();
@@ -57,17 +109,417 @@ public final class RstDoclet extends AbstractRstDoclet {
         // and package-tree.html pages for that package.
         final PackageElement[] packages = htmlConfiguration.packages.stream()
                 .filter(pkg -> (!(htmlOptions.noDeprecated() && utils.isDeprecated(pkg)) && htmlOptions.createTree()))
+                .filter(this::isInShard)
                 .toArray(PackageElement[]::new);
         try {
-            generatePackagesIndex(packages);
+            if (!isArchiveMode()) {
+                getPackageDirectories().createDirectories(Arrays.stream(packages)
+                        .map(pkg -> pkg.getQualifiedName().toString())
+                        .filter(name -> !name.isEmpty())
+                        .collect(Collectors.toList()));
+            }
+            if (!configuration.isPartial() && configuration.getShard() == null) {
+                // Packages index of shards is written by ShardMerger.
+                generatePackagesIndex(packages);
+            }
             for (PackageElement pkg : packages) {
-                generatePackage(pkg);
+                if (selectedElements_ == null || selectedElements_.contains(pkg)) {
+                    generatePackage(pkg);
+                } else {
+                    packageSectionTypes_.remove(pkg);
+                }
+            }
+            // Types of packages without page are documented on separate pages.
+            for (List<TypeElement> sectionTypes : packageSectionTypes_.values()) {
+                for (TypeElement typeElement : sectionTypes) {
+                    if (selectedElements_ == null || selectedElements_.contains(typeElement)) {
+                        generateClassFile(typeElement, classTree_);
+                    }
+                }
+            }
+            packageSectionTypes_.clear();
+            mirrorDocFiles(packages);
+            getPageWriter().close();
+            if (journal_ != null) {
+                journal_.complete();
+            }
+            Path destDir = Paths.get(configuration.getOptions().destDirName());
+            if (pageManifest_ != null) {
+                if (isSelectiveRun()) {
+                    pageManifest_.retainPreviousPages();
+                    for (String page : deletedPages_) {
+                        pageManifest_.remove(destDir.resolve(page));
+                    }
+                }
+                stalePageCount_ = pageManifest_.deleteStalePages();
+                pageManifest_.save();
+            }
+            if (dependencyGraph_ != null) {
+                if (isSelectiveRun()) {
+                    dependencyGraph_.retainPreviousPages();
+                    for (String page : deletedPages_) {
+                        dependencyGraph_.removePage(destDir.resolve(page));
+                    }
+                }
+                dependencyGraph_.save();
+            }
+            if (configuration.getShard() != null && !configuration.isPartial()) {
+                configuration.getShard().savePackages(destDir,
+                        Arrays.stream(packages).map(pkg -> pkg.getQualifiedName().toString()).collect(Collectors.toList()));
+            }
+            if (!configuration.isPartial()) {
+                // Types of other packages are not indexed by partial run.
+                reportUnresolvedReferences();
+            }
+            reportWriteStatistics();
+        } catch (IOException e) {
+            throw new SimpleDocletException(e.getMessage(), e);
+        }
+    }
+
+
+    /**
+     * Reports count of referenced elements, which are neither documented nor linked with {@code -link} option.
+     */
+    private void reportUnresolvedReferences() {
+        int unresolvedCount = configuration.getCrossReferenceIndex().getUnresolvedCount();
+        if (unresolvedCount > 0) {
+            htmlConfiguration.reporter.print(Diagnostic.Kind.NOTE, "Unresolved cross references: " + unresolvedCount);
+        }
+    }
+
+    /**
+     * Reports count, size and write throughput of generated pages, count of kept and deleted pages.
+     */
+    private void reportWriteStatistics() {
+        if (fileWriter_ != null) {
+            htmlConfiguration.reporter.print(Diagnostic.Kind.NOTE, fileWriter_.formatStatistics());
+        }
+        if (resumedPageCount_ > 0) {
+            htmlConfiguration.reporter.print(Diagnostic.Kind.NOTE, "Pages kept from the interrupted run: " + resumedPageCount_);
+        }
+        if (stalePageCount_ > 0) {
+            htmlConfiguration.reporter.print(Diagnostic.Kind.NOTE, "Stale pages deleted: " + stalePageCount_);
+        }
+    }
+
+    /**
+     * @return Writer of generated pages.
+     * @throws UnsupportedEncodingException If encoding, given by {@code -docencoding} option, is not supported.
+     */
+    private RstFileWriter getFileWriter() throws UnsupportedEncodingException {
+        if (fileWriter_ == null) {
+            String docEncoding = configuration.getDocEncoding();
+            try {
+                fileWriter_ = RstFileWriter.forCharsetName(docEncoding);
+            } catch (IllegalArgumentException e) {
+                UnsupportedEncodingException exception = new UnsupportedEncodingException("Unsupported -docencoding: " + docEncoding);
+                exception.initCause(e);
+                throw exception;
+            }
+        }
+        return fileWriter_;
+    }
+
+    /**
+     * If {@code -archive} option is given, moves {@code element-list} file from the destination directory into
+     * the archive, so the archive is the only output of the run. {@code doc-files} are not mirrored in this mode.
+     */
+    @Override
+    protected void generateElementList() throws DocletException {
+        super.generateElementList();
+        if (!isArchiveMode()) {
+            return;
+        }
+        Path elementList = Paths.get(configuration.getOptions().destDirName(), DocPaths.ELEMENT_LIST.getPath());
+        try {
+            if (Files.exists(elementList)) {
+                String text = new String(Files.readAllBytes(elementList), getFileWriter().getCharset());
+                getPageWriter().write(elementList, text);
+                Files.delete(elementList);
             }
         } catch (IOException e) {
             throw new SimpleDocletException(e.getMessage(), e);
         }
     }
 
+    /**
+     * Stops the write stage and closes the archive and the journal, if generation failed. The journal file is kept,
+     * so the next run with {@code -resume} option can skip pages, which are already written.
+     */
+    @Override
+    protected void releaseResources() {
+        try {
+            if (pageWriter_ != null) {
+                pageWriter_.abort();
+            }
+            if (journal_ != null) {
+                journal_.close();
+            }
+        } catch (IOException e) {
+            htmlConfiguration.reporter.print(Diagnostic.Kind.WARNING, "Failed to release resources: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return Write stage of generated pages. Pages are rendered on the calling thread and written by I/O threads.
+     * If {@code -archive} option is given, pages are written into the zip file by the single I/O thread.
+     * @throws IOException If encoding is not supported, or the archive can not be created.
+     */
+    private AsyncPageWriter getPageWriter() throws IOException {
+        if (pageWriter_ == null) {
+            String archiveFileName = configuration.getArchiveFileName();
+            if (archiveFileName != null) {
+                if (configuration.isResume()) {
+                    htmlConfiguration.reporter.print(Diagnostic.Kind.WARNING, "Option -resume is ignored, when pages are written into archive.");
+                }
+                PageSink sink = new ZipPageWriter(Paths.get(archiveFileName), Paths.get(configuration.getOptions().destDirName()), getFileWriter());
+                pageWriter_ = new AsyncPageWriter(sink, 1, MAX_QUEUED_CHARS);
+            } else {
+                Path destDir = Paths.get(configuration.getOptions().destDirName());
+                journal_ = PageJournal.open(destDir, getStateFileSuffix(), configuration.isResume());
+                pageManifest_ = new PageManifest(destDir, getStateFileSuffix());
+                dependencyGraph_ = new PageDependencyGraph(destDir, getStateFileSuffix());
+                configuration.getCrossReferenceIndex().setDependencyGraph(dependencyGraph_);
+                pageWriter_ = new AsyncPageWriter(journal_.journaled(getFileWriter()), WRITER_THREAD_COUNT, MAX_QUEUED_CHARS);
+            }
+        }
+        return pageWriter_;
+    }
+
+    /**
+     * Renders and writes the page, unless the page was completed by the interrupted run and {@code -resume}
+     * option is given. Elements, referenced while rendering, are recorded as dependencies of the page.
+     *
+     * @param file            Page file.
+     * @param contentSupplier Supplier of the page text.
+     * @param owner           Type or package, documented by the page, or {@code null}.
+     * @throws IOException If any error occurs while writing the page.
+     */
+    private void writePage(File file, Supplier<String> contentSupplier, Element owner) throws IOException {
+        AsyncPageWriter pageWriter = getPageWriter();
+        if (pageManifest_ != null) {
+            pageManifest_.add(file.toPath());
+        }
+        if (journal_ != null && journal_.isCompleted(file.toPath())) {
+            resumedPageCount_++;
+            dependencyGraph_.retainPreviousPage(file.toPath());
+            return;
+        }
+        if (dependencyGraph_ != null) {
+            dependencyGraph_.beginPage(file.toPath(), owner);
+        }
+        try {
+            pageWriter.write(file, contentSupplier);
+        } finally {
+            if (dependencyGraph_ != null) {
+                dependencyGraph_.endPage();
+            }
+        }
+    }
+
+    /**
+     * Mirrors {@code doc-files} directories of packages into output directories of packages. Mirrored files are
+     * registered in the manifest, so files, removed from sources, are deleted by the next run.
+     *
+     * @param packages Documented packages.
+     * @throws IOException If any file was not mirrored.
+     */
+    private void mirrorDocFiles(final PackageElement[] packages) throws IOException {
+        DocFilesMirror.Mode mode = configuration.getDocFilesMode();
+        if (mode == DocFilesMirror.Mode.NONE) {
+            return;
+        }
+        if (isArchiveMode()) {
+            htmlConfiguration.reporter.print(Diagnostic.Kind.WARNING, "doc-files are not written into archive.");
+            return;
+        }
+        JavaFileManager fileManager = htmlConfiguration.docEnv.getJavaFileManager();
+        if (!(fileManager instanceof StandardJavaFileManager)) {
+            return;
+        }
+        HtmlOptions htmlOptions = htmlConfiguration.getOptions();
+        Map<PackageElement, Set<String>> references = mode == DocFilesMirror.Mode.REFERENCED
+                ? getDocFilesReferences(packages)
+                : Collections.emptyMap();
+        try (DocFilesMirror mirror = new DocFilesMirror(WRITER_THREAD_COUNT, configuration.isLinkDocFiles())) {
+            for (PackageElement packageDoc : packages) {
+                Predicate<String> filter = name -> true;
+                if (mode == DocFilesMirror.Mode.REFERENCED) {
+                    Set<String> packageReferences = references.getOrDefault(packageDoc, Collections.emptySet());
+                    if (packageReferences.isEmpty()) {
+                        continue;
+                    }
+                    filter = packageReferences::contains;
+                }
+                String packageName = packageDoc.getQualifiedName().toString();
+                Iterable<? extends Path> sourceRoots = ((StandardJavaFileManager) fileManager)
+                        .getLocationAsPaths(utils.getLocationForPackage(packageDoc));
+                if (sourceRoots == null) {
+                    continue;
+                }
+                Path targetDir = getPackageDirectory(packageName).resolve(DocFilesMirror.DIRECTORY_NAME);
+                for (Path sourceRoot : sourceRoots) {
+                    Path sourceDir = sourceRoot.resolve(packageName.replace('.', '/')).resolve(DocFilesMirror.DIRECTORY_NAME);
+                    mirror.mirror(sourceDir, targetDir, htmlOptions.copyDocfileSubdirs(), htmlOptions.excludedDocFileDirs(), filter);
+                }
+            }
+            for (Path target : mirror.await()) {
+                if (pageManifest_ != null) {
+                    pageManifest_.add(target);
+                }
+            }
+            htmlConfiguration.reporter.print(Diagnostic.Kind.NOTE, mirror.formatStatistics());
+        }
+    }
+
+    /**
+     * @param packages Documented packages.
+     * @return Paths of {@code doc-files}, referenced from documentation comments of packages, their types and members.
+     */
+    private Map<PackageElement, Set<String>> getDocFilesReferences(final PackageElement[] packages) {
+        Elements elements = htmlConfiguration.docEnv.getElementUtils();
+        Map<PackageElement, Set<String>> references = new HashMap<>();
+        for (PackageElement packageDoc : packages) {
+            addDocFilesReferences(references.computeIfAbsent(packageDoc, key -> new HashSet<>()), packageDoc, elements);
+        }
+        for (TypeElement typeElement : htmlConfiguration.getIncludedTypeElements()) {
+            addDocFilesReferences(references.computeIfAbsent(getPackageOfType(typeElement), key -> new HashSet<>()),
+                    typeElement, elements);
+        }
+        return references;
+    }
+
+    private static void addDocFilesReferences(Set<String> references, Element element, Elements elements) {
+        references.addAll(DocFilesMirror.findReferences(elements.getDocComment(element)));
+        if (element instanceof TypeElement) {
+            for (Element member : element.getEnclosedElements()) {
+                // Nested types are included types themselves.
+                if (!(member instanceof TypeElement)) {
+                    addDocFilesReferences(references, member, elements);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return {@code true}, if only some pages are regenerated, and other pages of the previous run are kept.
+     */
+    private boolean isSelectiveRun() {
+        return configuration.isPartial() || selectedElements_ != null;
+    }
+
+    /**
+     * Selects types and packages, which pages are regenerated, if {@code -changedfiles} option is given: types,
+     * declared in changed files, packages with changed {@code package-info.java}, and types and packages, which pages
+     * reference changed types according to the dependency graph of the previous run. Pages of split types are mapped
+     * to their types by owners, recorded in the graph. Packages of selected types are selected too, because their
+     * pages list the types.
+     * <p>
+     * Listed source files, which do not exist anymore, are mapped to types by their paths under source roots.
+     * Packages of deleted types and pages, which reference them, are selected, and pages of deleted types are
+     * collected into {@link #deletedPages_}, so they are deleted instead of being kept from the previous run.
+     *
+     * @param typeElements Documented types.
+     * @return Selected types and packages, or {@code null}, if all pages are generated.
+     * @throws IOException If the list of changed files or the dependency graph can not be read.
+     */
+    private Set<Element> selectChangedElements(List<TypeElement> typeElements) throws IOException {
+        String changedFilesList = configuration.getChangedFilesList();
+        if (changedFilesList == null) {
+            return null;
+        }
+        ChangedFiles changedFiles = ChangedFiles.read(Paths.get(changedFilesList));
+        DocTrees docTrees = htmlConfiguration.docEnv.getDocTrees();
+        Path destDir = Paths.get(configuration.getOptions().destDirName()).toAbsolutePath().normalize();
+        PageDependencyGraph previousGraph = new PageDependencyGraph(destDir, getStateFileSuffix());
+        Map<String, Element> elementsByName = new HashMap<>();
+        Set<String> changedTypeNames = new HashSet<>();
+        Set<Element> selected = new HashSet<>();
+        for (TypeElement typeElement : typeElements) {
+            elementsByName.put(typeElement.getQualifiedName().toString(), typeElement);
+            if (changedFiles.contains(getSourceFile(docTrees, typeElement))) {
+                selected.add(typeElement);
+                changedTypeNames.add(typeElement.getQualifiedName().toString());
+            }
+        }
+        for (PackageElement packageDoc : htmlConfiguration.packages) {
+            String packageName = packageDoc.getQualifiedName().toString();
+            if (packageName.isEmpty()) {
+                continue;
+            }
+            elementsByName.putIfAbsent(packageName, packageDoc);
+            if (changedFiles.contains(getSourceFile(docTrees, packageDoc))) {
+                selected.add(packageDoc);
+            }
+        }
+        deletedPages_.clear();
+        for (String typeName : changedFiles.getDeletedTypeNames(getSourcePathRoots())) {
+            Element packageDoc = elementsByName.get(typeName.substring(0, Math.max(0, typeName.lastIndexOf('.'))));
+            if (packageDoc instanceof PackageElement) {
+                selected.add(packageDoc);
+            }
+            changedTypeNames.add(typeName);
+            deletedPages_.addAll(previousGraph.getPreviousPagesOf(typeName));
+        }
+        for (String page : previousGraph.getAffectedPages(changedTypeNames)) {
+            Element element = elementsByName.get(previousGraph.getPreviousOwner(page));
+            if (element != null) {
+                selected.add(element);
+            }
+        }
+        for (TypeElement typeElement : typeElements) {
+            if (selected.contains(typeElement)) {
+                selected.add(getPackageOfType(typeElement));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * @return Roots of the source path, or empty list, if the file manager does not expose them.
+     */
+    private Iterable<? extends Path> getSourcePathRoots() {
+        JavaFileManager fileManager = htmlConfiguration.docEnv.getJavaFileManager();
+        if (fileManager instanceof StandardJavaFileManager) {
+            Iterable<? extends Path> roots = ((StandardJavaFileManager) fileManager).getLocationAsPaths(StandardLocation.SOURCE_PATH);
+            if (roots != null) {
+                return roots;
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private static URI getSourceFile(DocTrees docTrees, Element element) {
+        TreePath path = docTrees.getPath(element);
+        return path != null ? path.getCompilationUnit().getSourceFile().toUri() : null;
+    }
+
+    /**
+     * @param packageDoc Package.
+     * @return {@code true}, if pages of the package are generated by this process: {@code -shard} option is not
+     * given, or the package belongs to the given shard.
+     */
+    private boolean isInShard(PackageElement packageDoc) {
+        Shard shard = configuration.getShard();
+        return shard == null || shard.contains(packageDoc.getQualifiedName().toString());
+    }
+
+    /**
+     * @return Suffix of names of the journal, the manifest and the dependency graph, which separates state files of
+     * shards, writing into the same destination directory.
+     */
+    private String getStateFileSuffix() {
+        Shard shard = configuration.getShard();
+        return shard != null ? shard.getFileSuffix() : "";
+    }
+
+    /**
+     * @return {@code true}, if pages are written into the zip file instead of the destination directory.
+     */
+    private boolean isArchiveMode() {
+        return configuration.getArchiveFileName() != null;
+    }
 
     /**
      * Generates package index for the given packages.
@@ -76,18 +528,31 @@ public final class RstDoclet extends AbstractRstDoclet {
      * @throws IOException If any error occurs while creating file or directories.
      */
     private void generatePackagesIndex(final PackageElement[] packages) throws IOException {
-        File file = Paths.get(configuration.getOptions().destDirName()).resolve("packages.rst").toFile();
+        Path destDir = Paths.get(configuration.getOptions().destDirName());
         String[] packageNames = Arrays.stream(packages).map(p -> p.getQualifiedName().toString()).toArray(String[]::new);
-        new TextFileWriter(file,
-                new PackagesIndexRstGenerator(packageNames)
-                        .setTitle(configuration.getOptions().docTitle())
-                        .setPackageIndexFileName(configuration.getOptions().getPackageIndexFileName())
-        ).write();
+        Map<String, Supplier<String>> documents = new PackagesIndexRstGenerator(packageNames)
+                .setTitle(configuration.getOptions().docTitle())
+                .setPackageIndexFileName(configuration.getOptions().getPackageIndexFileName())
+                .setMaxFanOut(configuration.getPackageFanOut())
+                .getDocuments("packages");
+        for (Map.Entry<String, Supplier<String>> entry : documents.entrySet()) {
+            writePage(destDir.resolve(entry.getKey()).toFile(), entry.getValue(), null);
+        }
     }
 
 
     /**
-     * Builds and retrieves the path for the
+     * @return Output directories of packages.
+     */
+    private PackageDirectories getPackageDirectories() {
+        if (packageDirectories_ == null) {
+            packageDirectories_ = new PackageDirectories(Paths.get(configuration.getOptions().destDirName()));
+        }
+        return packageDirectories_;
+    }
+
+    /**
+     * Retrieves the path for the
      * directory associated to the package
      * with the given <tt>name</tt>.
      *
@@ -95,11 +560,7 @@ public final class RstDoclet extends AbstractRstDoclet {
      * @return Built path.
      */
     private Path getPackageDirectory(final String packageName) {
-        final String directory = packageName.replace('.', '/');
-        DocFile.createFileForDirectory(htmlConfiguration, directory);
-        return Paths.get(configuration.getOptions().destDirName())
-                .resolve(directory)
-                .toAbsolutePath();
+        return getPackageDirectories().getDirectory(packageName);
     }
 
     /**
@@ -109,22 +570,24 @@ public final class RstDoclet extends AbstractRstDoclet {
      * @param packageDoc Package to generate documentation for.
      * @throws IOException If any error occurs while creating file or directories.
      */
-    private Path generatePackage(final PackageElement packageDoc) {
-        try {
-            final String name = packageDoc.getQualifiedName().toString();
-            if (!name.isEmpty()) {
-                final Path directoryPath = getPackageDirectory(name);
-                if (!Files.exists(directoryPath)) {
-                    Files.createDirectories(directoryPath);
-                }
-                File file = directoryPath.resolve(configuration.getOptions().getPackageIndexFileName() + ".rst").toFile();
-                new TextFileWriter(file, new PackageSummaryRstGenerator(packageDoc, configuration)).write();
-                return directoryPath;
+    private Path generatePackage(final PackageElement packageDoc) throws IOException {
+        final String name = packageDoc.getQualifiedName().toString();
+        if (!name.isEmpty()) {
+            final Path directoryPath = getPackageDirectory(name);
+            File file = directoryPath.resolve(configuration.getOptions().getPackageIndexFileName() + ".rst").toFile();
+            PackageSummaryRstGenerator generator = new PackageSummaryRstGenerator(packageDoc, configuration);
+            if (configuration.isOneFilePerPackage()) {
+                List<TypeElement> sectionTypes = packageSectionTypes_.getOrDefault(packageDoc, Collections.emptyList());
+                packageSectionTypes_.remove(packageDoc);
+                generator.setClassSections(sectionTypes.stream()
+                        .sorted(Comparator.comparing(typeElement -> typeElement.getQualifiedName().toString()))
+                        .map(typeElement -> new ClassRstGenerator(configuration, typeElement, classTree_).setTitleLevel(2))
+                        .collect(Collectors.toList()));
             }
-            return Paths.get(".");
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+            writePage(file, generator, packageDoc);
+            return directoryPath;
         }
+        return Paths.get(".");
     }
 
     private static PackageElement getPackageOfType(TypeElement typeElement) {
@@ -137,18 +600,37 @@ public final class RstDoclet extends AbstractRstDoclet {
 
     @Override
     protected void generateClassFiles(SortedSet<TypeElement> typeElems, ClassTree classTree) throws DocletException {
-        for (TypeElement te : typeElems) {
-            if (utils.hasHiddenTag(te) ||
-                    !(htmlConfiguration.isGeneratedDoc(te) && utils.isIncluded(te))) {
+        final List<TypeElement> generatedTypes = typeElems.stream()
+                .filter(te -> !(utils.hasHiddenTag(te) || !(htmlConfiguration.isGeneratedDoc(te) && utils.isIncluded(te))))
+                .collect(Collectors.toCollection(ArrayList::new));
+        // Types of all shards are indexed, so references to pages of other shards are resolved.
+        configuration.getCrossReferenceIndex().addTypes(generatedTypes);
+        generatedTypes.removeIf(te -> !isInShard(getPackageOfType(te)));
+        if (!isArchiveMode()) {
+            try {
+                getPackageDirectories().createDirectories(generatedTypes.stream()
+                        .map(te -> getPackageOfType(te).getQualifiedName().toString())
+                        .collect(Collectors.toCollection(LinkedHashSet::new)));
+            } catch (IOException e) {
+                throw new SimpleDocletException(e.getMessage(), e);
+            }
+        }
+        try {
+            selectedElements_ = selectChangedElements(generatedTypes);
+        } catch (IOException e) {
+            throw new SimpleDocletException(e.getMessage(), e);
+        }
+        classTree_ = classTree;
+        for (TypeElement te : generatedTypes) {
+            if (configuration.isOneFilePerPackage() && !getPackageOfType(te).getQualifiedName().toString().isEmpty()) {
+                packageSectionTypes_.computeIfAbsent(getPackageOfType(te), key -> new ArrayList<>()).add(te);
+                continue;
+            }
+            if (selectedElements_ != null && !selectedElements_.contains(te)) {
                 continue;
             }
             try {
-                final PackageElement packageDoc = getPackageOfType(te);
-                final String packageName = packageDoc.getQualifiedName().toString();
-                final Path packageDirectory = getPackageDirectory(packageName);
-                String fileName = utils.getSimpleName(te).replace(".", "-");
-                File file = packageDirectory.resolve(fileName + ".rst").toFile();
-                new TextFileWriter(file, new ClassRstGenerator(configuration, te, classTree)).write();
+                generateClassFile(te, classTree);
             } catch (IOException e) {
                 throw new SimpleDocletException(e.getMessage(), e);
             } catch (FatalError fe) {
@@ -160,4 +642,23 @@ public final class RstDoclet extends AbstractRstDoclet {
         }
     }
 
+    /**
+     * Generates the separate page of the type, or the overview and member pages, if the type has too many members.
+     *
+     * @param typeElement Type to generate page for.
+     * @param classTree   Class tree.
+     * @throws IOException If any error occurs while writing the page.
+     */
+    private void generateClassFile(TypeElement typeElement, ClassTree classTree) throws IOException {
+        final PackageElement packageDoc = getPackageOfType(typeElement);
+        final String packageName = packageDoc.getQualifiedName().toString();
+        final Path packageDirectory = getPackageDirectory(packageName);
+        String fileName = utils.getSimpleName(typeElement).replace(".", "-");
+        Map<String, Supplier<String>> pages = new ClassRstGenerator(configuration, typeElement, classTree)
+                .setSplitThreshold(configuration.getSplitThreshold())
+                .getPages(fileName);
+        for (Map.Entry<String, Supplier<String>> page : pages.entrySet()) {
+            writePage(packageDirectory.resolve(page.getKey()).toFile(), page.getValue(), typeElement);
+        }
+    }
 }
@@ -18,22 +18,24 @@
 package com.devives.rstdoclet.html;
 
 import com.devives.html2rst.HtmlUtils;
-import com.devives.rst.document.inline.InlineElement;
-import com.devives.rstdoclet.rst.builder.JavaMemberRefBuilder;
-import com.devives.rstdoclet.rst.builder.JavaTypeRefBuilder;
-import jdk.javadoc.internal.doclets.formats.html.HtmlConfiguration;
+import com.devives.rstdoclet.RstConfiguration;
+import com.devives.rstdoclet.util.CrossReferenceIndex;
 import jdk.javadoc.internal.doclets.formats.html.HtmlLinkInfo;
 import jdk.javadoc.internal.doclets.formats.html.markup.HtmlStyle;
 import jdk.javadoc.internal.doclets.toolkit.Content;
 import jdk.javadoc.internal.doclets.toolkit.util.ClassTree;
 
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
 
 public class ClassHtmlWriterImpl extends jdk.javadoc.internal.doclets.formats.html.ClassWriterImpl {
 
-    public ClassHtmlWriterImpl(HtmlConfiguration configuration, TypeElement typeElement, ClassTree classTree) {
-        super(configuration, typeElement, classTree);
+    private final CrossReferenceIndex crossReferenceIndex_;
+
+    public ClassHtmlWriterImpl(RstConfiguration rstConfiguration, TypeElement typeElement, ClassTree classTree) {
+        super(rstConfiguration.getHtmlConfiguration(), typeElement, classTree);
+        crossReferenceIndex_ = rstConfiguration.getCrossReferenceIndex();
     }
 
     @Override
@@ -42,15 +44,16 @@ public class ClassHtmlWriterImpl extends jdk.javadoc.internal.doclets.formats.ht
         if (content instanceof RstContent) {
             return content;
         } else if (linkInfo.getExecutableElement() != null) {
-            InlineElement inlineElement = new JavaMemberRefBuilder<>(linkInfo.getExecutableElement(), configuration.utils).build();
-            return  new RstContent(inlineElement, content);
+            // Link info is reused by the HTML writer, so the element and the label are copied before the link is deferred.
+            ExecutableElement executableElement = linkInfo.getExecutableElement();
+            return new RstContent(() -> crossReferenceIndex_.createRef(executableElement, null), content);
         } else if (linkInfo.getTypeElement() != null) {
-            String text = null;
-            if (linkInfo.getLabel() != null) {
-                text = HtmlUtils.removeCodeTags((linkInfo.getLabel() != null) ? linkInfo.getLabel().toString() : "");
-            }
-            InlineElement inlineElement = new JavaTypeRefBuilder<>(linkInfo.getTypeElement()).setText(text).build();
-            return  new RstContent(inlineElement, content);
+            TypeElement typeElement = linkInfo.getTypeElement();
+            Content label = linkInfo.getLabel();
+            return new RstContent(() -> {
+                String text = label != null ? HtmlUtils.removeCodeTags(label.toString()) : null;
+                return crossReferenceIndex_.createRef(typeElement, text);
+            }, content);
         }
         return content;
     }
@@ -59,17 +62,17 @@ public class ClassHtmlWriterImpl extends jdk.javadoc.internal.doclets.formats.ht
     public Content getDocLink(HtmlLinkInfo.Kind context, TypeElement typeElement, Element element, Content
             label, HtmlStyle style, boolean isProperty) {
         Content content = super.getDocLink(context, typeElement, element, label, style, isProperty);
-        String text = HtmlUtils.removeCodeTags(label.toString());
-        InlineElement inlineElement = new JavaMemberRefBuilder<>(element, configuration.utils).setText(text).build();
-        return new RstContent(inlineElement, content);
+        return new RstContent(() -> {
+            String text = HtmlUtils.removeCodeTags((label != null) ? label.toString() : "");
+            return crossReferenceIndex_.createRef(element, text);
+        }, content);
     }
 
     @Override
     public Content getCrossClassLink(TypeElement classElement, String refMemName, Content label, HtmlStyle style,
                                      boolean code) {
         Content content = super.getCrossClassLink(classElement, refMemName, label, style, code);
-        InlineElement inlineElement = new JavaTypeRefBuilder<>(classElement).build();
-        return new RstContent(inlineElement, content);
+        return new RstContent(() -> crossReferenceIndex_.createRef(classElement, null), content);
     }
 
 }
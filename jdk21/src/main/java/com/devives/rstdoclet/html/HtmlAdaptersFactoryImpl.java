@@ -18,7 +18,7 @@
 package com.devives.rstdoclet.html;
 
 
-import jdk.javadoc.internal.doclets.formats.html.HtmlConfiguration;
+import com.devives.rstdoclet.RstConfiguration;
 import jdk.javadoc.internal.doclets.formats.html.HtmlDocletWriter;
 import jdk.javadoc.internal.doclets.toolkit.util.ClassTree;
 
@@ -28,17 +28,17 @@ import javax.lang.model.element.TypeElement;
 public class HtmlAdaptersFactoryImpl extends HtmlAdaptersFactory {
 
     @Override
-    public HtmlDocletWriter newHtmlDocletWriter(HtmlDocletWriter delegateWriter) {
-        return new com.devives.rstdoclet.html.HtmlDocletWriter(delegateWriter);
+    public HtmlDocletWriter newHtmlDocletWriter(RstConfiguration configuration, HtmlDocletWriter delegateWriter) {
+        return new com.devives.rstdoclet.html.HtmlDocletWriter(configuration, delegateWriter);
     }
 
     @Override
-    public HtmlDocletWriter newHtmlClassWriter(HtmlConfiguration configuration, TypeElement typeElement, ClassTree classTree) {
+    public HtmlDocletWriter newHtmlClassWriter(RstConfiguration configuration, TypeElement typeElement, ClassTree classTree) {
         return new ClassHtmlWriterImpl(configuration, typeElement, classTree);
     }
 
     @Override
-    public HtmlDocletWriter newHtmlPackageWriter(HtmlConfiguration configuration, PackageElement packageElement) {
+    public HtmlDocletWriter newHtmlPackageWriter(RstConfiguration configuration, PackageElement packageElement) {
         return new PackageHtmlWriterImpl(configuration, packageElement);
     }
 
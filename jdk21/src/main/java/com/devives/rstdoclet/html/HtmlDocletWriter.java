@@ -17,7 +17,9 @@
  */
 package com.devives.rstdoclet.html;
 
+import com.devives.rstdoclet.RstConfiguration;
 import com.devives.rstdoclet.tools.javac.tree.DocPrettyNonEscaped;
+import com.devives.rstdoclet.util.CrossReferenceIndex;
 import com.sun.source.doctree.DocTree;
 import com.sun.source.doctree.SeeTree;
 import jdk.javadoc.internal.doclets.formats.html.HtmlLinkInfo;
@@ -39,10 +41,18 @@ import java.util.stream.Collectors;
 public class HtmlDocletWriter extends jdk.javadoc.internal.doclets.formats.html.HtmlDocletWriter {
 
     private final jdk.javadoc.internal.doclets.formats.html.HtmlDocletWriter delegateWriter;
-
-    public HtmlDocletWriter(jdk.javadoc.internal.doclets.formats.html.HtmlDocletWriter delegateWriter) {
+    /**
+     * Taglet writers of first sentences and of full comments, created once per doclet writer. They keep no state
+     * between calls, so one instance of each kind serves all comments of the page.
+     */
+    private TagletWriterImpl firstSentenceTagletWriter_;
+    private TagletWriterImpl tagletWriter_;
+    private final CrossReferenceIndex crossReferenceIndex_;
+
+    public HtmlDocletWriter(RstConfiguration rstConfiguration, jdk.javadoc.internal.doclets.formats.html.HtmlDocletWriter delegateWriter) {
         super(delegateWriter.configuration, delegateWriter.path);
         this.delegateWriter = delegateWriter;
+        this.crossReferenceIndex_ = rstConfiguration.getCrossReferenceIndex();
     }
 
     @Override
@@ -50,7 +60,7 @@ public class HtmlDocletWriter extends jdk.javadoc.internal.doclets.formats.html.
         Content content = null;
         if (tags.stream().filter(SeeTree.class::isInstance).findFirst().isPresent()) {
             List<? extends SeeTree> seeTags = tags.stream().filter(SeeTree.class::isInstance).map(SeeTree.class::cast).collect(Collectors.toList());
-            content = ((TagletWriterImpl) getTagletWriterInstance(true)).seeTagOutput(element, seeTags);
+            content = getSeeTagletWriter().seeTagOutput(element, seeTags);
         } else {
             content = delegateWriter.commentTagsToContent(element, tags, isFirstSentence);
         }
@@ -63,7 +73,20 @@ public class HtmlDocletWriter extends jdk.javadoc.internal.doclets.formats.html.
     }
 
     public TagletWriter getTagletWriterInstance(boolean isFirstSentence) {
-        return new TagletWriterImpl(this, isFirstSentence);
+        if (isFirstSentence) {
+            if (firstSentenceTagletWriter_ == null) {
+                firstSentenceTagletWriter_ = new TagletWriterImpl(this, true, crossReferenceIndex_);
+            }
+            return firstSentenceTagletWriter_;
+        }
+        if (tagletWriter_ == null) {
+            tagletWriter_ = new TagletWriterImpl(this, false, crossReferenceIndex_);
+        }
+        return tagletWriter_;
+    }
+
+    private TagletWriterImpl getSeeTagletWriter() {
+        return (TagletWriterImpl) getTagletWriterInstance(true);
     }
 
     public boolean addAnnotationInfo(VariableElement param,
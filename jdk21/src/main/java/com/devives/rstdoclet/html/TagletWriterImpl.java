@@ -18,9 +18,7 @@
 package com.devives.rstdoclet.html;
 
 import com.devives.html2rst.HtmlUtils;
-import com.devives.rst.document.inline.InlineElement;
-import com.devives.rstdoclet.rst.builder.JavaMemberRefBuilder;
-import com.devives.rstdoclet.rst.builder.JavaTypeRefBuilder;
+import com.devives.rstdoclet.util.CrossReferenceIndex;
 import com.sun.source.doctree.DocTree;
 import com.sun.source.doctree.LinkTree;
 import com.sun.source.doctree.SeeTree;
@@ -39,10 +37,12 @@ import jdk.javadoc.internal.doclets.toolkit.util.*;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Predicate;
 
@@ -53,22 +53,31 @@ public class TagletWriterImpl extends jdk.javadoc.internal.doclets.formats.html.
     private final HtmlConfiguration configuration;
     private final HtmlOptions options;
     private final Utils utils;
-    private final Method seeTagOutputMethod_;
+    private final CrossReferenceIndex crossReferenceIndex_;
+    /**
+     * Handle of the private {@code seeTagOutput(Element, SeeTree)} method of the base class. Resolved once per JVM.
+     */
+    private static final MethodHandle SEE_TAG_OUTPUT_HANDLE;
 
-    public TagletWriterImpl(HtmlDocletWriter htmlWriter, boolean isFirstSentence) {
+    static {
+        try {
+            Method method = jdk.javadoc.internal.doclets.formats.html.TagletWriterImpl.class
+                    .getDeclaredMethod("seeTagOutput", Element.class, SeeTree.class);
+            method.setAccessible(true);
+            SEE_TAG_OUTPUT_HANDLE = MethodHandles.lookup().unreflect(method);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public TagletWriterImpl(HtmlDocletWriter htmlWriter, boolean isFirstSentence, CrossReferenceIndex crossReferenceIndex) {
         super(htmlWriter, isFirstSentence);
         this.isFirstSentence = isFirstSentence;
         this.htmlWriter = htmlWriter;
         this.configuration = htmlWriter.configuration;
         this.options = configuration.getOptions();
         this.utils = configuration.utils;
-        try {
-            seeTagOutputMethod_ = jdk.javadoc.internal.doclets.formats.html.TagletWriterImpl.class
-                    .getDeclaredMethod("seeTagOutput", new Class<?>[]{Element.class, SeeTree.class});
-            seeTagOutputMethod_.setAccessible(true);
-        } catch (NoSuchMethodException e) {
-            throw new RuntimeException(e);
-        }
+        this.crossReferenceIndex_ = Objects.requireNonNull(crossReferenceIndex);
     }
 
     @Override
@@ -85,15 +94,14 @@ public class TagletWriterImpl extends jdk.javadoc.internal.doclets.formats.html.
     public Content seeTagOutput(Element holder, List<? extends SeeTree> seeTags) {
         List<Content> links = new ArrayList<>();
         for (SeeTree dt : seeTags) {
-            TagletWriterImpl t = new TagletWriterImpl(htmlWriter, isFirstSentence);
-            links.add(t.seeTagOutput(holder, dt));
+            links.add(seeTagOutput(holder, dt));
         }
         return links.get(0);
     }
 
     private Content seeTagOutput(Element element, SeeTree seeTag) {
         try {
-            Content content = (Content) seeTagOutputMethod_.invoke(this, element, seeTag);
+            Content content = (Content) SEE_TAG_OUTPUT_HANDLE.invoke(this, element, seeTag);
             if (content instanceof RstContent) {
                 return content;
             }
@@ -101,23 +109,27 @@ public class TagletWriterImpl extends jdk.javadoc.internal.doclets.formats.html.
             Element ref = ch.getReferencedElement(seeTag);
             Element refMem = ch.getReferencedMember(ref);
             if (refMem != null) {
-                String text = getLabelDocTree(ch, seeTag)
-                        .map(dText -> HtmlUtils.removeCodeTags(dText.toString()))
-                        .orElseGet(() -> HtmlUtils.removeCodeTags(ref.toString()));
-                InlineElement inlineElement = new JavaMemberRefBuilder<>(refMem, configuration.utils).setText(text).build();
-                return new RstContent(inlineElement, content);
+                return new RstContent(() -> {
+                    String text = getLabelDocTree(ch, seeTag)
+                            .map(dText -> HtmlUtils.removeCodeTags(dText.toString()))
+                            .orElseGet(() -> HtmlUtils.removeCodeTags(ref.toString()));
+                    return crossReferenceIndex_.createRef(refMem, text);
+                }, content);
             }
             TypeElement refClass = ch.getReferencedClass(ref);
             if (refClass != null) {
-                String text = getLabelDocTree(ch, seeTag)
-                        .map(dText -> HtmlUtils.removeCodeTags(dText.toString()))
-                        .orElseGet(() -> HtmlUtils.removeCodeTags(refClass.getSimpleName().toString()));
-                InlineElement inlineElement = new JavaTypeRefBuilder<>(refClass).setText(text).build();
-                return new RstContent(inlineElement, content);
+                return new RstContent(() -> {
+                    String text = getLabelDocTree(ch, seeTag)
+                            .map(dText -> HtmlUtils.removeCodeTags(dText.toString()))
+                            .orElseGet(() -> HtmlUtils.removeCodeTags(refClass.getSimpleName().toString()));
+                    return crossReferenceIndex_.createRef(refClass, text);
+                }, content);
             }
             return content;
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e.getCause());
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
         }
     }
 
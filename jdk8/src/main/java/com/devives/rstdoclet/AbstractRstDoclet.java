@@ -43,12 +43,17 @@ public abstract class AbstractRstDoclet {
     public MessageRetriever messages;
     public RstConfigurationImpl rstConfiguration;
 
+    static {
+        // The element factory of the rst-document library is global. It has no state, so it is installed once,
+        // and concurrent runs never replace it.
+        Rst.setElementFactory(new JavaDocRstElementFactoryImpl());
+    }
+
     public AbstractRstDoclet() {
         htmlDoclet_ = new LocalHtmlDoclet();
         configuration = (ConfigurationImpl) htmlDoclet_.configuration();
         messages = htmlDoclet_.configuration().message;
         rstConfiguration = new RstConfigurationImpl(configuration);
-        Rst.setElementFactory(new JavaDocRstElementFactoryImpl());
     }
 
     /**
@@ -120,7 +125,6 @@ public abstract class AbstractRstDoclet {
         ClassTree classtree = new ClassTree(configuration, configuration.nodeprecated);
 
         generateClassFiles(root, classtree);
-        Util.copyDocFiles(configuration, DocPaths.DOC_FILES);
 
         generatePackageFiles(classtree);
 
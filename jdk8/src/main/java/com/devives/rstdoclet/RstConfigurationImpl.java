@@ -17,12 +17,18 @@
  */
 package com.devives.rstdoclet;
 
+import com.devives.rstdoclet.util.DocFilesMirror;
 import com.sun.javadoc.DocErrorReporter;
 import com.sun.tools.doclets.formats.html.ConfigurationImpl;
 import com.sun.tools.doclets.internal.toolkit.Configuration;
 import com.sun.tools.doclets.internal.toolkit.util.MessageRetriever;
 import com.sun.tools.javac.util.StringUtils;
 
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringTokenizer;
+
 /**
  * Configure the output based on the command line options.
  */
@@ -39,6 +45,21 @@ public class RstConfigurationImpl {
      */
     public String packageIndexFileName = "package-index";
 
+    /**
+     * Argument for command line option "-docfiles".
+     */
+    public DocFilesMirror.Mode docFilesMode = DocFilesMirror.Mode.ALL;
+
+    /**
+     * True if command line option "-linkdocfiles" is used.
+     */
+    public boolean linkDocFiles = false;
+
+    /**
+     * Names of doc-files subdirectories from command line option "-excludedocfilessubdir".
+     */
+    public final Set<String> excludedDocFileDirs = new HashSet<>();
+
     public RstConfigurationImpl(ConfigurationImpl htmlConfiguration) {
         htmlConfiguration_ = htmlConfiguration;
         standardMessages = new CompositeMessageRetriever(
@@ -71,6 +92,15 @@ public class RstConfigurationImpl {
             String opt = StringUtils.toLowerCase(os[0]);
             if (opt.equals("-packageindexfilename")) {
                 packageIndexFileName = os[1];
+            } else if (opt.equals("-docfiles")) {
+                docFilesMode = DocFilesMirror.Mode.valueOf(os[1].toUpperCase(Locale.ROOT));
+            } else if (opt.equals("-linkdocfiles")) {
+                linkDocFiles = true;
+            } else if (opt.equals("-excludedocfilessubdir")) {
+                StringTokenizer st = new StringTokenizer(os[1], ":");
+                while (st.hasMoreTokens()) {
+                    excludedDocFileDirs.add(st.nextToken());
+                }
             }
         }
 //        String[][] filteredOptions = Arrays.stream(options)
@@ -101,8 +131,11 @@ public class RstConfigurationImpl {
         }
         // otherwise look for the options we have added
         option = StringUtils.toLowerCase(option);
-        if (option.equals("-packageindexfilename")) {
+        if (option.equals("-packageindexfilename")
+                || option.equals("-docfiles")) {
             return 2;
+        } else if (option.equals("-linkdocfiles")) {
+            return 1;
         } else {
             return 0;
         }
@@ -115,6 +148,16 @@ public class RstConfigurationImpl {
      * @param reporter the reporter used to report errors.
      */
     public boolean validOptions(String[][] options, DocErrorReporter reporter) {
+        for (String[] os : options) {
+            if (StringUtils.toLowerCase(os[0]).equals("-docfiles")) {
+                try {
+                    DocFilesMirror.Mode.valueOf(os[1].toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    reporter.printError("Invalid argument " + os[1] + " for " + os[0] + " option.");
+                    return false;
+                }
+            }
+        }
         return htmlConfiguration_.validOptions(options, reporter);
     }
 
@@ -20,6 +20,7 @@ package com.devives.rstdoclet;
 import com.devives.rst.util.TextFileWriter;
 import com.devives.rstdoclet.rst.ClassRstGenerator;
 import com.devives.rstdoclet.rst.PackageSummaryRstGenerator;
+import com.devives.rstdoclet.util.DocFilesMirror;
 import com.devives.sphinx.java.doc.PackagesIndexRstGenerator;
 import com.sun.javadoc.*;
 import com.sun.tools.doclets.internal.toolkit.Configuration;
@@ -33,7 +34,14 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * RstDoclet entry point. This class declares
@@ -45,9 +53,20 @@ import java.util.Arrays;
  */
 public final class RstDoclet extends AbstractRstDoclet {
 
-    private static final RstDoclet INSTANCE = new RstDoclet();
-    // An instance will be created by validOptions, and used by start.
-    private static RstDoclet docletToStart = null;
+    /**
+     * Count of threads, mirroring {@code doc-files}.
+     */
+    private static final int DOC_FILES_THREAD_COUNT = 2;
+
+    /**
+     * Instance, used to answer {@link #optionLength(String)}, which does not depend on options of the run.
+     */
+    private static final RstDoclet OPTIONS_DOCLET = new RstDoclet();
+    /**
+     * Instance, created by {@link #validOptions(String[][], DocErrorReporter)} and used by {@link #start(RootDoc)}.
+     * The javadoc tool calls both methods on the thread of the run, so concurrent runs get their own instances.
+     */
+    private static final ThreadLocal<RstDoclet> DOCLET_TO_START = new ThreadLocal<>();
 
     /**
      * The "start" method as required by Javadoc.
@@ -59,12 +78,10 @@ public final class RstDoclet extends AbstractRstDoclet {
     public static boolean start(RootDoc root) {
         // In typical use, options will have been set up by calling validOptions,
         // which will create an RstDoclet for use here.
-        RstDoclet doclet;
-        if (docletToStart != null) {
-            doclet = docletToStart;
-            docletToStart = null;
-        } else {
-            doclet = INSTANCE;
+        RstDoclet doclet = DOCLET_TO_START.get();
+        DOCLET_TO_START.remove();
+        if (doclet == null) {
+            doclet = new RstDoclet();
         }
         return doclet.start(doclet, root);
     }
@@ -177,6 +194,82 @@ public final class RstDoclet extends AbstractRstDoclet {
         for (PackageDoc pkg : packages) {
             generatePackage(pkg);
         }
+        mirrorDocFiles(packages);
+    }
+
+    /**
+     * Mirrors {@code doc-files} directories of packages and the {@code doc-files} directory of source roots into
+     * the destination directory.
+     * <p>
+     * Source roots are taken from the {@code -sourcepath} option, because this doclet API gives no access to
+     * locations of the file manager. Without the option, the current directory is the source root.
+     *
+     * @param packages Documented packages.
+     * @throws IOException If any file was not mirrored.
+     */
+    private void mirrorDocFiles(final PackageDoc[] packages) throws IOException {
+        DocFilesMirror.Mode mode = rstConfiguration.docFilesMode;
+        if (mode == DocFilesMirror.Mode.NONE) {
+            return;
+        }
+        List<Path> sourceRoots = new ArrayList<>();
+        String sourcePath = configuration.sourcepath != null ? configuration.sourcepath : "";
+        for (String sourceRoot : sourcePath.split(File.pathSeparator)) {
+            if (!sourceRoot.isEmpty()) {
+                sourceRoots.add(Paths.get(sourceRoot));
+            }
+        }
+        if (sourceRoots.isEmpty()) {
+            sourceRoots.add(Paths.get("."));
+        }
+        // The unnamed package stands for the doc-files directory of source roots, referenced from the overview.
+        Map<String, Set<String>> references = new LinkedHashMap<>();
+        references.put("", DocFilesMirror.findReferences(configuration.root.getRawCommentText()));
+        for (PackageDoc packageDoc : packages) {
+            Set<String> packageReferences = references.computeIfAbsent(packageDoc.name(), key -> new HashSet<>());
+            if (mode == DocFilesMirror.Mode.REFERENCED) {
+                addDocFilesReferences(packageReferences, packageDoc);
+                for (ClassDoc classDoc : packageDoc.allClasses()) {
+                    addDocFilesReferences(packageReferences, classDoc);
+                    for (MemberDoc memberDoc : getMembers(classDoc)) {
+                        addDocFilesReferences(packageReferences, memberDoc);
+                    }
+                }
+            }
+        }
+        try (DocFilesMirror mirror = new DocFilesMirror(DOC_FILES_THREAD_COUNT, rstConfiguration.linkDocFiles)) {
+            for (Map.Entry<String, Set<String>> entry : references.entrySet()) {
+                Predicate<String> filter = name -> true;
+                if (mode == DocFilesMirror.Mode.REFERENCED) {
+                    if (entry.getValue().isEmpty()) {
+                        continue;
+                    }
+                    filter = entry.getValue()::contains;
+                }
+                String packageName = entry.getKey();
+                Path targetDir = getPackageDirectory(packageName).resolve(DocFilesMirror.DIRECTORY_NAME);
+                for (Path sourceRoot : sourceRoots) {
+                    Path sourceDir = sourceRoot.resolve(packageName.replace('.', '/')).resolve(DocFilesMirror.DIRECTORY_NAME);
+                    mirror.mirror(sourceDir, targetDir, configuration.copydocfilesubdirs,
+                            rstConfiguration.excludedDocFileDirs, filter);
+                }
+            }
+            mirror.await();
+            configuration.root.printNotice(mirror.formatStatistics());
+        }
+    }
+
+    private static void addDocFilesReferences(Set<String> references, Doc doc) {
+        references.addAll(DocFilesMirror.findReferences(doc.getRawCommentText()));
+    }
+
+    private static List<MemberDoc> getMembers(ClassDoc classDoc) {
+        List<MemberDoc> members = new ArrayList<>();
+        members.addAll(Arrays.asList(classDoc.enumConstants()));
+        members.addAll(Arrays.asList(classDoc.fields(false)));
+        members.addAll(Arrays.asList(classDoc.constructors(false)));
+        members.addAll(Arrays.asList(classDoc.methods(false)));
+        return members;
     }
 
     /**
@@ -186,7 +279,7 @@ public final class RstDoclet extends AbstractRstDoclet {
      * option not known.  Negative value means error occurred.
      */
     public static int optionLength(String option) {
-        return INSTANCE.rstConfiguration.optionLength(option);
+        return OPTIONS_DOCLET.rstConfiguration.optionLength(option);
     }
 
     /**
@@ -202,8 +295,9 @@ public final class RstDoclet extends AbstractRstDoclet {
      */
     public static boolean validOptions(String[][] options,
                                        DocErrorReporter reporter) {
-        docletToStart = INSTANCE;
-        return docletToStart.rstConfiguration.validOptions(options, reporter);
+        RstDoclet doclet = new RstDoclet();
+        DOCLET_TO_START.set(doclet);
+        return doclet.rstConfiguration.validOptions(options, reporter);
     }
 
 }
@@ -18,12 +18,12 @@
 package com.devives.rstdoclet.html;
 
 import com.devives.html2rst.HtmlUtils;
-import com.devives.rst.document.inline.InlineElement;
 import com.devives.rst.util.StringUtils;
 import com.devives.rstdoclet.rst.builder.JavaMemberRefBuilder;
 import com.devives.rstdoclet.rst.builder.JavaTypeRefBuilder;
 import com.devives.sphinx.rst.document.JavaRef;
 import com.sun.javadoc.ClassDoc;
+import com.sun.javadoc.ExecutableMemberDoc;
 import com.sun.javadoc.MemberDoc;
 import com.sun.tools.doclets.formats.html.ClassWriterImpl;
 import com.sun.tools.doclets.formats.html.ConfigurationImpl;
@@ -46,15 +46,16 @@ public class ClassHtmlWriterImpl extends ClassWriterImpl {
         if (content instanceof RstContent) {
             return content;
         } else if (linkInfo.executableMemberDoc != null) {
-            InlineElement inlineElement = new JavaMemberRefBuilder<>(linkInfo.executableMemberDoc).build();
-            return new RstContent(inlineElement, content);
+            // Link info is reused by the HTML writer, so the element and the label are copied before the link is deferred.
+            ExecutableMemberDoc executableMemberDoc = linkInfo.executableMemberDoc;
+            return new RstContent(() -> new JavaMemberRefBuilder<>(executableMemberDoc).build(), content);
         } else if (linkInfo.classDoc != null) {
-            String text = null;
-            if (linkInfo.label != null) {
-                text = HtmlUtils.removeCodeTags((linkInfo.label != null) ? linkInfo.label.toString() : "");
-            }
-            InlineElement inlineElement = new JavaTypeRefBuilder<>(linkInfo.classDoc).setText(text).build();
-            return new RstContent(inlineElement, content);
+            ClassDoc classDoc = linkInfo.classDoc;
+            Content label = linkInfo.label;
+            return new RstContent(() -> {
+                String text = label != null ? HtmlUtils.removeCodeTags(label.toString()) : null;
+                return new JavaTypeRefBuilder<>(classDoc).setText(text).build();
+            }, content);
         }
         return content;
     }
@@ -63,9 +64,10 @@ public class ClassHtmlWriterImpl extends ClassWriterImpl {
     public Content getDocLink(LinkInfoImpl.Kind context, ClassDoc classDoc, MemberDoc doc,
                               Content label, boolean strong, boolean isProperty) {
         Content content = super.getDocLink(context, classDoc, doc, label, strong, isProperty);
-        String text = HtmlUtils.removeCodeTags((label != null) ? label.toString() : "");
-        InlineElement inlineElement = new JavaMemberRefBuilder<>(doc).setText(text).build();
-        return new RstContent(inlineElement, content);
+        return new RstContent(() -> {
+            String text = HtmlUtils.removeCodeTags((label != null) ? label.toString() : "");
+            return new JavaMemberRefBuilder<>(doc).setText(text).build();
+        }, content);
     }
 
     @Override
@@ -80,9 +82,10 @@ public class ClassHtmlWriterImpl extends ClassWriterImpl {
                                      boolean code) {
         Content content = super.getCrossClassLink(qualifiedClassName, refMemName, label, strong, style, code);
         if (StringUtils.notNullOrEmpty(qualifiedClassName)) {
-            String text = HtmlUtils.removeCodeTags((label != null) ? label.toString() : "");
-            InlineElement inlineElement = new JavaRef(qualifiedClassName, StringUtils.findFirstNotNullOrEmpty(text, qualifiedClassName));
-            return new RstContent(inlineElement, content);
+            return new RstContent(() -> {
+                String text = HtmlUtils.removeCodeTags((label != null) ? label.toString() : "");
+                return new JavaRef(qualifiedClassName, StringUtils.findFirstNotNullOrEmpty(text, qualifiedClassName));
+            }, content);
         } else {
             return null;
         }
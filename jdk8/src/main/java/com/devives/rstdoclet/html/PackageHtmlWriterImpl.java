@@ -18,12 +18,12 @@
 package com.devives.rstdoclet.html;
 
 import com.devives.html2rst.HtmlUtils;
-import com.devives.rst.document.inline.InlineElement;
 import com.devives.rst.util.StringUtils;
 import com.devives.rstdoclet.rst.builder.JavaMemberRefBuilder;
 import com.devives.rstdoclet.rst.builder.JavaTypeRefBuilder;
 import com.devives.sphinx.rst.document.JavaRef;
 import com.sun.javadoc.ClassDoc;
+import com.sun.javadoc.ExecutableMemberDoc;
 import com.sun.javadoc.MemberDoc;
 import com.sun.javadoc.PackageDoc;
 import com.sun.tools.doclets.formats.html.ConfigurationImpl;
@@ -46,11 +46,12 @@ public class PackageHtmlWriterImpl extends PackageWriterImpl {
         if (content instanceof RstContent) {
             return content;
         } else if (linkInfo.executableMemberDoc != null) {
-            InlineElement inlineElement = new JavaMemberRefBuilder<>(linkInfo.executableMemberDoc).build();
-            return  new RstContent(inlineElement, content);
+            // Link info is reused by the HTML writer, so the element and the label are copied before the link is deferred.
+            ExecutableMemberDoc executableMemberDoc = linkInfo.executableMemberDoc;
+            return new RstContent(() -> new JavaMemberRefBuilder<>(executableMemberDoc).build(), content);
         } else if (linkInfo.classDoc != null) {
-            InlineElement inlineElement = new JavaTypeRefBuilder<>(linkInfo.classDoc).build();
-            return  new RstContent(inlineElement, content);
+            ClassDoc classDoc = linkInfo.classDoc;
+            return new RstContent(() -> new JavaTypeRefBuilder<>(classDoc).build(), content);
         }
         return content;
     }
@@ -59,9 +60,10 @@ public class PackageHtmlWriterImpl extends PackageWriterImpl {
     public Content getDocLink(LinkInfoImpl.Kind context, ClassDoc classDoc, MemberDoc doc,
                               Content label, boolean strong, boolean isProperty) {
         Content content = super.getDocLink(context, classDoc, doc, label, strong, isProperty);
-        String text = HtmlUtils.removeCodeTags((label != null) ? label.toString() : "");
-        InlineElement inlineElement = new JavaMemberRefBuilder<>(doc).setText(text).build();
-        return new RstContent(inlineElement, content);
+        return new RstContent(() -> {
+            String text = HtmlUtils.removeCodeTags((label != null) ? label.toString() : "");
+            return new JavaMemberRefBuilder<>(doc).setText(text).build();
+        }, content);
     }
 
     @Override
@@ -75,9 +77,10 @@ public class PackageHtmlWriterImpl extends PackageWriterImpl {
                                      Content label, boolean strong, String style,
                                      boolean code) {
         Content content = super.getCrossClassLink(qualifiedClassName, refMemName, label, strong, style, code);
-        String text = HtmlUtils.removeCodeTags((label != null) ? label.toString() : "");
-        InlineElement inlineElement = new JavaRef(qualifiedClassName, StringUtils.findFirstNotNullOrEmpty(text, qualifiedClassName));
-        return new RstContent(inlineElement, content);
+        return new RstContent(() -> {
+            String text = HtmlUtils.removeCodeTags((label != null) ? label.toString() : "");
+            return new JavaRef(qualifiedClassName, StringUtils.findFirstNotNullOrEmpty(text, qualifiedClassName));
+        }, content);
     }
 
 }
@@ -190,6 +190,25 @@ public class ReadMeGenerator implements Constants {
                         .item(itm -> itm.paragraph(p -> p.text("Execute gradle task ").literal("documentation \\ javadoc4sphinx").text(".")))
                         .item(itm -> itm.paragraph(p -> p.text("Find generated files at ").literal("$project.build/docs/javadoc4sphinx/").text(".")))
                 )
+                .subTitle("Doclet options")
+                .paragraph(p -> p
+                        .text("Options of the doclet besides options of the standard doclet. All options except ")
+                        .literal("-packageindexfilename").text(", ").literal("-docfiles").text(" and ").literal("-linkdocfiles")
+                        .text(" are supported by Java 11, 17 and 21 doclets only."))
+                .beginBulletList()
+                .item(itm -> itm.paragraph(p -> p.literal("-packageindexfilename <name>").text(" Name of the package index file without extension, ").literal("package-index").text(" by default.")))
+                .item(itm -> itm.paragraph(p -> p.literal("-docencoding <name>").text(" Charset of generated pages, UTF-8 by default. Characters, which the charset can not encode, are replaced with the replacement character of the charset.")))
+                .item(itm -> itm.paragraph(p -> p.literal("-archive <file>").text(" Write all generated pages, including ").literal("element-list").text(", into the single zip file instead of the destination directory. ").literal("doc-files").text(" are not written in this mode.")))
+                .item(itm -> itm.paragraph(p -> p.literal("-resume").text(" Skip pages, which were completely written by the interrupted run and are recorded in ").literal(".rstdoclet-journal").text(" of the destination directory. Ignored with ").literal("-archive").text(".")))
+                .item(itm -> itm.paragraph(p -> p.literal("-splitmembers <n>").text(" Split pages of classes with more than ").literal("n").text(" members into the overview page and pages of member groups: enum constants, fields, constructors and methods. ").literal("0").text(", the default, disables splitting.")))
+                .item(itm -> itm.paragraph(p -> p.literal("-packagefanout <n>").text(" List at most ").literal("n").text(" entries in each packages index. Packages are grouped by common name prefix into nested indexes, chains of single-child prefixes are collapsed. Values below ").literal("2").text(", including the default ").literal("0").text(", keep the flat index.")))
+                .item(itm -> itm.paragraph(p -> p.literal("-docfiles <all|referenced|none>").text(" Which files of ").literal("doc-files").text(" directories are mirrored into output directories of packages: all files, the default, files referenced from documentation comments, or none. Files with the same size and modification time are not copied again.")))
+                .item(itm -> itm.paragraph(p -> p.literal("-linkdocfiles").text(" Create hard links to ").literal("doc-files").text(" instead of copies. Files are copied, where linking fails, e.g. across file systems.")))
+                .item(itm -> itm.paragraph(p -> p.literal("-partial").text(" Write pages of the given packages only. The packages index is not written, pages of other packages are kept. Used by ").literal("RstDocletWatcher").text(" to regenerate packages of changed sources.")))
+                .item(itm -> itm.paragraph(p -> p.literal("-changedfiles <file>").text(" Write only pages affected by source files, listed in the file one path per line: pages of changed types and packages, and pages, which referenced changed types in the previous run. Blank lines and lines starting with ").literal("#").text(" are ignored.")))
+                .item(itm -> itm.paragraph(p -> p.literal("-shard <i/N>").text(" Write pages of packages, which name hash code modulo ").literal("N").text(" equals ").literal("i").text(", so ").literal("N").text(" processes can write into the same destination directory. The packages index is written by ").literal("ShardMerger").text(" after all shards are finished.")))
+                .item(itm -> itm.paragraph(p -> p.literal("-cachedir <directory>").text(" Keep comments converted to RST in the directory and reuse them in later runs. A second process, using the same directory at the same time, runs without the cache.")))
+                .end()
                 .subTitle("Complete example projects")
                 .paragraph(p -> p
                         .text("Are placed at ").link("https://github.com/devives/rst-doclet/tree/main/usage/gradle", "GitHub").text("."))
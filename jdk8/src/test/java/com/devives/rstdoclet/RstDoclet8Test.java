@@ -184,6 +184,34 @@ public class RstDoclet8Test {
         Assertions.assertEquals(1, Main.execute(args));
     }
 
+    @Test
+    public void generate_withDocFilesReferenced_referencedFilesMirrored() throws Exception {
+        Path testPath = outputPath.resolve("doc-files");
+        deleteDirectoryRecursive(testPath);
+        Path sourcePath = testPath.resolve("src");
+        Path testOutputPath = testPath.resolve("out");
+        Files.createDirectories(sourcePath.resolve("p/doc-files"));
+        Files.write(sourcePath.resolve("p/A.java"), Arrays.asList(
+                "package p;",
+                "/** Class with <img src=\"doc-files/a.png\">. */",
+                "public class A {",
+                "}"));
+        Files.write(sourcePath.resolve("p/doc-files/a.png"), Arrays.asList("a"));
+        Files.write(sourcePath.resolve("p/doc-files/b.txt"), Arrays.asList("b"));
+        String[] args = new String[]{
+                "-d", testOutputPath.toString()
+                , "-encoding", "UTF-8"
+                , "-doclet", RstDoclet.class.getCanonicalName()
+                , "-docletpath", docletPath.toString()
+                , "-sourcepath", sourcePath.toString()
+                , "-docfiles", "referenced"
+                , "p"
+        };
+        Assertions.assertEquals(0, Main.execute(args));
+        Assertions.assertTrue(Files.exists(testOutputPath.resolve("p/doc-files/a.png")));
+        Assertions.assertFalse(Files.exists(testOutputPath.resolve("p/doc-files/b.txt")));
+    }
+
     @Test
     @Disabled
     public void validateResultsTest() throws Exception {